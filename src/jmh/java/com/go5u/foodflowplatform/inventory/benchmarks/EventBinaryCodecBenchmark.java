@@ -0,0 +1,76 @@
+package com.go5u.foodflowplatform.inventory.benchmarks;
+
+import com.go5u.foodflowplatform.inventory.domain.model.events.InventoryEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderItemEvent;
+import com.go5u.foodflowplatform.inventory.infrastructure.messaging.serialization.BinaryEventCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary counterpart of {@link EventJsonBenchmark}, on the same events. Encoded sizes are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventBinaryCodecBenchmark {
+
+    private BinaryEventCodec codec;
+
+    private OrderEvent orderEvent;
+    private byte[] orderBytes;
+    private InventoryEvent inventoryEvent;
+    private byte[] inventoryBytes;
+
+    @Setup
+    public void setUp() {
+        codec = new BinaryEventCodec();
+
+        List<OrderItemEvent> items = new ArrayList<>();
+        for (long dishId = 1; dishId <= 5; dishId++) {
+            items.add(new OrderItemEvent(dishId, "dish-" + dishId, 2, new BigDecimal("12.50")));
+        }
+        orderEvent = new OrderEvent(42L, items, "CREATED", LocalDateTime.now().withNano(0), 7, 1L);
+        orderBytes = codec.encode(orderEvent);
+
+        inventoryEvent = new InventoryEvent(42L, "Tomato", 17, "AVAILABLE", LocalDateTime.now().withNano(0));
+        inventoryBytes = codec.encode(inventoryEvent);
+    }
+
+    @Benchmark
+    public byte[] encodeOrderEvent() {
+        return codec.encode(orderEvent);
+    }
+
+    @Benchmark
+    public Object decodeOrderEvent() {
+        return codec.decode(orderBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeInventoryEvent() {
+        return codec.encode(inventoryEvent);
+    }
+
+    @Benchmark
+    public Object decodeInventoryEvent() {
+        return codec.decode(inventoryBytes);
+    }
+}
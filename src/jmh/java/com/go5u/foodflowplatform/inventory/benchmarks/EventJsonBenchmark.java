@@ -0,0 +1,89 @@
+package com.go5u.foodflowplatform.inventory.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.go5u.foodflowplatform.inventory.domain.model.events.InventoryEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderItemEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of the Kafka payloads: OrderEvent is read by the consumer and
+ * InventoryEvent is written by the producer. Readers and writers are prebuilt, as the Kafka
+ * JsonSerializer/JsonDeserializer do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventJsonBenchmark {
+
+    private ObjectWriter orderWriter;
+    private ObjectReader orderReader;
+    private ObjectWriter inventoryWriter;
+    private ObjectReader inventoryReader;
+
+    private OrderEvent orderEvent;
+    private byte[] orderJson;
+    private InventoryEvent inventoryEvent;
+    private byte[] inventoryJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+        orderWriter = objectMapper.writerFor(OrderEvent.class);
+        orderReader = objectMapper.readerFor(OrderEvent.class);
+        inventoryWriter = objectMapper.writerFor(InventoryEvent.class);
+        inventoryReader = objectMapper.readerFor(InventoryEvent.class);
+
+        List<OrderItemEvent> items = new ArrayList<>();
+        for (long dishId = 1; dishId <= 5; dishId++) {
+            items.add(new OrderItemEvent(dishId, "dish-" + dishId, 2, new BigDecimal("12.50")));
+        }
+        orderEvent = new OrderEvent(42L, items, "CREATED", LocalDateTime.now().withNano(0), 7, 1L);
+        orderJson = orderWriter.writeValueAsBytes(orderEvent);
+
+        inventoryEvent = new InventoryEvent(42L, "Tomato", 17, "AVAILABLE", LocalDateTime.now().withNano(0));
+        inventoryJson = inventoryWriter.writeValueAsBytes(inventoryEvent);
+    }
+
+    @Benchmark
+    public byte[] serializeOrderEvent() throws IOException {
+        return orderWriter.writeValueAsBytes(orderEvent);
+    }
+
+    @Benchmark
+    public OrderEvent deserializeOrderEvent() throws IOException {
+        return orderReader.readValue(orderJson);
+    }
+
+    @Benchmark
+    public byte[] serializeInventoryEvent() throws IOException {
+        return inventoryWriter.writeValueAsBytes(inventoryEvent);
+    }
+
+    @Benchmark
+    public InventoryEvent deserializeInventoryEvent() throws IOException {
+        return inventoryReader.readValue(inventoryJson);
+    }
+}
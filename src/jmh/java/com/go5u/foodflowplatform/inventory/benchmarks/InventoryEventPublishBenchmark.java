@@ -0,0 +1,130 @@
+package com.go5u.foodflowplatform.inventory.benchmarks;
+
+import com.go5u.foodflowplatform.inventory.application.internal.commandservices.StockStatusEvaluator;
+import com.go5u.foodflowplatform.inventory.domain.model.entities.InventoryOutboxMessage;
+import com.go5u.foodflowplatform.inventory.domain.model.events.InventoryEvent;
+import com.go5u.foodflowplatform.inventory.infrastructure.messaging.InventoryEventProducer;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two halves of publishing a stock status. After a stock change, ProductCommandServiceImpl evaluates the
+ * status with the cached thresholds and queues an InventoryOutboxMessage; the outbox insert itself is database
+ * work and is left out. InventoryOutboxRelay then sends the queued events in batches through
+ * InventoryEventProducer, whose KafkaTemplate writes to an in-memory MockProducer here, so the numbers cover
+ * message conversion and JSON serialization but not the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryEventPublishBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+    private static final int BATCH_SIZE = 50;
+
+    private StockStatusEvaluator stockStatusEvaluator;
+    private InventoryEventProducer inventoryEventProducer;
+    private List<InventoryEvent> batch;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        ProductRepository productRepository = Mockito.mock(ProductRepository.class);
+        Mockito.when(productRepository.findStockThresholdsByProductId(Mockito.anyLong())).thenReturn(Optional.empty());
+        stockStatusEvaluator = new StockStatusEvaluator(productRepository, 5, 10, 100_000, Duration.ofMinutes(10));
+
+        InMemoryProducer producer = new InMemoryProducer();
+        inventoryEventProducer = new InventoryEventProducer(new KafkaTemplate<>(() -> producer), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(inventoryEventProducer, "inventoryTopicName", "inventory-events");
+
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (long productId = 1; productId <= BATCH_SIZE; productId++) {
+            batch.add(new InventoryEvent(productId, "product-" + productId, (int) productId,
+                    StockStatusEvaluator.AVAILABLE, LocalDateTime.now()));
+        }
+    }
+
+    @Benchmark
+    public String evaluateStatus() {
+        long productId = ++sequence % PRODUCTS;
+        return stockStatusEvaluator.evaluate(productId, (int) (productId % 20), StockStatusEvaluator.AVAILABLE);
+    }
+
+    /**
+     * Status evaluation and outbox message of ProductCommandServiceImpl.publishInventoryStatus
+     */
+    @Benchmark
+    public InventoryOutboxMessage queueInventoryStatus() {
+        long productId = ++sequence % PRODUCTS;
+        int available = (int) (productId % 20);
+        String status = stockStatusEvaluator.evaluate(productId, available, StockStatusEvaluator.AVAILABLE);
+        return new InventoryOutboxMessage(
+                new InventoryEvent(productId, "product-" + productId, available, status, LocalDateTime.now()));
+    }
+
+    /**
+     * Send path of InventoryOutboxRelay
+     */
+
+    @Benchmark
+    public CompletableFuture<Void> publishInventoryEventBatch() {
+        return inventoryEventProducer.publishInventoryEvents(batch);
+    }
+
+    /**
+     * Acknowledges every record at once and keeps no history. KafkaTemplate closes non-transactional
+     * producers after each send, so close() must leave it usable.
+     */
+    private static class InMemoryProducer extends MockProducer<String, InventoryEvent> {
+
+        InMemoryProducer() {
+            super(true, new StringSerializer(), new JsonSerializer<>());
+        }
+
+        @Override
+        public synchronized Future<RecordMetadata> send(ProducerRecord<String, InventoryEvent> record, Callback callback) {
+            Future<RecordMetadata> result = super.send(record, callback);
+            clear();
+            return result;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void close(Duration timeout) {
+        }
+    }
+}
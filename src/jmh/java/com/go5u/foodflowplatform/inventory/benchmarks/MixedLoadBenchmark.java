@@ -0,0 +1,126 @@
+package com.go5u.foodflowplatform.inventory.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed read/write HTTP load against a running instance, to compare the default execution mode with the
+ * virtual-threads profile. Start the service once per mode against the same database, then run e.g.
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="MixedLoad -p baseUrl=http://localhost:8085"
+ * </pre>
+ * 48 threads read stock while 16 threads receive a lot and consume it again, spread over
+ * {@code ingredients} products of one user so that writers contend on a few rows, as orders do.
+ * Use a fresh {@code userId} per run, since setup creates the products by name.
+ * Requests rejected with 503 by the concurrency limit count as completed operations, so compare the
+ * throughput together with the 503 count of {@code http.server.requests}.
+ * <p>
+ * No results are recorded yet: the two modes have not been measured against each other, so the
+ * virtual-threads profile and its concurrency limit are not yet backed by numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(1)
+public class MixedLoadBenchmark {
+
+    @Param("http://localhost:8085")
+    private String baseUrl;
+
+    @Param("900001")
+    private long userId;
+
+    @Param("20")
+    private int ingredients;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpClient httpClient;
+    private long[] productIds;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        productIds = new long[ingredients];
+        for (int i = 0; i < ingredients; i++) {
+            String body = """
+                    {"name":"%s","quantity":1000000,"expirationDate":"%s","price":1}"""
+                    .formatted(ingredientName(i), LocalDate.now().plusYears(1));
+            HttpResponse<String> response = send(post("/api/v1/products/users/" + userId, body));
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Could not create benchmark product: " + response.body());
+            }
+            JsonNode productId = objectMapper.readTree(response.body()).get("productId");
+            if (productId == null || !productId.canConvertToLong()) {
+                throw new IllegalStateException("Create product response has no productId: " + response.body());
+            }
+            productIds[i] = productId.asLong();
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(48)
+    public int readStock() throws IOException, InterruptedException {
+        int ingredient = ThreadLocalRandom.current().nextInt(ingredients);
+        return send(get("/api/v1/inventory/users/" + userId + "/ingredients/" + ingredientName(ingredient) + "/stock"))
+                .statusCode();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(16)
+    public int receiveAndConsume() throws IOException, InterruptedException {
+        int ingredient = ThreadLocalRandom.current().nextInt(ingredients);
+        String lot = """
+                {"quantity":2,"expirationDate":"%s","price":1}""".formatted(LocalDate.now().plusYears(1));
+        send(post("/api/v1/products/users/" + userId + "/" + productIds[ingredient] + "/lots", lot));
+        return send(post("/api/v1/inventory/users/" + userId + "/ingredients/" + ingredientName(ingredient) + "/decrease",
+                "{\"quantity\":2}")).statusCode();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private String ingredientName(int index) {
+        return "bench-ingredient-" + index;
+    }
+}
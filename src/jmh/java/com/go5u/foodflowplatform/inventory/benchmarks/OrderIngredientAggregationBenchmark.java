@@ -0,0 +1,107 @@
+package com.go5u.foodflowplatform.inventory.benchmarks;
+
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderItemEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.QuantityUnit;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockDelta;
+import com.go5u.foodflowplatform.inventory.infrastructure.client.DishRecipe;
+import com.go5u.foodflowplatform.inventory.infrastructure.messaging.IngredientTotals;
+import com.go5u.foodflowplatform.inventory.infrastructure.messaging.OrderIngredientCalculator;
+import com.go5u.foodflowplatform.inventory.interfaces.dto.DishResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingredient aggregation of the order consumer: one order at a time ({@code aggregate}) and
+ * a polled batch netted per (user, ingredient) ({@code netStockDeltas}). Every product is stocked in grams,
+ * so the kilogram amounts of the recipes are converted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderIngredientAggregationBenchmark {
+
+    private static final int MENU_SIZE = 40;
+    private static final int INGREDIENTS_PER_DISH = 8;
+    private static final int PANTRY_SIZE = 60;
+    private static final int BATCH_SIZE = 100;
+
+    /**
+     * Number of lines in each order
+     */
+    @Param({"1", "5", "20"})
+    private int orderSize;
+
+    private Map<Long, DishRecipe> dishes;
+    private Map<Long, Map<String, QuantityUnit>> stockUnits;
+    private OrderEvent order;
+    private List<OrderEvent> batch;
+
+    @Setup
+    public void setUp() {
+        dishes = new HashMap<>();
+        for (long dishId = 1; dishId <= MENU_SIZE; dishId++) {
+            List<DishResponse.IngredientResponse> ingredients = new ArrayList<>();
+            for (int i = 0; i < INGREDIENTS_PER_DISH; i++) {
+                String ingredient = "ingredient-" + ((dishId * 7 + i * 13) % PANTRY_SIZE);
+                ingredients.add(new DishResponse.IngredientResponse(ingredient, 0.5 + i, i % 2 == 0 ? "g" : "kg"));
+            }
+            dishes.put(dishId, DishRecipe.from(new DishResponse(dishId, "dish-" + dishId, ingredients, BigDecimal.TEN, null, 1L)));
+        }
+
+        Map<String, QuantityUnit> pantry = new HashMap<>();
+        for (int i = 0; i < PANTRY_SIZE; i++) {
+            pantry.put("ingredient-" + i, QuantityUnit.GRAM);
+        }
+        stockUnits = new HashMap<>();
+        for (long userId = 1; userId <= 4; userId++) {
+            stockUnits.put(userId, pantry);
+        }
+
+        order = order(1L, 1L, "CREATED");
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            // A few users per batch and one cancellation every ten orders
+            batch.add(order(i + 1L, (long) (i % 4) + 1, i % 10 == 9 ? "CANCELLED" : "CREATED"));
+        }
+    }
+
+    @Benchmark
+    public IngredientTotals aggregateOrder() {
+        return OrderIngredientCalculator.aggregate(order.getItems(), dishes, stockUnits.get(1L));
+    }
+
+    @Benchmark
+    public List<StockDelta> netStockDeltasOfBatch() {
+        return OrderIngredientCalculator.netStockDeltas(batch, dishes, stockUnits);
+    }
+
+    private OrderEvent order(Long orderId, Long userId, String status) {
+        List<OrderItemEvent> items = new ArrayList<>(orderSize);
+        for (int i = 0; i < orderSize; i++) {
+            long dishId = (orderId * 31 + i) % MENU_SIZE + 1;
+            items.add(new OrderItemEvent(dishId, "dish-" + dishId, 1 + i % 3, BigDecimal.TEN));
+        }
+        return new OrderEvent(orderId, items, status, LocalDateTime.now(), 1, userId);
+    }
+}
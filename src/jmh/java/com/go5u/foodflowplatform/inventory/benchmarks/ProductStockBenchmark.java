@@ -0,0 +1,54 @@
+package com.go5u.foodflowplatform.inventory.benchmarks;
+
+import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.CreateProductCommand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stock changes on the Product aggregate. Every change replaces the Quantity value object,
+ * so the GC profiler shows the allocation cost per decrease/increase pair.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductStockBenchmark {
+
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        product = new Product(new CreateProductCommand(
+                "Tomato", null, 1_000_000, LocalDate.now().plusDays(30), BigDecimal.ONE, 1L, "kg"));
+    }
+
+    @Benchmark
+    public int decreaseThenIncrease() {
+        product.decreaseQuantity(3);
+        product.increaseQuantity(3);
+        return product.getAvailableQuantity();
+    }
+
+    @Benchmark
+    public int reserveThenCommitAndRestock() {
+        product.reserve(3_000);
+        product.commitReservation(3_000);
+        product.increaseQuantity(3);
+        return product.getAvailableQuantity();
+    }
+}
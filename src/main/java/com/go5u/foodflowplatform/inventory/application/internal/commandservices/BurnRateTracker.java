@@ -0,0 +1,72 @@
+package com.go5u.foodflowplatform.inventory.application.internal.commandservices;
+
+import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.BurnRate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.OptionalDouble;
+
+/**
+ * Streaming consumption rate per product (half-life {@code inventory.burn-rate.half-life}). The rate is stored
+ * on the product and updated in the transaction that consumes the stock, under the product's row lock, so every
+ * instance sees the same rate, it survives restarts and rolled back changes are never counted. Restored stock
+ * (cancelled orders) is subtracted; new deliveries and expirations are not consumption and are not recorded.
+ */
+@Component
+public class BurnRateTracker {
+
+    private final Duration halfLife;
+    private final Duration minObservation;
+
+    public BurnRateTracker(@Value("${inventory.burn-rate.half-life:1h}") Duration halfLife,
+                           @Value("${inventory.burn-rate.min-observation:10m}") Duration minObservation) {
+        if (halfLife.isZero() || halfLife.isNegative()) {
+            throw new IllegalArgumentException("Burn rate half-life must be positive");
+        }
+        this.halfLife = halfLife;
+        this.minObservation = minObservation;
+    }
+
+    /**
+     * @param units units consumed; negative for restored stock
+     */
+    public void recordConsumption(Product product, double units) {
+        if (units != 0) {
+            product.updateBurnRate(record(product.getBurnRate(), units));
+        }
+    }
+
+    /**
+     * Rate after consuming {@code units}, for products changed without loading the aggregate
+     */
+    public BurnRate record(BurnRate previous, double units) {
+        return BurnRate.record(previous, units, LocalDateTime.now(), halfLife);
+    }
+
+    /**
+     * Current consumption in units per second, empty until the product has been observed for the minimum time
+     */
+    public OptionalDouble unitsPerSecond(BurnRate rate) {
+        if (rate == null || rate.observedSince() == null) {
+            return OptionalDouble.empty();
+        }
+        return rate.unitsPerSecond(LocalDateTime.now(), halfLife, minObservation);
+    }
+
+    /**
+     * Seconds until the available stock runs out at the current rate, or null if there is no rate yet or nothing is consumed
+     */
+    public Long estimateSecondsToStockout(BurnRate rate, int availableQuantity) {
+        if (availableQuantity <= 0) {
+            return 0L;
+        }
+        OptionalDouble perSecond = unitsPerSecond(rate);
+        if (perSecond.isEmpty() || perSecond.getAsDouble() <= 0) {
+            return null;
+        }
+        return (long) Math.min(Long.MAX_VALUE, Math.ceil(availableQuantity / perSecond.getAsDouble()));
+    }
+}
@@ -1,15 +1,59 @@
 package com.go5u.foodflowplatform.inventory.application.internal.commandservices;
 
 import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ApplyStockDeltasCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.CommitStockReservationCommand;
 import com.go5u.foodflowplatform.inventory.domain.model.commands.CreateProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.DecreaseIngredientsStockCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.DeleteProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ExpireProductLotsCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ExpireUntrackedStockCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ReceiveProductLotCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ReleaseStockReservationCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ReserveStockCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.UpdateProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.UpdateStockThresholdsCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.entities.InventoryOutboxMessage;
+import com.go5u.foodflowplatform.inventory.domain.model.entities.ProductItem;
+import com.go5u.foodflowplatform.inventory.domain.model.entities.StockHold;
 import com.go5u.foodflowplatform.inventory.domain.model.events.InventoryEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ProductStock;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.BurnRate;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ExpirationDate;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.Price;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.QuantityUnit;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockDelta;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockLineResult;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockLineStatus;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockThresholds;
 import com.go5u.foodflowplatform.inventory.domain.services.ProductCommandService;
-import com.go5u.foodflowplatform.inventory.infrastructure.messaging.InventoryEventProducer;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.InventoryOutboxMessageRepository;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductItemRepository;
 import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductRepository;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.StockHoldRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 @Slf4j
@@ -17,19 +61,41 @@ import java.time.LocalDateTime;
 public class ProductCommandServiceImpl implements ProductCommandService {
 
     private final ProductRepository productRepository;
-    private final InventoryEventProducer inventoryEventProducer;
+    private final InventoryOutboxMessageRepository outboxRepository;
+    private final StockHoldRepository stockHoldRepository;
+    private final ProductItemRepository productItemRepository;
+    private final ProductLotAllocator productLotAllocator;
+    private final StockStatusEvaluator stockStatusEvaluator;
+    private final BurnRateTracker burnRateTracker;
+    private final Duration holdTtl;
 
     public ProductCommandServiceImpl(ProductRepository productRepository,
-                                     InventoryEventProducer inventoryEventProducer) {
+                                     InventoryOutboxMessageRepository outboxRepository,
+                                     StockHoldRepository stockHoldRepository,
+                                     ProductItemRepository productItemRepository,
+                                     ProductLotAllocator productLotAllocator,
+                                     StockStatusEvaluator stockStatusEvaluator,
+                                     BurnRateTracker burnRateTracker,
+                                     @Value("${inventory.reservations.ttl:15m}") Duration holdTtl) {
         this.productRepository = productRepository;
-        this.inventoryEventProducer = inventoryEventProducer;
+        this.outboxRepository = outboxRepository;
+        this.stockHoldRepository = stockHoldRepository;
+        this.productItemRepository = productItemRepository;
+        this.productLotAllocator = productLotAllocator;
+        this.stockStatusEvaluator = stockStatusEvaluator;
+        this.burnRateTracker = burnRateTracker;
+        this.holdTtl = holdTtl;
     }
 
     @Override
+    @Transactional
     public Long handle(CreateProductCommand command) {
         var product = new Product(command);
         try {
             productRepository.save(product);
+            if (product.getQuantity().quantity() > 0) {
+                productLotAllocator.receive(product, product.getQuantity().quantity(), product.getExpirationDate(), product.getPrice());
+            }
             publishInventoryStatus(product);
         } catch (Exception e) {
             throw new IllegalArgumentException("Error while saving product: " + e.getMessage());
@@ -37,60 +103,549 @@ public class ProductCommandServiceImpl implements ProductCommandService {
         return product.getProductId();
     }
 
+    /**
+     * Receives stock as a new lot (or into an existing lot with the same expiration date and price).
+     * The product's quantity goes up and its expiration date follows the earliest expiring lot.
+     * @return the lot id
+     */
     @Override
-    public void decreaseInventoryQuantity(Long productId, Integer quantity) {
-        var product = productRepository.findById(productId)
-                .orElseThrow(() -> new IllegalArgumentException("Product not found: " + productId));
+    @Transactional
+    public Long handle(ReceiveProductLotCommand command) {
+        var product = lockProduct(command.productId(), command.userId())
+                .orElseThrow(() -> new IllegalArgumentException("Product not found: " + command.productId()));
+
+        var expirationDate = ExpirationDate.upcoming(command.expirationDate());
+        var price = command.price() != null ? new Price(command.price()) : product.getPrice();
+        // Stock already on hand (in lots or untracked) keeps its date unless the new lot expires first
+        boolean hadStock = product.getQuantity() != null && product.getQuantity().quantity() > 0;
+
+        var lot = productLotAllocator.receive(product, command.quantity(), expirationDate, price);
+        product.increaseQuantity(command.quantity());
+        if (!hadStock || product.getExpirationDate() == null
+                || expirationDate.expirationDate().isBefore(product.getExpirationDate().expirationDate())) {
+            product.updateExpirationDate(expirationDate.expirationDate());
+        }
+
+        publishInventoryStatus(product);
+        log.info("Received lot {} of {} units for product {} expiring {}",
+                lot.getId(), command.quantity(), product.getProductId(), expirationDate.expirationDate());
+        return lot.getId();
+    }
 
-        int currentQuantity = product.getQuantity().quantity();
-        int newQuantity = currentQuantity - quantity;
+    /**
+     * Updates a product in place. The quantity and expiration date of a product tracked in lots follow its lots,
+     * so they can only be changed by receiving or consuming stock; changing them here is rejected. A new
+     * expiration date must not be in the past.
+     */
+    @Override
+    @Transactional
+    public Optional<Product> handle(UpdateProductCommand command) {
+        var found = lockProduct(command.productId(), command.userId());
+        if (found.isEmpty()) {
+            return found;
+        }
+        var product = found.get();
+        boolean tracked = productLotAllocator.nextExpiration(product.getProductId()).isPresent();
+
+        boolean quantityChanged = command.quantity() != null && !command.quantity().equals(product.getQuantity().quantity());
+        if (quantityChanged) {
+            if (tracked) {
+                throw new IllegalArgumentException("Stock of product " + product.getProductId()
+                        + " is tracked in lots; receive a lot to add stock");
+            }
+            product.updateQuantity(command.quantity());
+        }
+        if (command.expirationDate() != null && (product.getExpirationDate() == null
+                || !command.expirationDate().equals(product.getExpirationDate().expirationDate()))) {
+            if (tracked) {
+                throw new IllegalArgumentException("Expiration date of product " + product.getProductId()
+                        + " follows its earliest lot");
+            }
+            product.updateExpirationDate(ExpirationDate.upcoming(command.expirationDate()).expirationDate());
+        }
+        if (command.price() != null) {
+            product.updatePrice(new Price(command.price()));
+        }
+        if (command.unit() != null) {
+            product.updateStockUnit(QuantityUnit.parseStockUnit(command.unit()));
+        }
+
+        if (quantityChanged) {
+            publishInventoryStatus(product);
+        }
+        log.info("Updated product {} of user {}", product.getProductId(), command.userId());
+        return Optional.of(product);
+    }
+
+    /**
+     * Deletes the product together with its lots and stock holds, with the product locked so no consumption
+     * or hold runs against it meanwhile
+     */
+    @Override
+    @Transactional
+    public boolean handle(DeleteProductCommand command) {
+        if (lockProduct(command.productId(), command.userId()).isEmpty()) {
+            return false;
+        }
+        productItemRepository.deleteByProductId(command.productId());
+        stockHoldRepository.deleteByProductId(command.productId());
+        productRepository.deleteById(command.productId());
+        stockStatusEvaluator.invalidate(command.productId());
+        log.info("Deleted product {} of user {}", command.productId(), command.userId());
+        return true;
+    }
+
+    /**
+     * Decreases the stock with a single conditional UPDATE, so concurrent decrements can neither
+     * lose updates nor drive the stock below zero.
+     * @return the new quantity
+     */
+    @Override
+    @Transactional
+    public Integer decreaseInventoryQuantity(Long productId, Integer quantity) {
+        if (quantity == null || quantity < 0) {
+            throw new IllegalArgumentException("Decrease amount must be non-negative");
+        }
 
-        if (newQuantity < 0) {
+        if (productRepository.decreaseQuantityIfAvailable(productId, quantity) == 0) {
+            if (!productRepository.existsById(productId)) {
+                throw new IllegalArgumentException("Product not found: " + productId);
+            }
             throw new IllegalArgumentException("Insufficient inventory for product: " + productId);
         }
 
-        product.decreaseQuantity(quantity);
+        productLotAllocator.consume(productId, quantity)
+                .ifPresent(expirationDate -> productRepository.updateExpirationDate(productId, expirationDate));
 
-        productRepository.save(product);
-        publishInventoryStatus(product);
-        log.info("Decreased inventory for product {}: {} -> {}", productId, currentQuantity, newQuantity);
+        var stock = productRepository.findStockByProductId(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found: " + productId));
+
+        var burnRate = burnRateTracker.record(stock.burnRate(), quantity);
+        productRepository.updateBurnRate(productId, burnRate);
+        publishInventoryStatus(stock, burnRate);
+        log.info("Decreased inventory for product {} by {} -> {}", productId, quantity, stock.quantity());
+        return stock.quantity();
     }
 
+    /**
+     * Increases the stock with a single UPDATE
+     * @return the new quantity
+     */
     @Override
-    public void increaseInventoryQuantity(Long productId, Integer quantity) {
-        var product = productRepository.findById(productId)
+    @Transactional
+    public Integer increaseInventoryQuantity(Long productId, Integer quantity) {
+        if (quantity == null || quantity < 0) {
+            throw new IllegalArgumentException("Increase amount must be non-negative");
+        }
+
+        if (productRepository.increaseQuantity(productId, quantity) == 0) {
+            throw new IllegalArgumentException("Product not found: " + productId);
+        }
+
+        productLotAllocator.restore(productId, quantity)
+                .ifPresent(expirationDate -> productRepository.updateExpirationDate(productId, expirationDate));
+
+        var stock = productRepository.findStockByProductId(productId)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found: " + productId));
 
-        int currentQuantity = product.getQuantity().quantity();
-        int newQuantity = currentQuantity + quantity;
+        publishInventoryStatus(stock, stock.burnRate());
+        log.info("Increased inventory for product {} by {} -> {}", productId, quantity, stock.quantity());
+        return stock.quantity();
+    }
+
+    /**
+     * Applies net stock changes for many products in one transaction. Products are locked per user in
+     * productId order (users in ascending order) and the updates are flushed as one JDBC batch on commit.
+     * Lines whose ingredient is unknown or whose stock would go negative are skipped, as in the per-event path.
+     * Changes are in milli-units: fractions are carried on the product and only whole units move its lots.
+     * When every line of a user carries a productId resolved ahead of time, that user's products are locked
+     * by id; otherwise, or if a resolved product no longer exists, they are looked up by name.
+     */
+    @Override
+    @Transactional
+    public void handle(ApplyStockDeltasCommand command) {
+        // Key: userId, Value: (ingredient name -> net milli-units)
+        Map<Long, Map<String, Long>> deltasByUser = new TreeMap<>();
+        // Key: userId, Value: (productId -> ingredient name) for lines resolved ahead of time
+        Map<Long, Map<Long, String>> resolvedByUser = new HashMap<>();
+        for (StockDelta delta : command.deltas()) {
+            deltasByUser.computeIfAbsent(delta.userId(), userId -> new TreeMap<>())
+                    .merge(delta.ingredientName(), delta.milliQuantity(), Long::sum);
+            if (delta.productId() != null) {
+                resolvedByUser.computeIfAbsent(delta.userId(), userId -> new HashMap<>())
+                        .put(delta.productId(), delta.ingredientName());
+            }
+        }
+
+        List<Product> changedProducts = new ArrayList<>();
+        deltasByUser.forEach((userId, deltas) -> {
+            Map<Long, String> resolved = resolvedByUser.getOrDefault(userId, Map.of());
+            Map<Product, String> products = lockProductsForDeltas(userId, deltas.keySet(), resolved);
+            if (products.size() < deltas.size()) {
+                var found = products.values();
+                deltas.keySet().stream()
+                        .filter(name -> !found.contains(name))
+                        .forEach(name -> log.warn("Ingredient '{}' not found in inventory for user {}, skipping stock update", name, userId));
+            }
 
-        product.increaseQuantity(quantity);
+            for (var entry : products.entrySet()) {
+                Product product = entry.getKey();
+                long delta = deltas.getOrDefault(entry.getValue(), 0L);
+                if (delta == 0) {
+                    continue;
+                }
+                try {
+                    int unitsChange = product.applyMilliDelta(delta);
+                    burnRateTracker.recordConsumption(product, -delta / (double) QuantityUnit.MILLIS_PER_UNIT);
+                    if (unitsChange < 0) {
+                        productLotAllocator.consume(product.getProductId(), -unitsChange).ifPresent(product::updateExpirationDate);
+                    } else if (unitsChange > 0) {
+                        productLotAllocator.restore(product.getProductId(), unitsChange).ifPresent(product::updateExpirationDate);
+                    }
+                    if (unitsChange != 0) {
+                        changedProducts.add(product);
+                    }
+                } catch (IllegalArgumentException e) {
+                    log.error("Cannot apply stock change {} to product {}: {}", delta, product.getProductId(), e.getMessage());
+                }
+            }
+        });
+
+        changedProducts.forEach(this::publishInventoryStatus);
+        log.info("Applied stock changes to {} products for {} users", changedProducts.size(), deltasByUser.size());
+    }
+
+    /**
+     * Locks the products the deltas of one user apply to, in productId order, each mapped to its ingredient name.
+     * Resolved ids are only used when they cover every ingredient. A resolved id that no longer exists (product
+     * deleted and created again) falls back to the lookup by name; the ids already locked are a subset of it.
+     */
+    private Map<Product, String> lockProductsForDeltas(Long userId, Collection<String> names, Map<Long, String> resolved) {
+        Map<Product, String> products = new LinkedHashMap<>();
+        if (resolved.size() == names.size()) {
+            for (Product product : productRepository.findByProductIdInOrderByProductIdAsc(new TreeSet<>(resolved.keySet()))) {
+                if (userId.equals(product.getUserId())) {
+                    products.put(product, resolved.get(product.getProductId()));
+                }
+            }
+            if (products.size() == names.size()) {
+                return products;
+            }
+            log.warn("Resolved products of user {} are out of date, looking up {} ingredients by name", userId, names.size());
+            products.clear();
+        }
+        for (Product product : productRepository.findByUserIdAndNameInOrderByProductIdAsc(userId, names)) {
+            products.put(product, product.getName());
+        }
+        return products;
+    }
+
+    /**
+     * Decreases the stock of several ingredients of one user, all or nothing. Quantities are in milli-units,
+     * so fractional amounts are applied exactly.
+     * @return one result per ingredient, in command order
+     */
+    @Override
+    @Transactional
+    public List<StockLineResult> handle(DecreaseIngredientsStockCommand command) {
+        var results = applyLines(command.userId(), command.milliQuantities(), true, (name, product, milliQuantity) -> {
+            // Fractions are carried in the product as in the order-event path; lots move by whole units
+            int unitsChange = product.applyMilliDelta(-milliQuantity);
+            if (unitsChange < 0) {
+                productLotAllocator.consume(product.getProductId(), -unitsChange).ifPresent(product::updateExpirationDate);
+            }
+            burnRateTracker.recordConsumption(product, milliQuantity / (double) QuantityUnit.MILLIS_PER_UNIT);
+        });
+        log.info("Stock decrease of {} ingredients for user {}: {}", results.size(), command.userId(), outcome(results));
+        return results;
+    }
+
+    /**
+     * Holds stock of the ingredients of an order. Each ingredient is held on its own, so an ingredient missing
+     * from the inventory or short of stock does not stop the others from being held; it is reported and, when
+     * the order is fulfilled, consumed directly. Held stock stays in {@code quantity} but no longer counts as
+     * available until the hold is committed, released or expires. Holds are kept in milli-units, so fractional
+     * recipe amounts are held and consumed exactly.
+     * @return one result per ingredient, in command order
+     */
+    @Override
+    @Transactional
+    public List<StockLineResult> handle(ReserveStockCommand command) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(holdTtl);
+        List<StockHold> holds = new ArrayList<>();
+        var results = applyLines(command.userId(), command.milliQuantities(), false, (name, product, milliQuantity) -> {
+            product.reserve(milliQuantity);
+            holds.add(new StockHold(command.orderId(), product.getProductId(), name, milliQuantity, expiresAt));
+        });
+        stockHoldRepository.saveAll(holds);
+        log.info("Stock reservation of {} ingredients for order {}: {} held", results.size(), command.orderId(), holds.size());
+        return results;
+    }
 
-        productRepository.save(product);
+    /**
+     * Consumes the stock held for an order. Holds created before the ingredient name was stored report
+     * their product's name.
+     */
+    @Override
+    @Transactional
+    public Set<String> handle(CommitStockReservationCommand command) {
+        Set<String> committed = new HashSet<>();
+        settleHolds(stockHoldRepository.findByOrderId(command.orderId()), true, committed);
+        log.info("Committed {} stock holds for order {}", committed.size(), command.orderId());
+        return committed;
+    }
+
+    @Override
+    @Transactional
+    public int handle(ReleaseStockReservationCommand command) {
+        int released = settleHolds(stockHoldRepository.findByOrderId(command.orderId()), false);
+        log.info("Released {} stock holds for order {}", released, command.orderId());
+        return released;
+    }
+
+    @Override
+    @Transactional
+    public int releaseExpiredHolds(int batchSize) {
+        var expired = stockHoldRepository.findByExpiresAtLessThanEqualOrderByExpiresAtAsc(
+                LocalDateTime.now(), PageRequest.of(0, batchSize));
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        int released = settleHolds(expired, false);
+        log.info("Released {} expired stock holds", released);
+        return released;
+    }
+
+    /**
+     * Removes the stock of expired lots. The products are locked first (in productId order) and the lots
+     * re-read under lock, so lots consumed or already expired concurrently are skipped.
+     * Each affected product gets an EXPIRED event with its remaining available stock.
+     */
+    @Override
+    @Transactional
+    public int handle(ExpireProductLotsCommand command) {
+        if (command.lotIds().isEmpty()) {
+            return 0;
+        }
+        Map<Long, Product> products = productRepository.findByProductIdInOrderByProductIdAsc(new TreeSet<>(command.productIds())).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        List<ProductItem> expired = productItemRepository.findByIdIn(command.lotIds()).stream()
+                .filter(lot -> lot.getExpirationDate().expirationDate().isBefore(command.today()))
+                .toList();
+        Map<Long, Product> changedProducts = new TreeMap<>();
+        for (ProductItem lot : expired) {
+            Product product = products.get(lot.getProduct().getProductId());
+            if (product == null) {
+                continue;
+            }
+            product.expire(lot.getQuantity().quantity());
+            changedProducts.put(product.getProductId(), product);
+        }
+        productItemRepository.deleteAllInBatch(expired);
+
+        changedProducts.values().forEach(product -> {
+            productLotAllocator.nextExpiration(product.getProductId()).ifPresent(product::updateExpirationDate);
+            refreshStockStatus(product);
+            publishInventoryEvent(product, "EXPIRED");
+        });
+        return expired.size();
+    }
+
+    /**
+     * Removes all the stock of products that have no lots and whose own expiration date has passed
+     */
+    @Override
+    @Transactional
+    public int handle(ExpireUntrackedStockCommand command) {
+        int expired = 0;
+        for (Product product : productRepository.findByProductIdInOrderByProductIdAsc(new TreeSet<>(command.productIds()))) {
+            boolean stillExpired = product.getExpirationDate() != null
+                    && product.getExpirationDate().expirationDate().isBefore(command.today());
+            if (!stillExpired || product.getQuantity() == null || product.getQuantity().quantity() == 0
+                    || productLotAllocator.nextExpiration(product.getProductId()).isPresent()) {
+                continue;
+            }
+            product.expire(product.getQuantity().quantity());
+            refreshStockStatus(product);
+            publishInventoryEvent(product, "EXPIRED");
+            expired++;
+        }
+        return expired;
+    }
+
+    /**
+     * Sets the product's thresholds and re-evaluates its status from scratch against them
+     */
+    @Override
+    @Transactional
+    public void handle(UpdateStockThresholdsCommand command) {
+        var product = lockProduct(command.productId(), command.userId())
+                .orElseThrow(() -> new IllegalArgumentException("Product not found: " + command.productId()));
+
+        boolean useDefaults = command.lowStockThreshold() == null && command.recoveryThreshold() == null;
+        product.updateStockThresholds(useDefaults
+                ? null
+                : new StockThresholds(command.lowStockThreshold(), command.recoveryThreshold()));
+        productRepository.flush();
+        stockStatusEvaluator.invalidate(product.getProductId());
+        // Another thread may have re-cached the old thresholds before this commit
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stockStatusEvaluator.invalidate(command.productId());
+            }
+        });
+
+        String previousStatus = product.getStockStatus();
+        product.updateStockStatus(null);
         publishInventoryStatus(product);
-        log.info("Increased inventory for product {}: {} -> {}", productId, currentQuantity, newQuantity);
+        log.info("Updated stock thresholds of product {} to {} ({} -> {})",
+                product.getProductId(), product.getStockThresholds(), previousStatus, product.getStockStatus());
     }
 
+    /**
+     * Resolves and locks (in productId order) the named products of a user and checks every line against the
+     * available stock before changing anything. With {@code allOrNothing} the action runs for every line only if
+     * all of them can be applied; otherwise it runs for each line that can, and the rest are reported as they are.
+     * Quantities are checked in milli-units and reported in whole units, rounded up.
+     */
+    private List<StockLineResult> applyLines(Long userId,
+                                             Map<String, Long> quantities,
+                                             boolean allOrNothing,
+                                             StockLineAction action) {
+        Map<String, Product> productsByName = productRepository
+                .findByUserIdAndNameInOrderByProductIdAsc(userId, quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getName, Function.identity(), (first, duplicate) -> first));
+
+        boolean allAvailable = !allOrNothing || quantities.entrySet().stream().allMatch(entry -> {
+            Product product = productsByName.get(entry.getKey());
+            return product != null && product.getAvailableMillis() >= entry.getValue();
+        });
+
+        List<StockLineResult> results = new ArrayList<>(quantities.size());
+        Map<Long, Product> changedProducts = new HashMap<>();
+        quantities.forEach((name, milliQuantity) -> {
+            Product product = productsByName.get(name);
+            int quantity = Math.toIntExact(Math.ceilDiv(milliQuantity, QuantityUnit.MILLIS_PER_UNIT));
+            if (product == null) {
+                results.add(new StockLineResult(name, quantity, null, null, StockLineStatus.NOT_FOUND));
+                return;
+            }
+            int available = product.getAvailableQuantity();
+            if (product.getAvailableMillis() < milliQuantity) {
+                results.add(new StockLineResult(name, quantity, product.getProductId(), available, StockLineStatus.INSUFFICIENT_STOCK));
+            } else if (!allAvailable) {
+                results.add(new StockLineResult(name, quantity, product.getProductId(), available, StockLineStatus.NOT_APPLIED));
+            } else {
+                action.apply(name, product, milliQuantity);
+                changedProducts.put(product.getProductId(), product);
+                results.add(new StockLineResult(name, quantity, product.getProductId(), product.getAvailableQuantity(), StockLineStatus.APPLIED));
+            }
+        });
+
+        changedProducts.values().forEach(this::publishInventoryStatus);
+        return results;
+    }
+
+    private int settleHolds(List<StockHold> candidates, boolean commit) {
+        return settleHolds(candidates, commit, new HashSet<>());
+    }
+
+    /**
+     * Commits or releases holds. Holds only change while their products are locked, so the products are
+     * locked first (in productId order) and the candidate holds re-read under lock, skipping any that a
+     * concurrent commit, release or sweep already settled.
+     * @param settledIngredients receives the ingredient name of each hold settled
+     * @return number of holds settled
+     */
+    private int settleHolds(List<StockHold> candidates, boolean commit, Set<String> settledIngredients) {
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        var productIds = new TreeSet<Long>();
+        candidates.forEach(hold -> productIds.add(hold.getProductId()));
+        Map<Long, Product> products = productRepository.findByProductIdInOrderByProductIdAsc(productIds).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        var holds = stockHoldRepository.findByIdIn(candidates.stream().map(StockHold::getId).toList());
+        Map<Long, Product> changedProducts = new HashMap<>();
+        for (StockHold hold : holds) {
+            Product product = products.get(hold.getProductId());
+            if (product == null) {
+                continue;
+            }
+            if (commit) {
+                int unitsChange = product.commitReservation(hold.getHeldMillis());
+                if (unitsChange < 0) {
+                    productLotAllocator.consume(product.getProductId(), -unitsChange).ifPresent(product::updateExpirationDate);
+                }
+                burnRateTracker.recordConsumption(product, hold.getHeldMillis() / (double) QuantityUnit.MILLIS_PER_UNIT);
+            } else {
+                product.releaseReservation(hold.getHeldMillis());
+            }
+            settledIngredients.add(hold.getIngredientName() != null ? hold.getIngredientName() : product.getName());
+            changedProducts.put(product.getProductId(), product);
+        }
+        stockHoldRepository.deleteAllInBatch(holds);
+
+        changedProducts.values().forEach(this::publishInventoryStatus);
+        return holds.size();
+    }
+
+    private Optional<Product> lockProduct(Long productId, Long userId) {
+        return productRepository.findByProductIdInOrderByProductIdAsc(List.of(productId)).stream()
+                .filter(found -> found.getUserId().equals(userId))
+                .findFirst();
+    }
+
+    @FunctionalInterface
+    private interface StockLineAction {
+        void apply(String name, Product product, long milliQuantity);
+    }
+
+    private static String outcome(List<StockLineResult> results) {
+        return results.stream().allMatch(result -> result.status() == StockLineStatus.APPLIED) ? "applied" : "rejected";
+    }
+
+    /**
+     * Evaluates the product's stock status (with hysteresis against its previous status), stores it and
+     * queues it in the outbox, inside the current transaction. {@code InventoryOutboxRelay} publishes it
+     * to Kafka after commit.
+     */
     private void publishInventoryStatus(Product product) {
-        String status;
-        int quantity = product.getQuantity().quantity();
+        refreshStockStatus(product);
+        publishInventoryEvent(product, product.getStockStatus());
+    }
 
-        if (quantity <= 0) {
-            status = "OUT_OF_STOCK";
-        } else if (quantity <= 5) {
-            status = "LOW_STOCK";
-        } else {
-            status = "AVAILABLE";
+    private void publishInventoryStatus(ProductStock stock, BurnRate burnRate) {
+        String status = stockStatusEvaluator.evaluate(stock.productId(), stock.availableQuantity(), stock.stockStatus());
+        if (!status.equals(stock.stockStatus())) {
+            productRepository.updateStockStatus(stock.productId(), status);
         }
+        publishInventoryEvent(stock.productId(), stock.name(), stock.availableQuantity(), status, burnRate);
+    }
+
+    private void refreshStockStatus(Product product) {
+        product.updateStockStatus(stockStatusEvaluator.evaluate(
+                product.getProductId(), product.getAvailableQuantity(), product.getStockStatus()));
+    }
+
+    private void publishInventoryEvent(Product product, String status) {
+        publishInventoryEvent(product.getProductId(), product.getName(), product.getAvailableQuantity(), status,
+                product.getBurnRate());
+    }
 
+    private void publishInventoryEvent(Long productId, String productName, int quantity, String status, BurnRate burnRate) {
         InventoryEvent event = new InventoryEvent(
-                product.getProductId(),
-                product.getName(),
+                productId,
+                productName,
                 quantity,
                 status,
-                null
+                LocalDateTime.now(),
+                burnRateTracker.estimateSecondsToStockout(burnRate, quantity)
         );
 
-        inventoryEventProducer.publishInventoryEvent(event);
+        outboxRepository.save(new InventoryOutboxMessage(event));
     }
 }
\ No newline at end of file
@@ -0,0 +1,306 @@
+package com.go5u.foodflowplatform.inventory.application.internal.commandservices;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.CreateProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductImportFormat;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductImportResult;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductImportRowError;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jdbc.ProductBulkInsertRepository;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Imports a restaurant's products from a CSV or NDJSON body. The body is read line by line and written in
+ * JDBC batches, so only one batch is held in memory. Each batch commits on its own: a failed batch rejects
+ * its rows and the import goes on with the next one.
+ * <p>
+ * Rows go through the same value objects as a single product creation. Rows that fail validation, or name a
+ * product the user already has (names compare case-insensitively, as in MySQL), are reported by line and
+ * skipped. CSV needs a header row with the columns {@code name}, {@code quantity}, {@code expirationDate}
+ * and {@code price}, in any order, and may add a {@code unit} column with the stock unit; quoted fields
+ * may not span lines.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final List<String> CSV_COLUMNS = List.of("name", "quantity", "expirationdate", "price");
+    private static final String CSV_UNIT_COLUMN = "unit";
+
+    private final ProductRepository productRepository;
+    private final ProductBulkInsertRepository productBulkInsertRepository;
+    private final StockStatusEvaluator stockStatusEvaluator;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public ProductImportService(ProductRepository productRepository,
+                                ProductBulkInsertRepository productBulkInsertRepository,
+                                StockStatusEvaluator stockStatusEvaluator,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${inventory.products.import.batch-size:1000}") int batchSize,
+                                @Value("${inventory.products.import.max-reported-errors:1000}") int maxReportedErrors) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Import batch size must be at least 1");
+        }
+        this.productRepository = productRepository;
+        this.productBulkInsertRepository = productBulkInsertRepository;
+        this.stockStatusEvaluator = stockStatusEvaluator;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * @param body UTF-8 body; read to the end but not closed
+     * @throws IllegalArgumentException if the CSV header is missing a column
+     */
+    public ProductImportResult importProducts(Long userId, ProductImportFormat format, InputStream body) {
+        long start = System.nanoTime();
+        var run = new ImportRun(userId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        try {
+            String line;
+            long lineNumber = 0;
+            int[] csvColumns = null;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == ProductImportFormat.CSV && csvColumns == null) {
+                    csvColumns = csvColumns(line.startsWith("\uFEFF") ? line.substring(1) : line);
+                    continue;
+                }
+                run.add(lineNumber, line, csvColumns);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read import body", e);
+        }
+        run.flush();
+
+        meterRegistry.counter("inventory.products.import.rows", "outcome", "imported").increment(run.imported);
+        meterRegistry.counter("inventory.products.import.rows", "outcome", "rejected").increment(run.rejected);
+        log.info("Imported {} products for user {} ({} rejected) in {} ms", run.imported, userId, run.rejected,
+                (System.nanoTime() - start) / 1_000_000);
+        return new ProductImportResult(run.imported, run.rejected, List.copyOf(run.errors), run.errorsTruncated);
+    }
+
+    /**
+     * State of one import: the pending batch, the names already taken and the outcome so far
+     */
+    private final class ImportRun {
+        private final Long userId;
+        private final Set<String> names;
+        private final List<Product> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchLines = new ArrayList<>(batchSize);
+        private final List<ProductImportRowError> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+        private boolean errorsTruncated;
+
+        private ImportRun(Long userId) {
+            this.userId = userId;
+            this.names = new HashSet<>();
+            productRepository.findNamesByUserId(userId).forEach(name -> names.add(normalize(name)));
+        }
+
+        private void add(long lineNumber, String line, int[] csvColumns) {
+            Product product;
+            try {
+                product = csvColumns != null ? fromCsv(line, csvColumns) : fromJson(line);
+            } catch (IllegalArgumentException e) {
+                reject(lineNumber, e.getMessage());
+                return;
+            }
+            if (!names.add(normalize(product.getName()))) {
+                reject(lineNumber, "Product already exists: " + product.getName());
+                return;
+            }
+            product.updateStockStatus(stockStatusEvaluator.evaluateNew(product.getAvailableQuantity()));
+            batch.add(product);
+            batchLines.add(lineNumber);
+            if (batch.size() == batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                productBulkInsertRepository.insertAll(batch);
+                imported += batch.size();
+            } catch (DataAccessException | IllegalStateException e) {
+                String cause = e instanceof DataAccessException dataAccess
+                        ? dataAccess.getMostSpecificCause().getMessage() : e.getMessage();
+                log.warn("Import batch of {} products for user {} failed: {}", batch.size(), userId, cause);
+                String message = "Batch insert failed: " + cause;
+                for (int i = 0; i < batch.size(); i++) {
+                    names.remove(normalize(batch.get(i).getName()));
+                    reject(batchLines.get(i), message);
+                }
+            }
+            batch.clear();
+            batchLines.clear();
+        }
+
+        private Product fromCsv(String line, int[] columns) {
+            List<String> fields = splitCsv(line);
+            return toProduct(field(fields, columns[0]),
+                    parse(field(fields, columns[1]), "quantity", Integer::valueOf),
+                    parse(field(fields, columns[2]), "expirationDate", LocalDate::parse),
+                    parse(field(fields, columns[3]), "price", BigDecimal::new),
+                    columns[4] < 0 ? null : field(fields, columns[4]));
+        }
+
+        private Product fromJson(String line) {
+            ProductImportRow row;
+            try {
+                row = objectMapper.readValue(line, ProductImportRow.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+            }
+            return toProduct(row.name(), row.quantity(), row.expirationDate(), row.price(), row.unit());
+        }
+
+        private Product toProduct(String name, Integer quantity, LocalDate expirationDate, BigDecimal price, String unit) {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Product name is required");
+            }
+            if (name.length() > MAX_NAME_LENGTH) {
+                throw new IllegalArgumentException("Product name is longer than " + MAX_NAME_LENGTH + " characters");
+            }
+            return new Product(new CreateProductCommand(name.trim(), null, quantity, expirationDate, price, userId, unit));
+        }
+
+        private void reject(long lineNumber, String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportRowError(lineNumber, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+
+    /**
+     * One NDJSON line
+     */
+    private record ProductImportRow(String name, Integer quantity, LocalDate expirationDate, BigDecimal price,
+                                    String unit) {
+    }
+
+    /**
+     * Position of each expected column in the CSV header, followed by the position of the optional unit
+     * column (-1 when absent)
+     */
+    private static int[] csvColumns(String header) {
+        List<String> names = splitCsv(header);
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            positions.putIfAbsent(names.get(i).replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        int[] columns = new int[CSV_COLUMNS.size() + 1];
+        for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+            Integer position = positions.get(CSV_COLUMNS.get(i));
+            if (position == null) {
+                throw new IllegalArgumentException("CSV header is missing the column " + CSV_COLUMNS.get(i));
+            }
+            columns[i] = position;
+        }
+        columns[CSV_COLUMNS.size()] = positions.getOrDefault(CSV_UNIT_COLUMN, -1);
+        return columns;
+    }
+
+    /**
+     * Splits a CSV line on commas. Fields may be double-quoted, with {@code ""} for a quote inside;
+     * unquoted fields are trimmed.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.toString().isBlank()) {
+                quoted = true;
+                wasQuoted = true;
+                field.setLength(0);
+            } else if (c == ',') {
+                fields.add(wasQuoted ? field.toString() : field.toString().trim());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (!wasQuoted) {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(wasQuoted ? field.toString() : field.toString().trim());
+        return fields;
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(column);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parse(String value, String column, Function<String, T> parser) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,95 @@
+package com.go5u.foodflowplatform.inventory.application.internal.commandservices;
+
+import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import com.go5u.foodflowplatform.inventory.domain.model.entities.ProductItem;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ExpirationDate;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.Price;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.Quantity;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps the lots of a product in line with changes to its aggregate quantity. Callers must hold the
+ * product row lock (pessimistic lock or a prior UPDATE in the same transaction).
+ * Stock that predates lot tracking has no lot; it is consumed after the lots run out.
+ */
+@Slf4j
+@Component
+public class ProductLotAllocator {
+
+    /** Lots read per round trip while consuming; most decrements are served by the first lot or two */
+    private static final int LOT_FETCH_SIZE = 16;
+
+    private final ProductItemRepository productItemRepository;
+
+    public ProductLotAllocator(ProductItemRepository productItemRepository) {
+        this.productItemRepository = productItemRepository;
+    }
+
+    /**
+     * Records received stock as a lot, merged into an existing lot with the same expiration date and price
+     */
+    public ProductItem receive(Product product, int quantity, ExpirationDate expirationDate, Price price) {
+        for (ProductItem lot : productItemRepository.findLotsExpiringOn(product.getProductId(), expirationDate.expirationDate())) {
+            if (lot.getPrice().price().compareTo(price.price()) == 0) {
+                lot.add(quantity);
+                return lot;
+            }
+        }
+        return productItemRepository.save(new ProductItem(product, expirationDate, new Quantity(quantity), price));
+    }
+
+    /**
+     * Takes {@code amount} units from the product's lots, first expiring first, deleting emptied lots
+     * @return expiration date of the next lot to consume, empty if the product has no lots left
+     */
+    public Optional<LocalDate> consume(Long productId, int amount) {
+        int remaining = amount;
+        while (remaining > 0) {
+            // Emptied lots are deleted and flushed before the next query, so the next batch starts after them
+            List<ProductItem> lots = productItemRepository.findLotsInConsumptionOrder(productId, PageRequest.ofSize(LOT_FETCH_SIZE));
+            if (lots.isEmpty()) {
+                log.debug("Product {} has {} units without lot", productId, remaining);
+                return Optional.empty();
+            }
+            for (ProductItem lot : lots) {
+                remaining -= lot.consume(remaining);
+                if (lot.isDepleted()) {
+                    productItemRepository.delete(lot);
+                } else {
+                    return Optional.of(lot.getExpirationDate().expirationDate());
+                }
+                if (remaining == 0) {
+                    break;
+                }
+            }
+        }
+        return nextExpiration(productId);
+    }
+
+    /**
+     * Puts returned stock (e.g. a cancelled order) back into the first lot to expire
+     * @return expiration date of the next lot to consume, empty if the product has no lots
+     */
+    public Optional<LocalDate> restore(Long productId, int amount) {
+        List<ProductItem> lots = productItemRepository.findLotsInConsumptionOrder(productId, PageRequest.ofSize(1));
+        if (lots.isEmpty()) {
+            return Optional.empty();
+        }
+        ProductItem lot = lots.getFirst();
+        lot.add(amount);
+        return Optional.of(lot.getExpirationDate().expirationDate());
+    }
+
+    public Optional<LocalDate> nextExpiration(Long productId) {
+        return productItemRepository.findLotsInConsumptionOrder(productId, PageRequest.ofSize(1)).stream()
+                .findFirst()
+                .map(lot -> lot.getExpirationDate().expirationDate());
+    }
+}
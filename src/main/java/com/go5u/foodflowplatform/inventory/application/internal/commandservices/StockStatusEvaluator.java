@@ -0,0 +1,74 @@
+package com.go5u.foodflowplatform.inventory.application.internal.commandservices;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockThresholds;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Turns a product's available stock into AVAILABLE, LOW_STOCK or OUT_OF_STOCK using its thresholds,
+ * with hysteresis: between the low-stock and recovery levels the previous status is kept.
+ * Thresholds are served from an in-memory cache; products without their own use the service defaults.
+ */
+@Component
+public class StockStatusEvaluator {
+
+    public static final String AVAILABLE = "AVAILABLE";
+    public static final String LOW_STOCK = "LOW_STOCK";
+    public static final String OUT_OF_STOCK = "OUT_OF_STOCK";
+
+    private final LoadingCache<Long, Optional<StockThresholds>> thresholdsCache;
+    private final StockThresholds defaultThresholds;
+
+    public StockStatusEvaluator(ProductRepository productRepository,
+                                @Value("${inventory.stock-status.low-threshold:5}") int defaultLowThreshold,
+                                @Value("${inventory.stock-status.recovery-threshold:10}") int defaultRecoveryThreshold,
+                                @Value("${inventory.stock-status.cache.maximum-size:100000}") long maximumSize,
+                                @Value("${inventory.stock-status.cache.ttl:10m}") Duration ttl) {
+        this.defaultThresholds = new StockThresholds(defaultLowThreshold, defaultRecoveryThreshold);
+        this.thresholdsCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build(productRepository::findStockThresholdsByProductId);
+    }
+
+    /**
+     * @param previousStatus last status evaluated for the product, null if none
+     */
+    public String evaluate(Long productId, int availableQuantity, String previousStatus) {
+        return evaluate(thresholdsCache.get(productId).orElse(defaultThresholds), availableQuantity, previousStatus);
+    }
+
+    /**
+     * Status of a product not stored yet, which has neither thresholds of its own nor a previous status
+     */
+    public String evaluateNew(int availableQuantity) {
+        return evaluate(defaultThresholds, availableQuantity, null);
+    }
+
+    private static String evaluate(StockThresholds thresholds, int availableQuantity, String previousStatus) {
+        if (availableQuantity <= 0) {
+            return OUT_OF_STOCK;
+        }
+        if (availableQuantity <= thresholds.lowStockThreshold()) {
+            return LOW_STOCK;
+        }
+        if (availableQuantity > thresholds.recoveryThreshold()) {
+            return AVAILABLE;
+        }
+        // Inside the band: a product that was short stays LOW_STOCK until it recovers
+        return LOW_STOCK.equals(previousStatus) || OUT_OF_STOCK.equals(previousStatus) ? LOW_STOCK : AVAILABLE;
+    }
+
+    /**
+     * Drops the cached thresholds of a product after they change
+     */
+    public void invalidate(Long productId) {
+        thresholdsCache.invalidate(productId);
+    }
+}
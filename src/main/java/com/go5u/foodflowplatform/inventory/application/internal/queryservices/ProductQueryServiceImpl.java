@@ -1,23 +1,45 @@
 package com.go5u.foodflowplatform.inventory.application.internal.queryservices;
 
+import com.go5u.foodflowplatform.inventory.application.internal.commandservices.BurnRateTracker;
 import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import com.go5u.foodflowplatform.inventory.domain.model.entities.ProductItem;
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ProductBurnRate;
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ProductSummary;
 import com.go5u.foodflowplatform.inventory.domain.model.queries.GetAllProductsQuery;
+import com.go5u.foodflowplatform.inventory.domain.model.queries.GetProductBurnRateQuery;
 import com.go5u.foodflowplatform.inventory.domain.model.queries.GetProductByIdQuery;
 import com.go5u.foodflowplatform.inventory.domain.model.queries.GetProductByNameQuery;
+import com.go5u.foodflowplatform.inventory.domain.model.queries.GetProductLotsQuery;
+import com.go5u.foodflowplatform.inventory.domain.model.queries.GetProductsPageQuery;
 import com.go5u.foodflowplatform.inventory.domain.services.ProductQueryService;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductItemRepository;
 import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Queries run in read-only transactions, which the routing datasource sends to a read replica when one is configured
+ */
 @Service
+@Transactional(readOnly = true)
 public class ProductQueryServiceImpl implements ProductQueryService {
 
     private final ProductRepository productRepository;
+    private final ProductItemRepository productItemRepository;
+    private final BurnRateTracker burnRateTracker;
 
-    public ProductQueryServiceImpl(ProductRepository productRepository) {
+    public ProductQueryServiceImpl(ProductRepository productRepository,
+                                   ProductItemRepository productItemRepository,
+                                   BurnRateTracker burnRateTracker) {
         this.productRepository = productRepository;
+        this.productItemRepository = productItemRepository;
+        this.burnRateTracker = burnRateTracker;
     }
 
     @Override
@@ -34,4 +56,52 @@ public class ProductQueryServiceImpl implements ProductQueryService {
     public Optional<Product> handle(GetProductByNameQuery query) {
         return productRepository.findByNameAndUserId(query.name(), query.userId());
     }
+
+    @Override
+    public List<ProductSummary> handle(GetProductsPageQuery query) {
+        Pageable limit = PageRequest.ofSize(query.size());
+        var after = query.after();
+
+        return switch (query.sort()) {
+            case PRODUCT_ID -> after == null
+                    ? productRepository.findSummariesByUserId(query.userId(), limit)
+                    : productRepository.findSummariesByUserIdAfter(query.userId(), after.productId(), limit);
+            case NAME -> after == null
+                    ? productRepository.findSummariesByUserIdOrderByName(query.userId(), limit)
+                    : productRepository.findSummariesByUserIdOrderByNameAfter(
+                            query.userId(), after.sortValue(), after.productId(), limit);
+            case EXPIRATION_DATE -> after == null
+                    ? productRepository.findSummariesByUserIdOrderByExpiration(query.userId(), limit)
+                    : after.sortValue().isEmpty()
+                    ? productRepository.findSummariesByUserIdOrderByExpirationAfterUndated(
+                            query.userId(), after.productId(), limit)
+                    : productRepository.findSummariesByUserIdOrderByExpirationAfter(
+                            query.userId(), LocalDate.parse(after.sortValue()), after.productId(), limit);
+        };
+    }
+
+    /**
+     * Lots of a product in consumption order; empty if the product does not belong to the user
+     */
+    @Override
+    public List<ProductItem> handle(GetProductLotsQuery query) {
+        if (productRepository.findByProductIdAndUserId(query.productId(), query.userId()).isEmpty()) {
+            return List.of();
+        }
+        return productItemRepository.findLotsInConsumptionOrder(query.productId(), Pageable.unpaged());
+    }
+
+    /**
+     * Consumption rate and time to stockout of a product; empty if the product does not belong to the user
+     */
+    @Override
+    public Optional<ProductBurnRate> handle(GetProductBurnRateQuery query) {
+        return productRepository.findByProductIdAndUserId(query.productId(), query.userId()).map(product -> {
+            int available = product.getAvailableQuantity();
+            var perSecond = burnRateTracker.unitsPerSecond(product.getBurnRate());
+            return new ProductBurnRate(product.getProductId(), product.getName(), available,
+                    perSecond.isPresent() ? perSecond.getAsDouble() * 3600 : null,
+                    burnRateTracker.estimateSecondsToStockout(product.getBurnRate(), available));
+        });
+    }
 }
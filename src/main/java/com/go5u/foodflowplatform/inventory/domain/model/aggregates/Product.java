@@ -1,20 +1,36 @@
 package com.go5u.foodflowplatform.inventory.domain.model.aggregates;
 
 import com.go5u.foodflowplatform.inventory.domain.model.commands.CreateProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.BurnRate;
 import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ExpirationDate;
 import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.Price;
 import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductId;
 import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.Quantity;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.QuantityUnit;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockThresholds;
 import com.go5u.foodflowplatform.shared.domain.model.aggregates.AuditableAbstractAggregateRoot;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import org.apache.logging.log4j.util.Strings;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDate;
 
 @Entity
 @Getter
+@Table(indexes = {
+        @Index(name = "idx_products_user_product", columnList = "userId, productId"),
+        @Index(name = "idx_products_user_name", columnList = "userId, name, productId"),
+        @Index(name = "idx_products_user_expiration", columnList = "userId, expirationDate, productId"),
+        @Index(name = "idx_products_expiration", columnList = "expirationDate, productId")
+})
 public class Product{
 
     private String name;
@@ -35,6 +51,52 @@ public class Product{
     @jakarta.persistence.Column(nullable = false)
     private Long userId;
 
+    /**
+     * Unit the stock is counted in; null when unknown, in which case recipe amounts are applied as written
+     */
+    @Enumerated(EnumType.STRING)
+    private QuantityUnit stockUnit;
+
+    /**
+     * Whole units of {@code quantity} promised to in-flight orders: {@code reservedMillis} rounded up, kept
+     * so that stock queries can compute the available whole units in SQL
+     */
+    @ColumnDefault("0")
+    @jakarta.persistence.Column(nullable = false)
+    private Integer reservedQuantity = 0;
+
+    /**
+     * Milli-units of stock promised to in-flight orders through active stock holds; null in rows written
+     * before holds were tracked in milli-units, where {@code reservedQuantity} is exact
+     */
+    private Long reservedMillis = 0L;
+
+    /**
+     * Milli-units of stock beyond {@code quantity}, in [0, 1000): the stock is {@code quantity} whole units
+     * plus this fraction, so fractional recipe amounts are tracked without rounding the stored quantity
+     */
+    @ColumnDefault("0")
+    @jakarta.persistence.Column(nullable = false)
+    private Integer fractionMillis = 0;
+
+    /**
+     * Product-specific low-stock and recovery levels; null uses the service defaults
+     */
+    @Embedded
+    private StockThresholds stockThresholds;
+
+    /**
+     * Last stock status evaluated for this product (AVAILABLE, LOW_STOCK or OUT_OF_STOCK),
+     * the previous state for the hysteresis between the thresholds
+     */
+    private String stockStatus;
+
+    /**
+     * Consumption rate of the stock; null until something is consumed
+     */
+    @Embedded
+    private BurnRate burnRate;
+
     public Product() {
         this.name = Strings.EMPTY;
     }
@@ -42,21 +104,177 @@ public class Product{
     public Product(CreateProductCommand command) {
         this.name = command.name();
         this.quantity = new Quantity(command.quantity());
-        this.expirationDate = new ExpirationDate(command.expirationDate());
+        this.expirationDate = ExpirationDate.upcoming(command.expirationDate());
         this.price = new Price(command.price());
         this.userId = command.userId();
+        this.stockUnit = QuantityUnit.parseStockUnit(command.unit());
+    }
+
+    /**
+     * Whole units of stock that are neither consumed nor reserved
+     */
+    public int getAvailableQuantity() {
+        int current = (this.quantity != null) ? this.quantity.quantity() : 0;
+        int reserved = (this.reservedQuantity != null) ? this.reservedQuantity : 0;
+        return Math.max(0, current - reserved);
+    }
+
+    /**
+     * Stock that is neither consumed nor reserved, in milli-units
+     */
+    public long getAvailableMillis() {
+        int current = (this.quantity != null) ? this.quantity.quantity() : 0;
+        long total = (long) current * QuantityUnit.MILLIS_PER_UNIT + currentFractionMillis();
+        return Math.max(0, total - currentReservedMillis());
     }
 
     public void decreaseQuantity(int amount) {
         if (amount < 0) {
             throw new IllegalArgumentException("Decrease amount must be non-negative");
         }
+        if ((long) amount * QuantityUnit.MILLIS_PER_UNIT > getAvailableMillis()) {
+            throw new IllegalArgumentException("Insufficient inventory");
+        }
         int current = (this.quantity != null) ? this.quantity.quantity() : 0;
-        int updated = current - amount;
-        if (updated < 0) {
+        this.quantity = new Quantity(current - amount);
+    }
+
+    /**
+     * Applies a stock change given in milli-units. Whole units move {@code quantity}; the rest is carried in
+     * {@code fractionMillis}, so successive fractional changes add up exactly.
+     * @param milliDelta negative consumes stock, positive restores it
+     * @return change of {@code quantity} in whole units
+     */
+    public int applyMilliDelta(long milliDelta) {
+        if (milliDelta < 0 && -milliDelta > getAvailableMillis()) {
+            throw new IllegalArgumentException("Insufficient inventory");
+        }
+        return moveStockMillis(milliDelta);
+    }
+
+    /**
+     * Holds part of the available stock for an order
+     * @param milliAmount stock to hold, in milli-units
+     */
+    public void reserve(long milliAmount) {
+        if (milliAmount < 0) {
+            throw new IllegalArgumentException("Reserve amount must be non-negative");
+        }
+        if (milliAmount > getAvailableMillis()) {
             throw new IllegalArgumentException("Insufficient inventory");
         }
+        updateReservedMillis(currentReservedMillis() + milliAmount);
+    }
+
+    /**
+     * Returns reserved stock to the available stock (order cancelled or hold expired)
+     * @param milliAmount stock to release, in milli-units
+     */
+    public void releaseReservation(long milliAmount) {
+        if (milliAmount < 0) {
+            throw new IllegalArgumentException("Release amount must be non-negative");
+        }
+        updateReservedMillis(Math.max(0, currentReservedMillis() - milliAmount));
+    }
+
+    /**
+     * Consumes reserved stock (order fulfilled): both the reservation and the physical stock go down
+     * @param milliAmount stock to consume, in milli-units
+     * @return change of {@code quantity} in whole units
+     */
+    public int commitReservation(long milliAmount) {
+        if (milliAmount < 0) {
+            throw new IllegalArgumentException("Commit amount must be non-negative");
+        }
+        updateReservedMillis(Math.max(0, currentReservedMillis() - milliAmount));
+        int current = (this.quantity != null) ? this.quantity.quantity() : 0;
+        long total = (long) current * QuantityUnit.MILLIS_PER_UNIT + currentFractionMillis();
+        return moveStockMillis(-Math.min(milliAmount, total));
+    }
+
+    /**
+     * Removes expired stock. Reservations beyond the stock left are dropped with it.
+     */
+    public void expire(int amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Expired amount must be non-negative");
+        }
+        int current = (this.quantity != null) ? this.quantity.quantity() : 0;
+        int updated = Math.max(0, current - amount);
+        this.quantity = new Quantity(updated);
+        if (updated == 0) {
+            this.fractionMillis = 0;
+        }
+        long remaining = (long) updated * QuantityUnit.MILLIS_PER_UNIT + currentFractionMillis();
+        updateReservedMillis(Math.min(currentReservedMillis(), remaining));
+    }
+
+    /**
+     * Keeps the expiration date at the earliest expiring lot
+     */
+    public void updateExpirationDate(LocalDate expirationDate) {
+        this.expirationDate = new ExpirationDate(expirationDate);
+    }
+
+    /**
+     * Sets the stock to a counted number of whole units, for products whose stock is not tracked in lots
+     */
+    public void updateQuantity(int quantity) {
+        if ((long) quantity * QuantityUnit.MILLIS_PER_UNIT < currentReservedMillis()) {
+            throw new IllegalArgumentException("Quantity cannot be below the reserved stock of product: " + this.productId);
+        }
+        this.quantity = new Quantity(quantity);
+        this.fractionMillis = 0;
+    }
+
+    public void updatePrice(Price price) {
+        this.price = price;
+    }
+
+    public void updateStockUnit(QuantityUnit stockUnit) {
+        this.stockUnit = stockUnit;
+    }
+
+    public void updateStockThresholds(StockThresholds stockThresholds) {
+        this.stockThresholds = stockThresholds;
+    }
+
+    public void updateStockStatus(String stockStatus) {
+        this.stockStatus = stockStatus;
+    }
+
+    public void updateBurnRate(BurnRate burnRate) {
+        this.burnRate = burnRate;
+    }
+
+    private long currentFractionMillis() {
+        return (this.fractionMillis != null) ? this.fractionMillis : 0;
+    }
+
+    private long currentReservedMillis() {
+        if (this.reservedMillis != null) {
+            return this.reservedMillis;
+        }
+        return (this.reservedQuantity != null) ? (long) this.reservedQuantity * QuantityUnit.MILLIS_PER_UNIT : 0;
+    }
+
+    private void updateReservedMillis(long reservedMillis) {
+        this.reservedMillis = reservedMillis;
+        this.reservedQuantity = Math.toIntExact(Math.ceilDiv(reservedMillis, QuantityUnit.MILLIS_PER_UNIT));
+    }
+
+    /**
+     * Moves the stock by a number of milli-units. Whole units move {@code quantity}; the rest is carried in
+     * {@code fractionMillis}.
+     * @return change of {@code quantity} in whole units
+     */
+    private int moveStockMillis(long milliDelta) {
+        int current = (this.quantity != null) ? this.quantity.quantity() : 0;
+        long total = (long) current * QuantityUnit.MILLIS_PER_UNIT + currentFractionMillis() + milliDelta;
+        int updated = Math.toIntExact(Math.floorDiv(total, QuantityUnit.MILLIS_PER_UNIT));
         this.quantity = new Quantity(updated);
+        this.fractionMillis = (int) Math.floorMod(total, QuantityUnit.MILLIS_PER_UNIT);
+        return updated - current;
     }
 
     public void increaseQuantity(int amount) {
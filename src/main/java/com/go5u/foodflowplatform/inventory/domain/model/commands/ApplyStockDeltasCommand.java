@@ -0,0 +1,7 @@
+package com.go5u.foodflowplatform.inventory.domain.model.commands;
+
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockDelta;
+
+import java.util.List;
+
+public record ApplyStockDeltasCommand(List<StockDelta> deltas) {}
@@ -0,0 +1,12 @@
+package com.go5u.foodflowplatform.inventory.domain.model.commands;
+
+/**
+ * Consumes the stock held for an order
+ */
+public record CommitStockReservationCommand(Long orderId) {
+    public CommitStockReservationCommand {
+        if (orderId == null) {
+            throw new IllegalArgumentException("Order ID cannot be null");
+        }
+    }
+}
@@ -3,11 +3,15 @@ package com.go5u.foodflowplatform.inventory.domain.model.commands;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+/**
+ * @param unit unit the stock is counted in (for example "kg" or "l"); null or blank when unknown
+ */
 public record CreateProductCommand(
         String name,
         Long productId,
         Integer quantity,
         LocalDate expirationDate,
         BigDecimal price,
-        Long userId
+        Long userId,
+        String unit
 ) {}
\ No newline at end of file
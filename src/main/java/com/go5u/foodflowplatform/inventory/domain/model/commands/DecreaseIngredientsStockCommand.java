@@ -0,0 +1,27 @@
+package com.go5u.foodflowplatform.inventory.domain.model.commands;
+
+import java.util.Map;
+
+/**
+ * Decreases the stock of several ingredients of one user at once.
+ * @param milliQuantities ingredient name -> quantity to decrease in milli-units of the product's stock unit,
+ *                        in request order
+ */
+public record DecreaseIngredientsStockCommand(Long userId, Map<String, Long> milliQuantities) {
+    public DecreaseIngredientsStockCommand {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        if (milliQuantities == null || milliQuantities.isEmpty()) {
+            throw new IllegalArgumentException("At least one ingredient is required");
+        }
+        milliQuantities.forEach((name, milliQuantity) -> {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Ingredient name cannot be empty");
+            }
+            if (milliQuantity == null || milliQuantity <= 0) {
+                throw new IllegalArgumentException("Decrease amount must be at least 0.001 for ingredient: " + name);
+            }
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package com.go5u.foodflowplatform.inventory.domain.model.commands;
+
+/**
+ * Deletes a product with its lots and stock holds
+ */
+public record DeleteProductCommand(Long productId, Long userId) {
+    public DeleteProductCommand {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product ID cannot be null");
+        }
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.go5u.foodflowplatform.inventory.domain.model.commands;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Removes the stock of lots that expired before {@code today}
+ * @param productIds products of the lots, locked before the lots are re-read
+ */
+public record ExpireProductLotsCommand(Collection<Long> productIds, Collection<Long> lotIds, LocalDate today) {
+    public ExpireProductLotsCommand {
+        if (productIds == null || lotIds == null || today == null) {
+            throw new IllegalArgumentException("Products, lots and date are required");
+        }
+    }
+}
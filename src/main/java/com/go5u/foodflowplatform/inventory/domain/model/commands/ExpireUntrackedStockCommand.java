@@ -0,0 +1,15 @@
+package com.go5u.foodflowplatform.inventory.domain.model.commands;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Removes the stock of products without lots whose expiration date is before {@code today}
+ */
+public record ExpireUntrackedStockCommand(Collection<Long> productIds, LocalDate today) {
+    public ExpireUntrackedStockCommand {
+        if (productIds == null || today == null) {
+            throw new IllegalArgumentException("Products and date are required");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.go5u.foodflowplatform.inventory.domain.model.commands;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Receives stock of a product as a lot
+ * @param price unit price of the lot; the product's price when null
+ */
+public record ReceiveProductLotCommand(
+        Long productId,
+        Long userId,
+        Integer quantity,
+        LocalDate expirationDate,
+        BigDecimal price
+) {
+    public ReceiveProductLotCommand {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product ID cannot be null");
+        }
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Lot quantity must be positive");
+        }
+    }
+}
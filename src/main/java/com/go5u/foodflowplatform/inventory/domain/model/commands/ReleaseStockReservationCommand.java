@@ -0,0 +1,12 @@
+package com.go5u.foodflowplatform.inventory.domain.model.commands;
+
+/**
+ * Returns the stock held for an order to the available stock
+ */
+public record ReleaseStockReservationCommand(Long orderId) {
+    public ReleaseStockReservationCommand {
+        if (orderId == null) {
+            throw new IllegalArgumentException("Order ID cannot be null");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.go5u.foodflowplatform.inventory.domain.model.commands;
+
+import java.util.Map;
+
+/**
+ * Holds stock of several ingredients of one user for an order, until it is fulfilled, cancelled or the hold expires.
+ * Each ingredient is held on its own: the ones that are missing or short are reported and the rest are still held.
+ * @param milliQuantities ingredient name -> quantity to hold, in milli-units of the product's stock unit
+ */
+public record ReserveStockCommand(Long orderId, Long userId, Map<String, Long> milliQuantities) {
+    public ReserveStockCommand {
+        if (orderId == null) {
+            throw new IllegalArgumentException("Order ID cannot be null");
+        }
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        if (milliQuantities == null || milliQuantities.isEmpty()) {
+            throw new IllegalArgumentException("At least one ingredient is required");
+        }
+        milliQuantities.forEach((name, quantity) -> {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Ingredient name cannot be empty");
+            }
+            if (quantity == null || quantity < 0) {
+                throw new IllegalArgumentException("Reserve amount must be non-negative for ingredient: " + name);
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.go5u.foodflowplatform.inventory.domain.model.commands;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Updates the stock, expiration date, price and stock unit of a product; null fields keep their current value
+ */
+public record UpdateProductCommand(
+        Long productId,
+        Long userId,
+        Integer quantity,
+        LocalDate expirationDate,
+        BigDecimal price,
+        String unit
+) {
+    public UpdateProductCommand {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product ID cannot be null");
+        }
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+    }
+}
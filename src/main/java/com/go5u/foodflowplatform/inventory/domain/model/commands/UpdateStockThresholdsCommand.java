@@ -0,0 +1,20 @@
+package com.go5u.foodflowplatform.inventory.domain.model.commands;
+
+/**
+ * Sets the low-stock and recovery levels of a product; both null goes back to the service defaults
+ */
+public record UpdateStockThresholdsCommand(
+        Long productId,
+        Long userId,
+        Integer lowStockThreshold,
+        Integer recoveryThreshold
+) {
+    public UpdateStockThresholdsCommand {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product ID cannot be null");
+        }
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.go5u.foodflowplatform.inventory.domain.model.entities;
+
+import com.go5u.foodflowplatform.inventory.domain.model.events.InventoryEvent;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inventory event waiting to be published to Kafka. Written in the same transaction as the stock
+ * change it describes; the identity id gives the publication order. A relay claims messages for a while
+ * before sending them, so it does not hold row locks while it waits for the broker.
+ */
+@Entity
+@Getter
+@Table(indexes = {
+        @Index(name = "idx_inventory_outbox_occurred", columnList = "occurredAt, id"),
+        @Index(name = "idx_inventory_outbox_product", columnList = "productId, id")
+})
+public class InventoryOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    private String productName;
+
+    private Integer availableQuantity;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    private Long estimatedSecondsToStockout;
+
+    /**
+     * Relay instance sending this message, null while unclaimed
+     */
+    private String claimedBy;
+
+    /**
+     * End of the claim; after it another relay may claim the message again
+     */
+    private LocalDateTime claimedUntil;
+
+    public InventoryOutboxMessage() {
+        // Default constructor for JPA
+    }
+
+    public InventoryOutboxMessage(InventoryEvent event) {
+        this.productId = event.getProductId();
+        this.productName = event.getProductName();
+        this.availableQuantity = event.getAvailableQuantity();
+        this.status = event.getStatus();
+        this.occurredAt = event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now();
+        this.estimatedSecondsToStockout = event.getEstimatedSecondsToStockout();
+    }
+
+    public InventoryEvent toEvent() {
+        return new InventoryEvent(productId, productName, availableQuantity, status, occurredAt, estimatedSecondsToStockout);
+    }
+}
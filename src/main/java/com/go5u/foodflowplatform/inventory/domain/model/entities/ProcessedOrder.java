@@ -0,0 +1,54 @@
+package com.go5u.foodflowplatform.inventory.domain.model.entities;
+
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProcessedOrderId;
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of an order event whose stock changes have already been applied.
+ * The id is assigned (not generated) so inserts can be JDBC-batched.
+ */
+@Entity
+@Getter
+@Table(indexes = @Index(name = "idx_processed_orders_processed_at", columnList = "processedAt"))
+public class ProcessedOrder implements Persistable<ProcessedOrderId> {
+
+    @EmbeddedId
+    private ProcessedOrderId id;
+
+    @Column(nullable = false)
+    private LocalDateTime processedAt;
+
+    @Transient
+    private boolean newEntity = true;
+
+    public ProcessedOrder() {
+        // Default constructor for JPA
+    }
+
+    public ProcessedOrder(ProcessedOrderId id) {
+        this.id = id;
+        this.processedAt = LocalDateTime.now();
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+}
@@ -4,16 +4,23 @@ import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
 import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ExpirationDate;
 import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.Price;
 import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.Quantity;
-import com.go5u.foodflowplatform.shared.domain.model.entities.AuditableModel;
 import jakarta.persistence.Entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 
-import java.math.BigDecimal;
-
+/**
+ * Lot of a product: stock received together, with its own expiration date and price.
+ * Lots are consumed first-expiring-first-out and deleted once empty; the (product, expiration) index
+ * gives the next lot to consume without scanning, and the (expiration, id) index lets the expiration sweeper
+ * walk lots in date order with a cursor.
+ */
 @Entity
 @Getter
+@Table(indexes = {
+        @Index(name = "idx_product_items_product_expiration", columnList = "product_id, expirationDate"),
+        @Index(name = "idx_product_items_expiration", columnList = "expirationDate, Id")
+})
 public class ProductItem{
 
     @Id
@@ -21,7 +28,7 @@ public class ProductItem{
     private Long Id;
 
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
     private Product product;
 
@@ -45,7 +52,24 @@ public class ProductItem{
         this.price = price;
     }
 
-    public ProductItem(Product product, ExpirationDate expirationDate, Quantity quantity) {
-        super();
+    /**
+     * Takes up to {@code amount} units from this lot
+     * @return units actually taken
+     */
+    public int consume(int amount) {
+        int taken = Math.min(amount, this.quantity.quantity());
+        this.quantity = new Quantity(this.quantity.quantity() - taken);
+        return taken;
+    }
+
+    public void add(int amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Increase amount must be non-negative");
+        }
+        this.quantity = new Quantity(this.quantity.quantity() + amount);
+    }
+
+    public boolean isDepleted() {
+        return this.quantity.quantity() == 0;
     }
 }
@@ -0,0 +1,113 @@
+package com.go5u.foodflowplatform.inventory.domain.model.entities;
+
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ReplicatedIngredient;
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local copy of a menu dish recipe, kept up to date from the menu change stream so that order events
+ * can be expanded without calling the menu service. Deleted dishes stay as tombstones so that a late
+ * update of the same dish cannot bring them back.
+ * The id is the menu dish id (assigned, not generated).
+ */
+@Entity
+@Getter
+@Table(indexes = @Index(name = "idx_replicated_dishes_user", columnList = "userId"))
+public class ReplicatedDish implements Persistable<Long> {
+
+    @Id
+    private Long dishId;
+
+    private Long userId;
+
+    private String name;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "replicated_dish_ingredients", joinColumns = @JoinColumn(name = "dish_id"))
+    @OrderColumn(name = "ingredient_order")
+    private List<ReplicatedIngredient> ingredients = new ArrayList<>();
+
+    /**
+     * Version of the last applied change; null for recipes copied from a snapshot or a direct lookup
+     */
+    private Long version;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Transient
+    private boolean newEntity = true;
+
+    public ReplicatedDish() {
+        // Default constructor for JPA
+    }
+
+    public ReplicatedDish(Long dishId) {
+        this.dishId = dishId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Whether a change with the given version may overwrite this copy. Unversioned changes always apply.
+     */
+    public boolean acceptsVersion(Long changeVersion) {
+        return changeVersion == null || version == null || changeVersion >= version;
+    }
+
+    public void update(Long userId, String name, List<ReplicatedIngredient> ingredients, Long version) {
+        this.userId = userId;
+        this.name = name;
+        this.ingredients = new ArrayList<>(ingredients);
+        this.version = version;
+        this.deleted = false;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void markDeleted(Long version) {
+        this.ingredients = new ArrayList<>();
+        this.version = version;
+        this.deleted = true;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void updateProductIds(List<ReplicatedIngredient> ingredients) {
+        this.ingredients = new ArrayList<>(ingredients);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @Override
+    public Long getId() {
+        return dishId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+}
@@ -0,0 +1,75 @@
+package com.go5u.foodflowplatform.inventory.domain.model.entities;
+
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.QuantityUnit;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock of one product promised to an in-flight order. The product's reservedMillis is the sum of its
+ * active holds; a hold disappears when the order is fulfilled, cancelled or when it expires.
+ */
+@Entity
+@Getter
+@Table(indexes = {
+        @Index(name = "idx_stock_holds_order", columnList = "orderId"),
+        @Index(name = "idx_stock_holds_expires_at", columnList = "expiresAt")
+})
+public class StockHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    /**
+     * Order ingredient the hold covers; null in holds created before it was stored
+     */
+    private String ingredientName;
+
+    /**
+     * Held stock in whole units, rounded up
+     */
+    @Column(nullable = false)
+    private Integer quantity;
+
+    /**
+     * Held stock in milli-units; null in holds created before they were tracked in milli-units
+     */
+    private Long milliQuantity;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    public StockHold() {
+        // Default constructor for JPA
+    }
+
+    public StockHold(Long orderId, Long productId, String ingredientName, long milliQuantity, LocalDateTime expiresAt) {
+        this.orderId = orderId;
+        this.productId = productId;
+        this.ingredientName = ingredientName;
+        this.quantity = Math.toIntExact(Math.ceilDiv(milliQuantity, QuantityUnit.MILLIS_PER_UNIT));
+        this.milliQuantity = milliQuantity;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Held stock in milli-units, also for holds created before they were tracked in milli-units
+     */
+    public long getHeldMillis() {
+        return milliQuantity != null ? milliQuantity : (long) quantity * QuantityUnit.MILLIS_PER_UNIT;
+    }
+}
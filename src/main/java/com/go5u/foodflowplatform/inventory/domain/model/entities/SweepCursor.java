@@ -0,0 +1,48 @@
+package com.go5u.foodflowplatform.inventory.domain.model.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Position of a (date, id) walk of the expiration sweeper, shared by all instances. An instance leases the
+ * cursor before walking it, so only one instance walks a range at a time, and a restart resumes where the
+ * last walk stopped.
+ */
+@Entity
+@Getter
+@Table(name = "sweep_cursors")
+public class SweepCursor {
+
+    @Id
+    private String name;
+
+    /**
+     * Date and id of the last row visited; null before the first batch
+     */
+    private LocalDate cursorDate;
+
+    private Long cursorId;
+
+    /**
+     * Sweeper instance walking the range, null while not leased
+     */
+    private String leasedBy;
+
+    /**
+     * End of the lease; after it another instance may take the cursor over
+     */
+    private LocalDateTime leasedUntil;
+
+    public SweepCursor() {
+        // Default constructor for JPA
+    }
+
+    public SweepCursor(String name) {
+        this.name = name;
+    }
+}
@@ -1,6 +1,7 @@
 package com.go5u.foodflowplatform.inventory.domain.model.events;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,4 +18,13 @@ public class InventoryEvent {
     private String status;
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime timestamp;
+    /**
+     * Seconds until the available stock runs out at the current consumption rate; omitted when unknown
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long estimatedSecondsToStockout;
+
+    public InventoryEvent(Long productId, String productName, Integer availableQuantity, String status, LocalDateTime timestamp) {
+        this(productId, productName, availableQuantity, status, timestamp, null);
+    }
 }
\ No newline at end of file
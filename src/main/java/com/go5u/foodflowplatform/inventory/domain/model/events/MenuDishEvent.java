@@ -0,0 +1,27 @@
+package com.go5u.foodflowplatform.inventory.domain.model.events;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Change of a dish in the menu service. CREATED and UPDATED carry the full recipe; DELETED only the dish id.
+ * The version grows with every change of the same dish and is used to drop out-of-order deliveries.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MenuDishEvent {
+    private String eventType;
+    private Long dishId;
+    private Long userId;
+    private String name;
+    private List<MenuDishIngredientEvent> ingredients;
+    private Long version;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime timestamp;
+}
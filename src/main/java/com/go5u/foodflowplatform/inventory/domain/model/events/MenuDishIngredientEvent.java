@@ -0,0 +1,14 @@
+package com.go5u.foodflowplatform.inventory.domain.model.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MenuDishIngredientEvent {
+    private String name;
+    private Double quantity;
+    private String unit;
+}
@@ -0,0 +1,14 @@
+package com.go5u.foodflowplatform.inventory.domain.model.projections;
+
+import java.time.LocalDate;
+
+/**
+ * Lot found by the expiration sweeper, with the product data needed for its inventory event
+ * @param availableQuantity available stock of the whole product
+ */
+public record ExpiringLot(Long lotId,
+                          Long productId,
+                          String productName,
+                          LocalDate expirationDate,
+                          Integer availableQuantity) {
+}
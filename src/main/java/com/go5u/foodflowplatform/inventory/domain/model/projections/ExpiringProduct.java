@@ -0,0 +1,10 @@
+package com.go5u.foodflowplatform.inventory.domain.model.projections;
+
+import java.time.LocalDate;
+
+/**
+ * Product with stock tracked outside lots (created before lot tracking) found by the expiration sweeper,
+ * with the data needed for its inventory event
+ */
+public record ExpiringProduct(Long productId, String productName, LocalDate expirationDate, Integer availableQuantity) {
+}
@@ -0,0 +1,7 @@
+package com.go5u.foodflowplatform.inventory.domain.model.projections;
+
+/**
+ * Oldest outbox message of a product outside a relay's claim
+ */
+public record PendingOutboxHead(Long productId, Long firstId) {
+}
@@ -0,0 +1,8 @@
+package com.go5u.foodflowplatform.inventory.domain.model.projections;
+
+/**
+ * Current consumption rate of a product and the estimated time until its available stock runs out
+ * @param unitsPerHour null until the product has been observed long enough
+ * @param secondsToStockout null when there is no rate or nothing is being consumed
+ */
+public record ProductBurnRate(Long productId, String name, int availableQuantity, Double unitsPerHour, Long secondsToStockout) {}
@@ -0,0 +1,17 @@
+package com.go5u.foodflowplatform.inventory.domain.model.projections;
+
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.BurnRate;
+
+/**
+ * Current stock of a product, read without loading the whole aggregate
+ */
+public record ProductStock(Long productId, String name, Integer quantity, Integer reservedQuantity, String stockStatus,
+                           BurnRate burnRate) {
+
+    /**
+     * Stock that is neither consumed nor reserved
+     */
+    public int availableQuantity() {
+        return Math.max(0, quantity - (reservedQuantity != null ? reservedQuantity : 0));
+    }
+}
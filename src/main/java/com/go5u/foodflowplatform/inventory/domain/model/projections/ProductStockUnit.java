@@ -0,0 +1,8 @@
+package com.go5u.foodflowplatform.inventory.domain.model.projections;
+
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.QuantityUnit;
+
+/**
+ * Unit a product's stock is counted in, for converting recipe amounts
+ */
+public record ProductStockUnit(Long userId, String name, QuantityUnit stockUnit) {}
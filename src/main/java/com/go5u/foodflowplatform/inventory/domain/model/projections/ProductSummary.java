@@ -0,0 +1,13 @@
+package com.go5u.foodflowplatform.inventory.domain.model.projections;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Flat read model of a product for listings, selected directly from the table without managed entities
+ */
+public record ProductSummary(Long productId,
+                             String name,
+                             Integer quantity,
+                             LocalDate expirationDate,
+                             BigDecimal price) {}
@@ -0,0 +1,3 @@
+package com.go5u.foodflowplatform.inventory.domain.model.queries;
+
+public record GetProductBurnRateQuery(Long productId, Long userId) {}
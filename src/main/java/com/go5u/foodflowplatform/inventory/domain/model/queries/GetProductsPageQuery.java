@@ -0,0 +1,18 @@
+package com.go5u.foodflowplatform.inventory.domain.model.queries;
+
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductPageCursor;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductSortField;
+
+/**
+ * @param after cursor of the previous page, or null for the first page
+ */
+public record GetProductsPageQuery(Long userId, ProductSortField sort, ProductPageCursor after, int size) {
+    public GetProductsPageQuery {
+        if (after != null && after.sort() != sort) {
+            throw new IllegalArgumentException("Cursor was created for a different sort field");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.go5u.foodflowplatform.inventory.domain.model.valueobjects;
+
+import jakarta.persistence.Embeddable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.OptionalDouble;
+
+/**
+ * Consumption rate of a product, kept as an exponentially decayed sum of the consumed units. Each change
+ * updates it in O(1) and the rate is normalised by the time actually observed, so it is unbiased from the
+ * first minutes on.
+ * @param decayedUnits consumed units decayed to {@code lastConsumedAt}
+ * @param observedSince first recorded consumption
+ * @param lastConsumedAt last recorded consumption
+ */
+@Embeddable
+public record BurnRate(Double decayedUnits, LocalDateTime observedSince, LocalDateTime lastConsumedAt) {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /**
+     * Adds consumed units to a rate
+     * @param previous rate so far; null if nothing was recorded yet
+     * @param units units consumed; negative for restored stock
+     */
+    public static BurnRate record(BurnRate previous, double units, LocalDateTime now, Duration halfLife) {
+        if (previous == null || previous.observedSince() == null) {
+            return new BurnRate(Math.max(0, units), now, now);
+        }
+        // Another instance may have recorded a slightly later timestamp; never decay backwards
+        LocalDateTime last = previous.lastConsumedAt().isAfter(now) ? previous.lastConsumedAt() : now;
+        double decayed = previous.decayedAt(last, halfLife) + units;
+        return new BurnRate(Math.max(0, decayed), previous.observedSince(), last);
+    }
+
+    /**
+     * Current consumption in units per second, empty until the rate has been observed for {@code minObservation}.
+     * For a constant rate r observed for T, the decayed sum is r * tau * (1 - e^(-T/tau)); dividing by that
+     * factor gives r without waiting for the sum to warm up.
+     */
+    public OptionalDouble unitsPerSecond(LocalDateTime now, Duration halfLife, Duration minObservation) {
+        long observed = Duration.between(observedSince, now).toNanos();
+        if (observed <= 0 || observed < minObservation.toNanos()) {
+            return OptionalDouble.empty();
+        }
+        double window = timeConstantNanos(halfLife) * -Math.expm1(-observed / timeConstantNanos(halfLife));
+        return OptionalDouble.of(decayedAt(now, halfLife) / window * NANOS_PER_SECOND);
+    }
+
+    private double decayedAt(LocalDateTime time, Duration halfLife) {
+        long elapsed = Math.max(0, Duration.between(lastConsumedAt, time).toNanos());
+        double units = decayedUnits != null ? decayedUnits : 0;
+        return units * Math.exp(-elapsed / timeConstantNanos(halfLife));
+    }
+
+    private static double timeConstantNanos(Duration halfLife) {
+        return halfLife.toNanos() / Math.log(2);
+    }
+}
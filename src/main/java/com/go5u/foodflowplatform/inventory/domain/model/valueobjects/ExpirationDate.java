@@ -4,14 +4,25 @@ import jakarta.persistence.Embeddable;
 
 import java.time.LocalDate;
 
+/**
+ * Expiration date of a product or lot. Stored dates may already be in the past (lots age while in stock),
+ * so only new stock is checked against today, through {@link #upcoming(LocalDate)}.
+ */
 @Embeddable
 public record ExpirationDate(LocalDate expirationDate) {
     public ExpirationDate {
         if (expirationDate == null) {
             throw new IllegalArgumentException("Expiration date cannot be null");
         }
-        if (expirationDate.isBefore(LocalDate.now())) {
+    }
+
+    /**
+     * Expiration date of stock being received
+     */
+    public static ExpirationDate upcoming(LocalDate expirationDate) {
+        if (expirationDate != null && expirationDate.isBefore(LocalDate.now())) {
             throw new IllegalArgumentException("Expiration date cannot be in the past");
         }
+        return new ExpirationDate(expirationDate);
     }
 }
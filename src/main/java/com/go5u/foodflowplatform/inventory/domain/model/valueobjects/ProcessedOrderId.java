@@ -0,0 +1,21 @@
+package com.go5u.foodflowplatform.inventory.domain.model.valueobjects;
+
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+
+/**
+ * Identifies one applied transition of an order: the same order is applied once as CREATED and,
+ * if cancelled, once as CANCELLED.
+ */
+@Embeddable
+public record ProcessedOrderId(Long orderId, String status) implements Serializable {
+    public ProcessedOrderId {
+        if (orderId == null) {
+            throw new IllegalArgumentException("Order ID cannot be null");
+        }
+        if (status == null || status.isBlank()) {
+            throw new IllegalArgumentException("Order status cannot be empty");
+        }
+    }
+}
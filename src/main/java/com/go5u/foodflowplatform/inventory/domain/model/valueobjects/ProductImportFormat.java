@@ -0,0 +1,10 @@
+package com.go5u.foodflowplatform.inventory.domain.model.valueobjects;
+
+/**
+ * Body format of a bulk product import. Both are read line by line: CSV with a header row naming the
+ * columns, NDJSON with one product object per line.
+ */
+public enum ProductImportFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,13 @@
+package com.go5u.foodflowplatform.inventory.domain.model.valueobjects;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk product import.
+ * @param errors rejected rows in body order, capped; {@code errorsTruncated} is set when more rows were rejected
+ */
+public record ProductImportResult(long imported,
+                                  long rejected,
+                                  List<ProductImportRowError> errors,
+                                  boolean errorsTruncated) {
+}
@@ -0,0 +1,8 @@
+package com.go5u.foodflowplatform.inventory.domain.model.valueobjects;
+
+/**
+ * A row of a bulk import that was not imported.
+ * @param line line of the body the row was read from, starting at 1
+ */
+public record ProductImportRowError(long line, String message) {
+}
@@ -0,0 +1,16 @@
+package com.go5u.foodflowplatform.inventory.domain.model.valueobjects;
+
+/**
+ * Position after the last product of a page: its productId and, for name or expiration ordering,
+ * the value of the sort field (ISO date for expiration, empty for a product without expiration date)
+ */
+public record ProductPageCursor(ProductSortField sort, String sortValue, Long productId) {
+    public ProductPageCursor {
+        if (sort == null || productId == null) {
+            throw new IllegalArgumentException("Cursor must have a sort field and a product ID");
+        }
+        if (sort != ProductSortField.PRODUCT_ID && sortValue == null) {
+            throw new IllegalArgumentException("Cursor must have a value for sort field " + sort.fieldName());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.go5u.foodflowplatform.inventory.domain.model.valueobjects;
+
+import java.util.Arrays;
+
+/**
+ * Orderings supported by the paginated product listing; productId is always the tie-breaker
+ */
+public enum ProductSortField {
+    PRODUCT_ID("productId"),
+    NAME("name"),
+    EXPIRATION_DATE("expirationDate");
+
+    private final String fieldName;
+
+    ProductSortField(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    public String fieldName() {
+        return fieldName;
+    }
+
+    public static ProductSortField fromFieldName(String fieldName) {
+        return Arrays.stream(values())
+                .filter(field -> field.fieldName.equalsIgnoreCase(fieldName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported sort field: " + fieldName));
+    }
+}
@@ -5,8 +5,8 @@ import jakarta.persistence.Embeddable;
 @Embeddable
 public record Quantity(Integer quantity) {
     public Quantity {
-        if (quantity <= 0) {
-            throw new IllegalArgumentException("Quantity must be positive.");
+        if (quantity == null || quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative.");
         }
     }
 }
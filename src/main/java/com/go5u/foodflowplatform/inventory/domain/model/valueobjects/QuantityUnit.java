@@ -0,0 +1,114 @@
+package com.go5u.foodflowplatform.inventory.domain.model.valueobjects;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Units of recipe amounts and product stock, with their size in milli-units of the base unit of their
+ * dimension (grams, milliliters or pieces), so "0.25 kg" is 250 000 milli-grams and "3 ml" 3 000 milli-milliliters.
+ * Amounts are kept in milli-units of their own unit and converted to a product's stock unit only when both
+ * units measure the same dimension; otherwise, or while the stock unit is unknown, they are taken as written.
+ * Free-text recipe units are resolved once through a fixed alias table; unknown ones count as pieces.
+ */
+public enum QuantityUnit {
+    MILLIGRAM(Dimension.MASS, 1),
+    GRAM(Dimension.MASS, 1_000),
+    KILOGRAM(Dimension.MASS, 1_000_000),
+    MILLILITER(Dimension.VOLUME, 1_000),
+    LITER(Dimension.VOLUME, 1_000_000),
+    UNIT(Dimension.COUNT, 1_000);
+
+    public static final long MILLIS_PER_UNIT = 1_000;
+
+    private static final Map<String, QuantityUnit> ALIASES = new HashMap<>();
+
+    static {
+        alias(MILLIGRAM, "mg", "milligram", "milligrams", "miligramo", "miligramos");
+        alias(GRAM, "g", "gr", "grs", "gram", "grams", "gramo", "gramos");
+        alias(KILOGRAM, "kg", "kgs", "kilo", "kilos", "kilogram", "kilograms", "kilogramo", "kilogramos");
+        alias(MILLILITER, "ml", "milliliter", "milliliters", "millilitre", "millilitres", "mililitro", "mililitros", "cc");
+        alias(LITER, "l", "lt", "lts", "liter", "liters", "litre", "litres", "litro", "litros");
+        alias(UNIT, "u", "un", "unit", "units", "unidad", "unidades", "pc", "pcs", "piece", "pieces", "pieza", "piezas");
+    }
+
+    /**
+     * What a unit measures; amounts only convert between units of the same dimension
+     */
+    public enum Dimension {
+        MASS, VOLUME, COUNT
+    }
+
+    private final Dimension dimension;
+    private final long baseMillis;
+
+    QuantityUnit(Dimension dimension, long baseMillis) {
+        this.dimension = dimension;
+        this.baseMillis = baseMillis;
+    }
+
+    public Dimension dimension() {
+        return dimension;
+    }
+
+    /**
+     * Resolves a recipe unit; blank or unknown units count as pieces
+     */
+    public static QuantityUnit parse(String unit) {
+        if (unit == null) {
+            return UNIT;
+        }
+        return ALIASES.getOrDefault(unit.trim().toLowerCase(Locale.ROOT), UNIT);
+    }
+
+    /**
+     * Resolves the stock unit of a product, by name or alias
+     * @return null for a blank unit (unknown stock unit)
+     * @throws IllegalArgumentException if the unit is not recognised
+     */
+    public static QuantityUnit parseStockUnit(String unit) {
+        if (unit == null || unit.isBlank()) {
+            return null;
+        }
+        String key = unit.trim().toLowerCase(Locale.ROOT);
+        QuantityUnit resolved = ALIASES.get(key);
+        if (resolved == null) {
+            for (QuantityUnit candidate : values()) {
+                if (candidate.name().toLowerCase(Locale.ROOT).equals(key)) {
+                    resolved = candidate;
+                }
+            }
+        }
+        if (resolved == null) {
+            throw new IllegalArgumentException("Unknown unit: " + unit);
+        }
+        return resolved;
+    }
+
+    /**
+     * Converts an amount to milli-units of its own unit, rounded to the nearest milli-unit
+     */
+    public static long toMillis(double amount) {
+        return Math.round(amount * MILLIS_PER_UNIT);
+    }
+
+    /**
+     * Converts milli-units of this unit to milli-units of the stock unit, rounded half away from zero.
+     * @param stockUnit unit the stock is counted in; null when unknown
+     * @return the same amount if the stock unit is unknown or measures another dimension
+     */
+    public long convertMillis(long millis, QuantityUnit stockUnit) {
+        if (stockUnit == null || stockUnit == this || stockUnit.dimension != dimension) {
+            return millis;
+        }
+        long scaled = Math.multiplyExact(Math.abs(millis), baseMillis);
+        long converted = (scaled + stockUnit.baseMillis / 2) / stockUnit.baseMillis;
+        return millis < 0 ? -converted : converted;
+    }
+
+    private static void alias(QuantityUnit unit, String... names) {
+        for (String name : names) {
+            ALIASES.put(name, unit);
+        }
+    }
+}
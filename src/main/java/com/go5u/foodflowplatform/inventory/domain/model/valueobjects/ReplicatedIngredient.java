@@ -0,0 +1,25 @@
+package com.go5u.foodflowplatform.inventory.domain.model.valueobjects;
+
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+/**
+ * One ingredient of a replicated dish recipe
+ * @param milliQuantity quantity per dish in milli-units of {@code unit}
+ * @param unit recipe unit of the quantity; null in rows replicated before units were stored, whose quantity
+ *             was already converted and has to be fetched again
+ * @param productId product of the dish owner matching the ingredient name, or null while there is none
+ */
+@Embeddable
+public record ReplicatedIngredient(String ingredientName, Long milliQuantity,
+                                   @Enumerated(EnumType.STRING) QuantityUnit unit, Long productId) {
+    public ReplicatedIngredient {
+        if (ingredientName == null || ingredientName.isBlank()) {
+            throw new IllegalArgumentException("Ingredient name cannot be empty");
+        }
+        if (milliQuantity == null) {
+            throw new IllegalArgumentException("Ingredient quantity cannot be null");
+        }
+    }
+}
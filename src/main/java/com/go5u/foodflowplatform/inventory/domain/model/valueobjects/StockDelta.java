@@ -0,0 +1,21 @@
+package com.go5u.foodflowplatform.inventory.domain.model.valueobjects;
+
+/**
+ * Net stock change of one ingredient for one user: negative consumes stock, positive restores it.
+ * @param milliQuantity change in milli-units of the stock unit (1000 = one unit of the product's stock unit)
+ * @param productId product the ingredient was resolved to ahead of time, or null to look it up by name
+ */
+public record StockDelta(Long userId, String ingredientName, long milliQuantity, Long productId) {
+    public StockDelta {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        if (ingredientName == null || ingredientName.isBlank()) {
+            throw new IllegalArgumentException("Ingredient name cannot be empty");
+        }
+    }
+
+    public StockDelta(Long userId, String ingredientName, long milliQuantity) {
+        this(userId, ingredientName, milliQuantity, null);
+    }
+}
@@ -0,0 +1,13 @@
+package com.go5u.foodflowplatform.inventory.domain.model.valueobjects;
+
+/**
+ * Result of one ingredient of a multi-ingredient stock change.
+ * @param productId null when the ingredient is not in the user's inventory
+ * @param availableQuantity stock after the change, or the current stock when it was not applied
+ */
+public record StockLineResult(String ingredientName,
+                              int requestedQuantity,
+                              Long productId,
+                              Integer availableQuantity,
+                              StockLineStatus status) {
+}
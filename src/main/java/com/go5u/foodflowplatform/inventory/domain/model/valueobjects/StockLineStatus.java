@@ -0,0 +1,12 @@
+package com.go5u.foodflowplatform.inventory.domain.model.valueobjects;
+
+/**
+ * Outcome of one line of a multi-ingredient stock change.
+ */
+public enum StockLineStatus {
+    APPLIED,
+    NOT_FOUND,
+    INSUFFICIENT_STOCK,
+    /** The line was valid but another line failed, so nothing was applied */
+    NOT_APPLIED
+}
@@ -0,0 +1,21 @@
+package com.go5u.foodflowplatform.inventory.domain.model.valueobjects;
+
+import jakarta.persistence.Embeddable;
+
+/**
+ * Stock levels that drive a product's status, in the product's own unit.
+ * The status drops to LOW_STOCK at or below {@code lowStockThreshold} (the reorder level) and only goes back
+ * to AVAILABLE above {@code recoveryThreshold}; in between it keeps its previous value, so stock hovering
+ * around one level does not flap.
+ */
+@Embeddable
+public record StockThresholds(Integer lowStockThreshold, Integer recoveryThreshold) {
+    public StockThresholds {
+        if (lowStockThreshold == null || lowStockThreshold < 0) {
+            throw new IllegalArgumentException("Low stock threshold must be non-negative");
+        }
+        if (recoveryThreshold == null || recoveryThreshold < lowStockThreshold) {
+            throw new IllegalArgumentException("Recovery threshold must be at least the low stock threshold");
+        }
+    }
+}
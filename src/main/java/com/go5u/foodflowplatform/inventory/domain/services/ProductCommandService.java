@@ -1,12 +1,75 @@
 package com.go5u.foodflowplatform.inventory.domain.services;
 
+import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ApplyStockDeltasCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.CommitStockReservationCommand;
 import com.go5u.foodflowplatform.inventory.domain.model.commands.CreateProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.DecreaseIngredientsStockCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.DeleteProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ExpireProductLotsCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ExpireUntrackedStockCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ReceiveProductLotCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ReleaseStockReservationCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ReserveStockCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.UpdateProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.UpdateStockThresholdsCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockLineResult;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 public interface ProductCommandService {
 
     Long handle(CreateProductCommand command);
 
-    void decreaseInventoryQuantity(Long productId, Integer quantity);
+    Long handle(ReceiveProductLotCommand command);
+
+    /**
+     * @return the updated product, empty if the user has no such product
+     */
+    Optional<Product> handle(UpdateProductCommand command);
+
+    /**
+     * @return false if the user has no such product
+     */
+    boolean handle(DeleteProductCommand command);
+
+    void handle(UpdateStockThresholdsCommand command);
+
+    Integer decreaseInventoryQuantity(Long productId, Integer quantity);
+
+    Integer increaseInventoryQuantity(Long productId, Integer quantity);
+
+    void handle(ApplyStockDeltasCommand command);
+
+    List<StockLineResult> handle(DecreaseIngredientsStockCommand command);
+
+    List<StockLineResult> handle(ReserveStockCommand command);
+
+    /**
+     * @return ingredients whose holds were consumed, empty if the order has no active holds
+     */
+    Set<String> handle(CommitStockReservationCommand command);
+
+    /**
+     * @return number of holds released, 0 if the order has no active holds
+     */
+    int handle(ReleaseStockReservationCommand command);
+
+    /**
+     * Releases up to {@code batchSize} expired holds, oldest first
+     * @return number of holds released
+     */
+    int releaseExpiredHolds(int batchSize);
+
+    /**
+     * @return number of lots expired
+     */
+    int handle(ExpireProductLotsCommand command);
 
-    void increaseInventoryQuantity(Long productId, Integer quantity);
+    /**
+     * @return number of products whose stock was expired
+     */
+    int handle(ExpireUntrackedStockCommand command);
 }
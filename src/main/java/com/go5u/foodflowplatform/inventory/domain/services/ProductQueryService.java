@@ -1,9 +1,15 @@
 package com.go5u.foodflowplatform.inventory.domain.services;
 
 import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import com.go5u.foodflowplatform.inventory.domain.model.entities.ProductItem;
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ProductBurnRate;
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ProductSummary;
 import com.go5u.foodflowplatform.inventory.domain.model.queries.GetAllProductsQuery;
+import com.go5u.foodflowplatform.inventory.domain.model.queries.GetProductBurnRateQuery;
 import com.go5u.foodflowplatform.inventory.domain.model.queries.GetProductByIdQuery;
 import com.go5u.foodflowplatform.inventory.domain.model.queries.GetProductByNameQuery;
+import com.go5u.foodflowplatform.inventory.domain.model.queries.GetProductLotsQuery;
+import com.go5u.foodflowplatform.inventory.domain.model.queries.GetProductsPageQuery;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,4 +18,7 @@ public interface ProductQueryService {
     List<Product> handle(GetAllProductsQuery query);
     Optional<Product> handle(GetProductByIdQuery query);
     Optional<Product> handle(GetProductByNameQuery query);
+    List<ProductSummary> handle(GetProductsPageQuery query);
+    List<ProductItem> handle(GetProductLotsQuery query);
+    Optional<ProductBurnRate> handle(GetProductBurnRateQuery query);
 }
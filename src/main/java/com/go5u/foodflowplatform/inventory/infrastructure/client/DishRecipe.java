@@ -0,0 +1,67 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.client;
+
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.QuantityUnit;
+import com.go5u.foodflowplatform.inventory.interfaces.dto.DishResponse;
+
+import java.util.List;
+
+/**
+ * Receta de un plato tal como se guarda en la caché del cliente Menu y en la réplica local. Cada cantidad va en
+ * milésimas de la unidad de la receta y se convierte a la unidad de stock del producto al agregar los pedidos.
+ * Los ingredientes van en arrays paralelos para sumarlos sin boxing.
+ * @param userId usuario (restaurante) dueño del plato
+ * @param ingredientNames nombre de cada ingrediente
+ * @param milliQuantities cantidad por plato de cada ingrediente, en milésimas de {@code units[i]}
+ * @param units unidad de la receta de cada ingrediente
+ * @param productIds producto del inventario de ese usuario para cada ingrediente, o {@link #UNRESOLVED} si no se conoce
+ */
+public record DishRecipe(Long dishId, Long userId, String name, String[] ingredientNames, long[] milliQuantities,
+                         QuantityUnit[] units, long[] productIds) {
+
+    public static final long UNRESOLVED = 0L;
+
+    public static DishRecipe from(DishResponse dish) {
+        List<DishResponse.IngredientResponse> ingredients = dish.ingredients() == null ? List.of() : dish.ingredients();
+        int count = (int) ingredients.stream().filter(DishRecipe::isUsable).count();
+        String[] names = new String[count];
+        long[] quantities = new long[count];
+        QuantityUnit[] units = new QuantityUnit[count];
+        int i = 0;
+        for (DishResponse.IngredientResponse ingredient : ingredients) {
+            if (isUsable(ingredient)) {
+                names[i] = ingredient.name();
+                quantities[i] = QuantityUnit.toMillis(ingredient.quantity());
+                units[i] = QuantityUnit.parse(ingredient.unit());
+                i++;
+            }
+        }
+        return new DishRecipe(dish.id(), dish.userId(), dish.name(), names, quantities, units, new long[count]);
+    }
+
+    /**
+     * La misma receta con los productos resueltos
+     */
+    public DishRecipe withProductIds(long[] productIds) {
+        return new DishRecipe(dishId, userId, name, ingredientNames, milliQuantities, units, productIds);
+    }
+
+    public int size() {
+        return ingredientNames.length;
+    }
+
+    /**
+     * Si todos los ingredientes tienen producto resuelto
+     */
+    public boolean isResolved() {
+        for (long productId : productIds) {
+            if (productId == UNRESOLVED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isUsable(DishResponse.IngredientResponse ingredient) {
+        return ingredient != null && ingredient.name() != null && ingredient.quantity() != null;
+    }
+}
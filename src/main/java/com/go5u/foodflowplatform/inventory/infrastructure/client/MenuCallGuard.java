@@ -0,0 +1,224 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Protección de las llamadas HTTP al Menu: un bulkhead limita las llamadas concurrentes y un circuit breaker
+ * rechaza las llamadas mientras el Menu está fallando, sin esperar a los timeouts. Las llamadas rechazadas lanzan
+ * {@link MenuCallRejectedException}, distinta de un 404.
+ * <p>
+ * Con {@code menu.client.hedge.enabled}, las consultas individuales que tardan más que el p95 reciente lanzan una
+ * segunda petición; el balanceador la envía a otra instancia del Menu y se usa la primera respuesta correcta.
+ * Los errores 4xx no cuentan como fallos del Menu.
+ */
+@Slf4j
+@Component
+public class MenuCallGuard {
+
+    private static final int LATENCY_SAMPLES = 256;
+    private static final int MIN_LATENCY_SAMPLES = 50;
+
+    private final MenuCircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final long bulkheadMaxWaitNanos;
+    private final boolean hedgeEnabled;
+    private final long hedgeMinDelayNanos;
+    private final ExecutorService hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final MeterRegistry meterRegistry;
+
+    // Ring buffer of recent successful call latencies, used to estimate the hedge delay
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private int latencyNext;
+    private volatile long hedgeDelayNanos;
+
+    public MenuCallGuard(@Value("${menu.client.bulkhead.max-concurrent-calls:32}") int maxConcurrentCalls,
+                         @Value("${menu.client.bulkhead.max-wait:100ms}") Duration bulkheadMaxWait,
+                         @Value("${menu.client.circuit-breaker.window-size:20}") int windowSize,
+                         @Value("${menu.client.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                         @Value("${menu.client.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+                         @Value("${menu.client.circuit-breaker.open-duration:10s}") Duration openDuration,
+                         @Value("${menu.client.circuit-breaker.half-open-calls:3}") int halfOpenCalls,
+                         @Value("${menu.client.hedge.enabled:false}") boolean hedgeEnabled,
+                         @Value("${menu.client.hedge.min-delay:20ms}") Duration hedgeMinDelay,
+                         @Value("${menu.client.hedge.default-delay:200ms}") Duration hedgeDefaultDelay,
+                         MeterRegistry meterRegistry) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("Menu bulkhead must allow at least one concurrent call");
+        }
+        this.circuitBreaker = new MenuCircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenCalls);
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.bulkheadMaxWaitNanos = bulkheadMaxWait.toNanos();
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeMinDelayNanos = hedgeMinDelay.toNanos();
+        this.hedgeDelayNanos = hedgeDefaultDelay.toNanos();
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("inventory.menu.circuit.state", circuitBreaker, breaker -> breaker.state().ordinal())
+                .description("Menu circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        Gauge.builder("inventory.menu.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Menu calls that can still start without waiting")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta una llamada al Menu a través del circuit breaker y el bulkhead
+     * @throws MenuCallRejectedException si el circuito está abierto o el bulkhead sigue lleno tras la espera máxima
+     */
+    public <T> T call(String operation, Supplier<T> call) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw rejected(operation, "circuit_open");
+        }
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(bulkheadMaxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            // The call never ran, so it says nothing about the health of the Menu service
+            circuitBreaker.releasePermission();
+            throw rejected(operation, "bulkhead_full");
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            circuitBreaker.onSuccess();
+            recordLatency(System.nanoTime() - start);
+            return result;
+        } catch (HttpClientErrorException e) {
+            circuitBreaker.onSuccess();
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure();
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Como {@link #call}, pero si la respuesta tarda más que el p95 reciente lanza una segunda petición
+     * y devuelve la primera que termine bien. Solo para peticiones idempotentes.
+     */
+    public <T> T hedgedCall(String operation, Supplier<T> call) {
+        if (!hedgeEnabled) {
+            return call(operation, call);
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        AtomicReference<String> winner = new AtomicReference<>();
+        CompletableFuture.supplyAsync(() -> call(operation, call), hedgeExecutor)
+                .whenComplete((value, error) -> complete(result, pending, winner, "primary", value, error));
+        try {
+            return result.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // The slower attempt is not interrupted; it ends at the read timeout at the latest
+            pending.incrementAndGet();
+            CompletableFuture.supplyAsync(() -> call(operation, call), hedgeExecutor)
+                    .whenComplete((value, error) -> complete(result, pending, winner, "hedge", value, error));
+            T value = join(result);
+            meterRegistry.counter("inventory.menu.hedged.requests", "operation", operation, "winner", winner.get()).increment();
+            return value;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MenuServiceUnavailableException("Interrupted while calling Menu service", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    public MenuCircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    public int availableBulkheadPermits() {
+        return bulkhead.availablePermits();
+    }
+
+    /**
+     * Retraso actual antes de lanzar una petición duplicada
+     */
+    public Duration hedgeDelay() {
+        return Duration.ofNanos(hedgeDelayNanos);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    /**
+     * The first successful attempt completes the result; it only fails once every attempt has failed
+     */
+    private static <T> void complete(CompletableFuture<T> result, AtomicInteger pending, AtomicReference<String> winner,
+                                     String attempt, T value, Throwable error) {
+        if (error == null) {
+            if (winner.compareAndSet(null, attempt)) {
+                result.complete(value);
+            }
+        } else if (pending.decrementAndGet() == 0) {
+            result.completeExceptionally(error);
+        }
+    }
+
+    private <T> T join(CompletableFuture<T> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MenuServiceUnavailableException("Interrupted while calling Menu service", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                ? e.getCause().getCause() : e.getCause();
+        return cause instanceof RuntimeException runtime ? runtime : new MenuServiceUnavailableException(cause.getMessage(), cause);
+    }
+
+    private MenuCallRejectedException rejected(String operation, String reason) {
+        meterRegistry.counter("inventory.menu.calls.rejected", "operation", operation, "reason", reason).increment();
+        return new MenuCallRejectedException("Menu service call rejected: " + reason.replace('_', ' '));
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        latencies[latencyNext] = nanos;
+        latencyNext = (latencyNext + 1) % LATENCY_SAMPLES;
+        if (latencyCount < LATENCY_SAMPLES) {
+            latencyCount++;
+        }
+        // Re-estimate the p95 every few samples instead of sorting on every call
+        if (latencyCount >= MIN_LATENCY_SAMPLES && latencyNext % 16 == 0) {
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            long p95 = sorted[(int) Math.ceil(latencyCount * 0.95) - 1];
+            hedgeDelayNanos = Math.max(hedgeMinDelayNanos, p95);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.client;
+
+/**
+ * La llamada al Menu se rechazó sin hacerla: el circuit breaker está abierto o el bulkhead está lleno.
+ */
+public class MenuCallRejectedException extends MenuServiceUnavailableException {
+
+    public MenuCallRejectedException(String message) {
+        super(message, null);
+    }
+}
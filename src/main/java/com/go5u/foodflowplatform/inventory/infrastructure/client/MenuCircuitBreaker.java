@@ -0,0 +1,142 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.client;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker por conteo para las llamadas al Menu. Con la ventana de las últimas llamadas llena al menos hasta
+ * el mínimo y un porcentaje de fallos igual o mayor al umbral, se abre: durante el tiempo de apertura las llamadas
+ * se rechazan sin tocar la red. Después deja pasar unas pocas llamadas de prueba (semiabierto); si todas salen bien
+ * se cierra y si alguna falla se vuelve a abrir.
+ */
+public class MenuCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int next;
+    private int failures;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    /**
+     * @param windowSize número de llamadas recientes que se tienen en cuenta
+     * @param minimumCalls llamadas mínimas en la ventana antes de poder abrirse
+     * @param failureRateThreshold porcentaje de fallos (1-100) a partir del cual se abre
+     * @param openDuration tiempo que permanece abierto antes de probar de nuevo
+     * @param halfOpenCalls llamadas de prueba en estado semiabierto
+     */
+    public MenuCircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, Duration openDuration, int halfOpenCalls) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("Circuit breaker minimum calls must be between 1 and the window size");
+        }
+        if (failureRateThreshold < 1 || failureRateThreshold > 100) {
+            throw new IllegalArgumentException("Circuit breaker failure rate threshold must be between 1 and 100");
+        }
+        if (halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Circuit breaker half-open calls must be at least 1");
+        }
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    /**
+     * Pide permiso para una llamada. Cada permiso concedido debe cerrarse con {@link #onSuccess()} o {@link #onFailure()}.
+     * @return false si el circuito está abierto o ya no quedan llamadas de prueba
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openDurationNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    /**
+     * Devuelve un permiso concedido para una llamada que al final no se hizo, sin contarla como éxito ni fallo
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenPermits + halfOpenSuccesses < halfOpenCalls) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses == halfOpenCalls) {
+                reset();
+            }
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                open();
+            }
+        }
+    }
+
+    public synchronized State state() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+}
@@ -1,14 +1,59 @@
 package com.go5u.foodflowplatform.inventory.infrastructure.client;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.go5u.foodflowplatform.inventory.interfaces.dto.DishResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Cliente para comunicarse con el microservicio Menu usando RestClient
+ * Cliente para comunicarse con el microservicio Menu usando RestClient.
+ * Las recetas se convierten a {@link DishRecipe} (milésimas de la unidad de stock) al cargarlas y se guardan
+ * así en una caché acotada por tamaño y TTL: las entradas se refrescan en segundo
+ * plano antes de expirar, los 404 se cachean por un tiempo corto y las cargas concurrentes del mismo
+ * plato comparten una sola llamada HTTP.
+ * Los platos de un pedido se resuelven juntos: primero con el endpoint masivo del Menu si está habilitado y, si no,
+ * con consultas individuales en paralelo sobre hilos virtuales, acotadas por un plazo por pedido. Los platos que
+ * no vienen en la respuesta masiva también se consultan uno a uno, y solo un 404 propio los cachea como inexistentes.
+ * Todas las llamadas pasan por {@link MenuCallGuard} (bulkhead, circuit breaker y peticiones duplicadas);
+ * un Menu caído o rechazado por el circuit breaker se informa con {@link MenuServiceUnavailableException},
+ * nunca como un plato inexistente.
+ * La latencia de cada llamada se mide en {@code inventory.menu.requests} por operación y resultado,
+ * y la caché se publica como {@code cache.*} con el nombre {@code menu-dishes}.
  */
 @Slf4j
 @Component
@@ -16,44 +61,303 @@ public class MenuClient {
 
     private static final String MENU_SERVICE = "http://menu-service";
 
+    private static final ParameterizedTypeReference<List<DishResponse>> DISH_LIST = new ParameterizedTypeReference<>() {};
+
     private final RestClient restClient;
+    private final LoadingCache<Long, Optional<DishRecipe>> dishCache;
+    private final ExecutorService lookupExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicBoolean bulkLookupAvailable;
+    private final String bulkLookupPath;
+    private final Duration orderLookupDeadline;
+    private final MenuCallGuard callGuard;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public MenuClient(org.springframework.web.client.RestClient.Builder restClientBuilder,
+                      @Value("${menu.client.cache.maximum-size:5000}") long maximumSize,
+                      @Value("${menu.client.cache.ttl:10m}") Duration ttl,
+                      @Value("${menu.client.cache.refresh-after:5m}") Duration refreshAfter,
+                      @Value("${menu.client.cache.negative-ttl:30s}") Duration negativeTtl,
+                      @Value("${menu.client.bulk-lookup.enabled:false}") boolean bulkLookupEnabled,
+                      @Value("${menu.client.bulk-lookup.path:/api/v1/menu/batch}") String bulkLookupPath,
+                      @Value("${menu.client.order-lookup-deadline:3s}") Duration orderLookupDeadline,
+                      MenuCallGuard callGuard,
+                      MeterRegistry meterRegistry) {
+        this(restClientBuilder, maximumSize, ttl, refreshAfter, negativeTtl, bulkLookupEnabled, bulkLookupPath,
+                orderLookupDeadline, callGuard, meterRegistry, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
 
-    public MenuClient(org.springframework.web.client.RestClient.Builder restClientBuilder) {
+    /**
+     * @param ticker reloj de la caché
+     * @param refreshExecutor donde se ejecutan los refrescos en segundo plano
+     */
+    MenuClient(RestClient.Builder restClientBuilder, long maximumSize, Duration ttl, Duration refreshAfter,
+               Duration negativeTtl, boolean bulkLookupEnabled, String bulkLookupPath, Duration orderLookupDeadline,
+               MenuCallGuard callGuard, MeterRegistry meterRegistry, Ticker ticker, Executor refreshExecutor) {
         this.restClient = restClientBuilder
                 .baseUrl(MENU_SERVICE)
                 .build();
+        this.bulkLookupAvailable = new AtomicBoolean(bulkLookupEnabled);
+        this.bulkLookupPath = bulkLookupPath;
+        this.orderLookupDeadline = orderLookupDeadline;
+        this.callGuard = callGuard;
+        this.meterRegistry = meterRegistry;
+        this.dishCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new DishExpiry(ttl, negativeTtl))
+                .refreshAfterWrite(refreshAfter)
+                .ticker(ticker)
+                .executor(refreshExecutor)
+                .recordStats()
+                .build(this::fetchDish);
+        CaffeineCacheMetrics.monitor(meterRegistry, dishCache, "menu-dishes");
     }
 
     /**
-     * Obtiene un plato por ID desde el microservicio Menu
+     * Obtiene la receta de un plato por ID, desde la caché o desde el microservicio Menu
      * @param dishId ID del plato
-     * @return Optional con el plato o vacío si no existe
+     * @return Optional con la receta o vacío si no existe
+     * @throws MenuServiceUnavailableException si el Menu falla o la llamada se rechaza
      */
-    public Optional<DishResponse> getDishById(Long dishId) {
+    public Optional<DishRecipe> getRecipeById(Long dishId) {
         try {
-            log.info("Fetching dish from Menu service: {}", dishId);
+            return dishCache.get(dishId);
+        } catch (MenuServiceUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error fetching dish {} from Menu service: {}", dishId, e.getMessage());
+            throw new MenuServiceUnavailableException("Could not fetch dish " + dishId + " from Menu service", e);
+        }
+    }
+
+    /**
+     * Obtiene las recetas de varios platos a la vez. Los que ya están en caché se devuelven directamente; el resto se pide
+     * al endpoint masivo o, si no está disponible, con una consulta por plato en paralelo.
+     * Los platos que no existen (404) se omiten del resultado.
+     * @param dishIds IDs de los platos
+     * @return Mapa ID -> receta con los platos encontrados
+     * @throws MenuServiceUnavailableException si algún plato no se pudo obtener antes del plazo del pedido
+     */
+    public Map<Long, DishRecipe> getRecipesByIds(Collection<Long> dishIds) {
+        Set<Long> ids = new LinkedHashSet<>(dishIds);
+        ids.remove(null);
+
+        Map<Long, DishRecipe> dishes = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long dishId : ids) {
+            Optional<DishRecipe> cached = dishCache.getIfPresent(dishId);
+            if (cached == null) {
+                misses.add(dishId);
+            } else {
+                cached.ifPresent(dish -> dishes.put(dishId, dish));
+            }
+        }
+        if (misses.isEmpty()) {
+            return dishes;
+        }
+
+        if (misses.size() > 1 && bulkLookupAvailable.get()) {
+            Map<Long, DishResponse> fetched = fetchDishesInBulk(misses);
+            if (fetched != null) {
+                // A dish missing from the bulk reply is not cached as absent: only a 404 of its own lookup proves it
+                List<Long> absent = new ArrayList<>();
+                for (Long dishId : misses) {
+                    DishResponse found = fetched.get(dishId);
+                    if (found == null) {
+                        absent.add(dishId);
+                    } else {
+                        DishRecipe dish = DishRecipe.from(found);
+                        dishCache.put(dishId, Optional.of(dish));
+                        dishes.put(dishId, dish);
+                    }
+                }
+                if (absent.isEmpty()) {
+                    return dishes;
+                }
+                misses = absent;
+            }
+        }
+
+        long deadline = System.nanoTime() + orderLookupDeadline.toNanos();
+        Map<Long, Future<Optional<DishRecipe>>> pending = new LinkedHashMap<>();
+        for (Long dishId : misses) {
+            pending.put(dishId, lookupExecutor.submit(() -> dishCache.get(dishId)));
+        }
+        List<Long> failed = new ArrayList<>();
+        Throwable failure = null;
+        for (Map.Entry<Long, Future<Optional<DishRecipe>>> entry : pending.entrySet()) {
+            Long dishId = entry.getKey();
+            Future<Optional<DishRecipe>> future = entry.getValue();
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                future.get(remaining, TimeUnit.NANOSECONDS).ifPresent(dish -> dishes.put(dishId, dish));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                meterRegistry.counter("inventory.menu.lookup.timeouts").increment();
+                log.warn("Dish {} was not fetched from Menu service within {}", dishId, orderLookupDeadline);
+                failed.add(dishId);
+                failure = e;
+            } catch (ExecutionException e) {
+                log.error("Error fetching dish {} from Menu service: {}", dishId, e.getCause().getMessage());
+                failed.add(dishId);
+                failure = e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.values().forEach(f -> f.cancel(true));
+                throw new MenuServiceUnavailableException("Interrupted while fetching dishes from Menu service", e);
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw new MenuServiceUnavailableException("Could not fetch dishes " + failed + " from Menu service", failure);
+        }
+        return dishes;
+    }
+
+    /**
+     * Obtiene todas las recetas del Menu en una sola llamada, para inicializar la réplica local.
+     * No pasa por la caché.
+     * @param path endpoint que devuelve todos los platos
+     * @return Recetas de todos los platos
+     */
+    public List<DishRecipe> getAllRecipes(String path) {
+        log.info("Fetching every dish from Menu service");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            List<DishResponse> response = callGuard.call("all", () -> restClient.get()
+                    .uri(path)
+                    .retrieve()
+                    .body(DISH_LIST));
+
+            outcome = "success";
+            return response == null ? List.of() : response.stream()
+                    .filter(Objects::nonNull)
+                    .map(DishRecipe::from)
+                    .toList();
+        } finally {
+            sample.stop(requestTimer("all", outcome));
+        }
+    }
+
+    /**
+     * Estadísticas de la caché de platos (aciertos, fallos, expulsiones)
+     */
+    public CacheStats cacheStats() {
+        return dishCache.stats();
+    }
 
-            DishResponse dish = restClient.get()
+    /**
+     * Número aproximado de platos en caché
+     */
+    public long cacheSize() {
+        return dishCache.estimatedSize();
+    }
+
+    /**
+     * Carga un plato desde el microservicio Menu. Un 404 se devuelve como vacío para que quede en caché;
+     * cualquier otro error se propaga y no se cachea.
+     */
+    private Optional<DishRecipe> fetchDish(Long dishId) {
+        log.info("Fetching dish from Menu service: {}", dishId);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            DishResponse dish = callGuard.hedgedCall("single", () -> restClient.get()
                     .uri("/api/v1/menu/{id}", dishId)
                     .retrieve()
-                    .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(), (request, response) -> {
-                        log.warn("Error fetching dish {} from Menu service: Status {}", dishId, response.getStatusCode());
-                        throw new RuntimeException("Dish not found or error in Menu service");
-                    })
-                    .body(DishResponse.class);
+                    .body(DishResponse.class));
 
-            return Optional.ofNullable(dish);
+            outcome = dish != null ? "success" : "not_found";
+            return Optional.ofNullable(dish).map(DishRecipe::from);
 
-        } catch (org.springframework.web.client.HttpClientErrorException.NotFound e) {
+        } catch (HttpClientErrorException.NotFound e) {
+            outcome = "not_found";
             log.warn("Dish {} not found in Menu service", dishId);
             return Optional.empty();
-        } catch (org.springframework.web.client.HttpClientErrorException e) {
-            log.warn("HTTP error fetching dish {} from Menu service: {}", dishId, e.getStatusCode());
-            return Optional.empty();
+        } catch (MenuCallRejectedException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(requestTimer("single", outcome));
+        }
+    }
+
+    /**
+     * Consulta el endpoint masivo del Menu. Devuelve null si falla; si el endpoint no existe o no acepta la
+     * petición (404, 405 o 400, como cuando la ruta cae en la consulta por ID) se deja de usar.
+     */
+    private Map<Long, DishResponse> fetchDishesInBulk(List<Long> dishIds) {
+        log.info("Fetching {} dishes from Menu service in bulk", dishIds.size());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            List<DishResponse> response = callGuard.call("bulk", () -> restClient.get()
+                    .uri(uriBuilder -> uriBuilder.path(bulkLookupPath).queryParam("ids", dishIds).build())
+                    .retrieve()
+                    .body(DISH_LIST));
+
+            Map<Long, DishResponse> dishes = new HashMap<>();
+            if (response != null) {
+                response.stream()
+                        .filter(Objects::nonNull)
+                        .forEach(dish -> dishes.put(dish.id(), dish));
+            }
+            outcome = "success";
+            return dishes;
+
+        } catch (HttpClientErrorException e) {
+            outcome = "client_error";
+            if (e.getStatusCode() == HttpStatus.NOT_FOUND || e.getStatusCode() == HttpStatus.METHOD_NOT_ALLOWED
+                    || e.getStatusCode() == HttpStatus.BAD_REQUEST) {
+                log.warn("Menu service has no bulk dish endpoint ({}), falling back to single lookups", e.getStatusCode());
+                bulkLookupAvailable.set(false);
+            } else {
+                log.warn("HTTP error fetching dishes in bulk from Menu service: {}", e.getStatusCode());
+            }
+            return null;
+        } catch (MenuCallRejectedException e) {
+            outcome = "rejected";
+            log.warn("Bulk dish lookup not sent to Menu service: {}", e.getMessage());
+            return null;
         } catch (Exception e) {
-            log.error("Error fetching dish {} from Menu service: {}", dishId, e.getMessage(), e);
-            return Optional.empty();
+            log.warn("Error fetching dishes in bulk from Menu service: {}", e.getMessage());
+            return null;
+        } finally {
+            sample.stop(requestTimer("bulk", outcome));
         }
     }
-}
 
+    private Timer requestTimer(String operation, String outcome) {
+        return Timer.builder("inventory.menu.requests")
+                .description("Latency of Menu service calls")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lookupExecutor.shutdownNow();
+    }
+
+    /**
+     * Los platos encontrados viven el TTL completo; los no encontrados solo el TTL negativo
+     */
+    private record DishExpiry(Duration ttl, Duration negativeTtl) implements Expiry<Long, Optional<DishRecipe>> {
+
+        @Override
+        public long expireAfterCreate(Long dishId, Optional<DishRecipe> dish, long currentTime) {
+            return dish.isPresent() ? ttl.toNanos() : negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long dishId, Optional<DishRecipe> dish, long currentTime, long currentDuration) {
+            return expireAfterCreate(dishId, dish, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long dishId, Optional<DishRecipe> dish, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.client;
+
+/**
+ * El microservicio Menu no pudo devolver las recetas pedidas (error de red, 5xx o plazo agotado).
+ * A diferencia de un 404, el pedido no se puede calcular y se debe reintentar más tarde.
+ */
+public class MenuServiceUnavailableException extends RuntimeException {
+
+    public MenuServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,327 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.client;
+
+import com.go5u.foodflowplatform.inventory.domain.model.entities.ReplicatedDish;
+import com.go5u.foodflowplatform.inventory.domain.model.events.MenuDishEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ProductSummary;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.QuantityUnit;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ReplicatedIngredient;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductRepository;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ReplicatedDishRepository;
+import com.go5u.foodflowplatform.inventory.interfaces.dto.DishResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Réplica local de las recetas del Menu. Se guarda en la tabla replicated_dish y en memoria, se inicializa una vez
+ * con todos los platos del Menu si la tabla está vacía y se mantiene al día con el topic de cambios del Menu,
+ * de modo que expandir un pedido es una búsqueda en un mapa local.
+ * Cada ingrediente se resuelve de antemano al producto del inventario del dueño del plato; los que aún no tienen
+ * producto se vuelven a resolver periódicamente.
+ */
+@Slf4j
+@Component
+public class RecipeReplica {
+
+    private final ReplicatedDishRepository replicatedDishRepository;
+    private final ProductRepository productRepository;
+    private final MenuClient menuClient;
+    private final boolean enabled;
+    private final boolean bootstrapIfEmpty;
+    private final String bootstrapPath;
+    private final Map<Long, DishRecipe> recipes = new ConcurrentHashMap<>();
+    private final Set<Long> legacyDishIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+
+    public RecipeReplica(ReplicatedDishRepository replicatedDishRepository,
+                         ProductRepository productRepository,
+                         MenuClient menuClient,
+                         MeterRegistry meterRegistry,
+                         @Value("${inventory.recipes.replica.enabled:false}") boolean enabled,
+                         @Value("${inventory.recipes.replica.bootstrap-if-empty:true}") boolean bootstrapIfEmpty,
+                         @Value("${inventory.recipes.replica.bootstrap-path:/api/v1/menu}") String bootstrapPath) {
+        this.replicatedDishRepository = replicatedDishRepository;
+        this.productRepository = productRepository;
+        this.menuClient = menuClient;
+        this.enabled = enabled;
+        this.bootstrapIfEmpty = bootstrapIfEmpty;
+        this.bootstrapPath = bootstrapPath;
+        meterRegistry.gaugeMapSize("inventory.recipes.replica.size", List.of(), recipes);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Obtiene las recetas de la réplica. Los platos que no están en ella se omiten del resultado.
+     * @param dishIds IDs de los platos
+     * @return Mapa ID -> receta con los platos replicados
+     */
+    public Map<Long, DishRecipe> getRecipes(Collection<Long> dishIds) {
+        ensureLoaded();
+        Map<Long, DishRecipe> found = new HashMap<>();
+        for (Long dishId : dishIds) {
+            DishRecipe recipe = dishId == null ? null : recipes.get(dishId);
+            if (recipe != null) {
+                found.put(dishId, recipe);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Aplica un cambio de plato del Menu. Los cambios con una versión anterior a la guardada se ignoran.
+     * La fila del plato se bloquea hasta el commit, de modo que los cambios de un mismo plato se aplican de uno
+     * en uno, también entre instancias, y la copia en memoria se actualiza en ese mismo orden.
+     * @param event cambio recibido del topic del Menu
+     * @return true si el cambio se aplicó
+     */
+    @Transactional
+    public boolean apply(MenuDishEvent event) {
+        ensureLoaded();
+        if (event.getDishId() == null) {
+            return false;
+        }
+        boolean deleted = "DELETED".equals(event.getEventType());
+        ReplicatedDish dish = replicatedDishRepository.findWithLockByDishId(event.getDishId())
+                .orElseGet(() -> new ReplicatedDish(event.getDishId()));
+        if (!dish.acceptsVersion(event.getVersion())) {
+            log.debug("Ignoring change {} of dish {} older than replicated version {}",
+                    event.getVersion(), event.getDishId(), dish.getVersion());
+            return false;
+        }
+
+        if (deleted) {
+            dish.markDeleted(event.getVersion());
+            save(dish);
+            recipes.remove(event.getDishId());
+            legacyDishIds.remove(event.getDishId());
+            log.info("Removed dish {} from the recipe replica", event.getDishId());
+            return true;
+        }
+
+        List<DishResponse.IngredientResponse> ingredients = event.getIngredients() == null ? List.of() : event.getIngredients().stream()
+                .map(ingredient -> new DishResponse.IngredientResponse(ingredient.getName(), ingredient.getQuantity(), ingredient.getUnit()))
+                .toList();
+        DishRecipe recipe = resolve(DishRecipe.from(new DishResponse(event.getDishId(), event.getName(), ingredients, null, null, event.getUserId())));
+        dish.update(recipe.userId(), recipe.name(), toIngredients(recipe), event.getVersion());
+        save(dish);
+        recipes.put(recipe.dishId(), recipe);
+        legacyDishIds.remove(recipe.dishId());
+        log.info("Replicated dish {} with {} ingredients (version {})", recipe.dishId(), recipe.size(), event.getVersion());
+        return true;
+    }
+
+    /**
+     * Guarda recetas obtenidas directamente del Menu para platos que la réplica aún no conoce.
+     * No sobrescribe platos ya replicados ni eliminados, salvo los guardados sin unidades.
+     * @param fetched recetas obtenidas del Menu
+     * @return las mismas recetas con los productos resueltos
+     */
+    public synchronized Map<Long, DishRecipe> storeFetched(Map<Long, DishRecipe> fetched) {
+        Map<Long, DishRecipe> stored = new HashMap<>();
+        fetched.forEach((dishId, fetchedRecipe) -> {
+            DishRecipe recipe = resolve(fetchedRecipe);
+            if (legacyDishIds.remove(dishId)) {
+                replicatedDishRepository.findById(dishId).ifPresent(dish -> {
+                    dish.update(recipe.userId(), recipe.name(), toIngredients(recipe), dish.getVersion());
+                    save(dish);
+                    recipes.put(dishId, recipe);
+                });
+            } else if (!replicatedDishRepository.existsById(dishId)) {
+                ReplicatedDish dish = new ReplicatedDish(dishId);
+                dish.update(recipe.userId(), recipe.name(), toIngredients(recipe), null);
+                save(dish);
+                recipes.put(dishId, recipe);
+            }
+            stored.put(dishId, recipe);
+        });
+        return stored;
+    }
+
+    public int size() {
+        return recipes.size();
+    }
+
+    /**
+     * Número de recetas con algún ingrediente sin producto resuelto
+     */
+    public long unresolvedCount() {
+        return recipes.values().stream().filter(recipe -> !recipe.isResolved()).count();
+    }
+
+    /**
+     * Inicializa la réplica con todos los platos del Menu si la tabla está vacía. Si el Menu no responde se sigue
+     * sin ella: los platos que falten se piden al Menu al procesar los pedidos y se guardan en la réplica.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (!enabled) {
+            return;
+        }
+        ensureLoaded();
+        if (!bootstrapIfEmpty || replicatedDishRepository.count() > 0) {
+            return;
+        }
+        try {
+            List<DishRecipe> all = menuClient.getAllRecipes(bootstrapPath);
+            Map<Long, DishRecipe> byId = new HashMap<>();
+            all.forEach(recipe -> byId.put(recipe.dishId(), recipe));
+            storeFetched(byId);
+            log.info("Bootstrapped the recipe replica with {} dishes from Menu service", byId.size());
+        } catch (Exception e) {
+            log.warn("Could not bootstrap the recipe replica from Menu service: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Vuelve a resolver los productos de todas las recetas, para recoger productos creados, eliminados
+     * o recreados desde que se replicó cada plato. Solo se guardan las recetas que cambian.
+     */
+    @Scheduled(fixedDelayString = "${inventory.recipes.replica.resolve-interval-ms:60000}")
+    public void refreshProductIds() {
+        if (!enabled || !loaded) {
+            return;
+        }
+        Map<Long, List<DishRecipe>> byUser = recipes.values().stream()
+                .filter(recipe -> recipe.userId() != null)
+                .collect(Collectors.groupingBy(DishRecipe::userId));
+        int changed = 0;
+        for (var entry : byUser.entrySet()) {
+            Set<String> names = new HashSet<>();
+            entry.getValue().forEach(recipe -> names.addAll(Arrays.asList(recipe.ingredientNames())));
+            Map<String, Long> productIds = productIdsByName(entry.getKey(), names);
+            for (DishRecipe recipe : entry.getValue()) {
+                DishRecipe resolved = recipe.withProductIds(lookup(recipe, productIds));
+                if (!Arrays.equals(recipe.productIds(), resolved.productIds()) && updateProductIds(resolved)) {
+                    changed++;
+                }
+            }
+        }
+        if (changed > 0) {
+            log.info("Updated resolved products of {} replicated dishes", changed);
+        }
+    }
+
+    private synchronized boolean updateProductIds(DishRecipe resolved) {
+        // The dish may have changed or been deleted since the snapshot was taken
+        DishRecipe current = recipes.get(resolved.dishId());
+        if (current == null || !Arrays.equals(current.ingredientNames(), resolved.ingredientNames())
+                || !Arrays.equals(current.milliQuantities(), resolved.milliQuantities())
+                || !Arrays.equals(current.units(), resolved.units())) {
+            return false;
+        }
+        replicatedDishRepository.findById(resolved.dishId()).ifPresent(dish -> {
+            dish.updateProductIds(toIngredients(resolved));
+            save(dish);
+        });
+        recipes.put(resolved.dishId(), resolved);
+        return true;
+    }
+
+    private void ensureLoaded() {
+        if (loaded || !enabled) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                for (ReplicatedDish dish : replicatedDishRepository.findByDeletedFalse()) {
+                    DishRecipe recipe = toRecipe(dish);
+                    if (recipe != null) {
+                        recipes.put(dish.getDishId(), recipe);
+                    } else {
+                        legacyDishIds.add(dish.getDishId());
+                    }
+                }
+                loaded = true;
+                log.info("Loaded {} dishes into the recipe replica", recipes.size());
+                if (!legacyDishIds.isEmpty()) {
+                    log.info("{} replicated dishes have no recipe units and will be fetched again from Menu service",
+                            legacyDishIds.size());
+                }
+            }
+        }
+    }
+
+    private DishRecipe resolve(DishRecipe recipe) {
+        if (recipe.userId() == null || recipe.size() == 0) {
+            return recipe;
+        }
+        return recipe.withProductIds(lookup(recipe, productIdsByName(recipe.userId(), Arrays.asList(recipe.ingredientNames()))));
+    }
+
+    private Map<String, Long> productIdsByName(Long userId, Collection<String> names) {
+        Map<String, Long> productIds = new HashMap<>();
+        for (ProductSummary product : productRepository.findSummariesByUserIdAndNameIn(userId, names)) {
+            productIds.putIfAbsent(product.name(), product.productId());
+        }
+        return productIds;
+    }
+
+    private static long[] lookup(DishRecipe recipe, Map<String, Long> productIds) {
+        long[] ids = new long[recipe.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = productIds.getOrDefault(recipe.ingredientNames()[i], DishRecipe.UNRESOLVED);
+        }
+        return ids;
+    }
+
+    private void save(ReplicatedDish dish) {
+        try {
+            replicatedDishRepository.save(dish);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance inserted the same dish first; it applied the same change
+            log.debug("Dish {} was replicated concurrently: {}", dish.getDishId(), e.getMessage());
+        }
+    }
+
+    private static List<ReplicatedIngredient> toIngredients(DishRecipe recipe) {
+        List<ReplicatedIngredient> ingredients = new ArrayList<>(recipe.size());
+        for (int i = 0; i < recipe.size(); i++) {
+            long productId = recipe.productIds()[i];
+            ingredients.add(new ReplicatedIngredient(recipe.ingredientNames()[i], recipe.milliQuantities()[i],
+                    recipe.units()[i], productId == DishRecipe.UNRESOLVED ? null : productId));
+        }
+        return ingredients;
+    }
+
+    /**
+     * @return null si algún ingrediente se guardó sin unidad
+     */
+    private static DishRecipe toRecipe(ReplicatedDish dish) {
+        List<ReplicatedIngredient> ingredients = dish.getIngredients();
+        String[] names = new String[ingredients.size()];
+        long[] quantities = new long[ingredients.size()];
+        QuantityUnit[] units = new QuantityUnit[ingredients.size()];
+        long[] productIds = new long[ingredients.size()];
+        for (int i = 0; i < ingredients.size(); i++) {
+            ReplicatedIngredient ingredient = ingredients.get(i);
+            if (ingredient.unit() == null) {
+                return null;
+            }
+            names[i] = ingredient.ingredientName();
+            quantities[i] = ingredient.milliQuantity();
+            units[i] = ingredient.unit();
+            productIds[i] = ingredient.productId() == null ? DishRecipe.UNRESOLVED : ingredient.productId();
+        }
+        return new DishRecipe(dish.getDishId(), dish.getUserId(), dish.getName(), names, quantities, units, productIds);
+    }
+}
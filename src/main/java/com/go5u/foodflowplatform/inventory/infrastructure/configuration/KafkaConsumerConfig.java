@@ -0,0 +1,136 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.configuration;
+
+import com.go5u.foodflowplatform.inventory.infrastructure.messaging.OrderEventParallelConsumer;
+import com.go5u.foodflowplatform.inventory.infrastructure.messaging.serialization.EventSerializer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.retrytopic.RetryTopicBeanNames;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.util.backoff.BackOff;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    /**
+     * Listener container factory that hands a whole poll to the listener and commits
+     * the offsets of the poll only after the listener returns.
+     * <p>
+     * When the listener reports a failed record by position, the offsets before it are committed and the
+     * rest of the poll is redelivered; the record is retried in place with the order retry backoff and then
+     * published to the order dead-letter topic. Records that could not be deserialized are not retried.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            ConsumerRecordRecoverer orderDeadLetterRecoverer,
+            BackOff orderRetryBackOff) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(orderDeadLetterRecoverer, orderRetryBackOff));
+        return factory;
+    }
+
+    /**
+     * Listener container factory for {@link OrderEventParallelConsumer}: one record per call, offsets committed
+     * only when the consumer acknowledges them. Records the container cannot hand to the listener (undeserializable
+     * values) are given back to the consumer, so their offsets are committed in order with the others.
+     * The consumer is injected lazily: the factory is looked up while the consumer bean is still being created.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "inventory.orders.consumer.mode", havingValue = "parallel")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> parallelKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Lazy OrderEventParallelConsumer orderEventParallelConsumer) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(new CommonErrorHandler() {
+            @Override
+            public boolean handleOne(Exception thrownException, ConsumerRecord<?, ?> record, Consumer<?, ?> consumer,
+                                     MessageListenerContainer container) {
+                orderEventParallelConsumer.recover(record, thrownException);
+                return true;
+            }
+
+            @Override
+            public boolean isAckAfterHandle() {
+                return false;
+            }
+        });
+        return factory;
+    }
+
+    /**
+     * Backoff between in-place retries of a failed order event (batch and parallel modes)
+     */
+    @Bean
+    public BackOff orderRetryBackOff(@Value("${inventory.orders.retry.attempts:4}") int attempts,
+                                     @Value("${inventory.orders.retry.initial-delay-ms:1000}") long initialDelayMs,
+                                     @Value("${inventory.orders.retry.multiplier:2.0}") double multiplier,
+                                     @Value("${inventory.orders.retry.max-delay-ms:30000}") long maxDelayMs) {
+        var backOff = new ExponentialBackOffWithMaxRetries(Math.max(attempts - 1, 0));
+        backOff.setInitialInterval(initialDelayMs);
+        backOff.setMultiplier(multiplier);
+        backOff.setMaxInterval(maxDelayMs);
+        return backOff;
+    }
+
+    /**
+     * Publishes order events that failed every attempt to orders-events-dlt, the topic the single-record retry
+     * chain ends in, so the dead-letter replay endpoint covers every consumer mode
+     */
+    @Bean
+    public ConsumerRecordRecoverer orderDeadLetterRecoverer(
+            @Qualifier(RetryTopicBeanNames.DEFAULT_KAFKA_TEMPLATE_BEAN_NAME) KafkaOperations<String, Object> deadLetterTemplate) {
+        return new DeadLetterPublishingRecoverer(deadLetterTemplate,
+                (record, exception) -> new TopicPartition(record.topic() + "-dlt", -1));
+    }
+
+    /**
+     * Template used to move failed order events to the retry and dead-letter topics. Events that could not
+     * be deserialized arrive as their original bytes and are forwarded unchanged; everything else is written
+     * in the configured event encoding.
+     * Declared as KafkaOperations so the auto-configured KafkaTemplate is still created.
+     */
+    @Bean(name = RetryTopicBeanNames.DEFAULT_KAFKA_TEMPLATE_BEAN_NAME)
+    public KafkaOperations<String, Object> retryTopicKafkaTemplate(KafkaProperties kafkaProperties) {
+        Map<Class<?>, Serializer<?>> valueSerializers = new LinkedHashMap<>();
+        valueSerializers.put(byte[].class, new ByteArraySerializer());
+        valueSerializers.put(Object.class, new EventSerializer());
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                kafkaProperties.buildProducerProperties(null),
+                new StringSerializer(),
+                new DelegatingByTypeSerializer(valueSerializers, true)));
+    }
+}
@@ -5,6 +5,7 @@ import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.KafkaAdmin;
 
 import java.util.HashMap;
@@ -32,4 +33,17 @@ public class KafkaTopicConfig {
     public NewTopic inventoryEventsTopic() {
         return new NewTopic("inventory-events", 3, (short) 1);
     }
+
+    /**
+     * Dish changes published by the menu service, keyed by dish id. Declared here so that the recipe replica
+     * also works against a local broker without the menu service; an existing topic is left as it is.
+     */
+    @Bean
+    public NewTopic menuDishEventsTopic(@Value("${kafka.topic.menu-dish-events:menu-dish-events}") String topic) {
+        return TopicBuilder.name(topic)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
 }
\ No newline at end of file
@@ -1,17 +1,37 @@
 package com.go5u.foodflowplatform.inventory.infrastructure.configuration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class RestClientConfig {
 
+    /**
+     * Calls to other services are bounded by a connect timeout and a read timeout, so a slow instance
+     * cannot hold the calling thread indefinitely.
+     * With virtual threads enabled the JDK HTTP client also runs its response handling on virtual threads
+     * instead of its default cached platform-thread pool
+     */
     @Bean
     @LoadBalanced
-    public RestClient.Builder restClientBuilder() {
-        return RestClient.builder();
+    public RestClient.Builder restClientBuilder(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled,
+                                                @Value("${menu.client.connect-timeout:1s}") Duration connectTimeout,
+                                                @Value("${menu.client.read-timeout:2s}") Duration readTimeout) {
+        HttpClient.Builder httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout);
+        if (virtualThreadsEnabled) {
+            httpClient.executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient.build());
+        requestFactory.setReadTimeout(readTimeout);
+        return RestClient.builder().requestFactory(requestFactory);
     }
 }
-
@@ -0,0 +1,95 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
+
+import java.util.Arrays;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Running totals of milli-unit quantities per ingredient name, kept in primitive arrays (open addressing)
+ * so that adding to an existing ingredient neither boxes nor allocates.
+ * Iteration follows the order in which ingredients were first added.
+ */
+public class IngredientTotals {
+
+    private String[] keys;
+    private long[] values;
+    private int[] slots;
+    private int size;
+
+    public IngredientTotals() {
+        this(16);
+    }
+
+    public IngredientTotals(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        this.keys = new String[capacity / 2];
+        this.values = new long[capacity / 2];
+        this.slots = new int[capacity];
+        Arrays.fill(slots, -1);
+    }
+
+    public void add(String ingredientName, long milliQuantity) {
+        int slot = findSlot(ingredientName);
+        int index = slots[slot];
+        if (index >= 0) {
+            values[index] += milliQuantity;
+            return;
+        }
+        if (size == keys.length) {
+            grow();
+            slot = findSlot(ingredientName);
+        }
+        keys[size] = ingredientName;
+        values[size] = milliQuantity;
+        slots[slot] = size++;
+    }
+
+    /**
+     * @return total of the ingredient, 0 if it was never added
+     */
+    public long get(String ingredientName) {
+        int index = slots[findSlot(ingredientName)];
+        return index >= 0 ? values[index] : 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(ObjLongConsumer<String> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(keys[i], values[i]);
+        }
+    }
+
+    private int findSlot(String key) {
+        int mask = slots.length - 1;
+        int slot = spread(key.hashCode()) & mask;
+        while (slots[slot] >= 0 && !keys[slots[slot]].equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        keys = Arrays.copyOf(keys, keys.length * 2);
+        values = Arrays.copyOf(values, values.length * 2);
+        slots = new int[slots.length * 2];
+        Arrays.fill(slots, -1);
+        int mask = slots.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = spread(keys[i].hashCode()) & mask;
+            while (slots[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i;
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -1,6 +1,12 @@
 package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.go5u.foodflowplatform.inventory.domain.model.events.InventoryEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,9 +17,20 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Publishes inventory events to Kafka in batches. Only {@link InventoryOutboxRelay} calls it: stock changes queue
+ * their events in the outbox inside their own transaction, so an event is never sent for a change that rolls back.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -22,51 +39,184 @@ public class InventoryEventProducer {
     @Value("${kafka.topic.inventory-events:inventory-events}")
     private String inventoryTopicName;
 
+    /**
+     * When enabled, a batch keeps only the latest event of each product
+     */
+    @Value("${inventory.events.coalesce.enabled:false}")
+    private boolean coalesceEnabled;
+
+    /**
+     * How long outbox events are held back so that updates of the same product can be coalesced
+     */
+    @Value("${inventory.events.coalesce.window:2s}")
+    private Duration coalesceWindow;
+
+    /**
+     * When enabled, an event is only published if its status differs from the last one published for the product
+     */
+    @Value("${inventory.events.transitions-only:false}")
+    private boolean transitionsOnly;
+
     private final KafkaTemplate<String, InventoryEvent> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
 
-    public void publishInventoryEvent(InventoryEvent event) {
-        event.setTimestamp(LocalDateTime.now());
+    private final Cache<Long, String> lastPublishedStatus = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .build();
 
-        Message<InventoryEvent> message = MessageBuilder
-                .withPayload(event)
-                .setHeader(KafkaHeaders.TOPIC, inventoryTopicName)
-                .setHeader("kafka_messageKey", event.getProductId().toString())
-                .setHeader("event-type", event.getStatus())
-                .build();
+    private final LongAdder receivedEvents = new LongAdder();
+    private final LongAdder coalescedEvents = new LongAdder();
+    private final LongAdder suppressedEvents = new LongAdder();
+    private final LongAdder emittedEvents = new LongAdder();
+    private final LongAdder failedEvents = new LongAdder();
+
+    /**
+     * Exposes the batch publishing counters as {@code inventory.events.batch} by stage
+     */
+    @PostConstruct
+    void registerMetrics() {
+        registerStageCounter("received", receivedEvents);
+        registerStageCounter("coalesced", coalescedEvents);
+        registerStageCounter("suppressed", suppressedEvents);
+        registerStageCounter("emitted", emittedEvents);
+        registerStageCounter("failed", failedEvents);
+    }
 
-        Object sendResult = kafkaTemplate.send(message);
-
-        if (sendResult instanceof CompletableFuture<?> jf) {
-            @SuppressWarnings("unchecked")
-            CompletableFuture<SendResult<String, InventoryEvent>> cf =
-                    (CompletableFuture<SendResult<String, InventoryEvent>>) jf;
-            cf.whenComplete((result, ex) -> {
-                if (ex != null) {
-                    log.error("Failed to publish inventory event for product: {}", event.getProductId(), ex);
-                } else {
-                    log.info("Successfully published inventory event for product: {} with status: {}",
-                            event.getProductId(), event.getStatus());
-                }
-            });
-            return;
+    /**
+     * Sends a batch of events keeping their timestamps. Events are handed to the producer in list order,
+     * so events of the same product keep their order on the partition. Depending on the publishing mode,
+     * the batch is first reduced to the latest event per product and/or to status transitions only.
+     * @return future completed once every event has been acknowledged, or failed if any send failed
+     */
+    public CompletableFuture<Void> publishInventoryEvents(List<InventoryEvent> events) {
+        receivedEvents.add(events.size());
+
+        List<InventoryEvent> toSend = events;
+        if (coalesceEnabled) {
+            toSend = latestPerProduct(toSend);
+            coalescedEvents.add(events.size() - toSend.size());
+        }
+        if (transitionsOnly) {
+            int beforeFilter = toSend.size();
+            toSend = statusTransitions(toSend);
+            suppressedEvents.add(beforeFilter - toSend.size());
         }
 
-        if (sendResult instanceof java.util.concurrent.Future<?> fut) {
-            CompletableFuture.runAsync(() -> {
-                try {
-                    @SuppressWarnings("unchecked")
-                    java.util.concurrent.Future<SendResult<String, InventoryEvent>> f =
-                            (java.util.concurrent.Future<SendResult<String, InventoryEvent>>) fut;
-                    f.get();
-                    log.info("Successfully published inventory event for product: {} with status: {}",
-                            event.getProductId(), event.getStatus());
-                } catch (Exception ex) {
-                    log.error("Failed to publish inventory event for product: {}", event.getProductId(), ex);
-                }
-            });
-            return;
+        List<InventoryEvent> sentEvents = toSend;
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[sentEvents.size()];
+        for (int i = 0; i < sentEvents.size(); i++) {
+            sends[i] = send(sentEvents.get(i));
         }
 
-        log.warn("Unexpected send() return type: {}", sendResult == null ? "null" : sendResult.getClass().getName());
+        return CompletableFuture.allOf(sends).whenComplete((result, ex) -> {
+            if (ex != null) {
+                failedEvents.add(sentEvents.size());
+                log.error("Failed to publish batch of {} inventory events", sentEvents.size(), ex);
+            } else {
+                emittedEvents.add(sentEvents.size());
+                sentEvents.forEach(event -> lastPublishedStatus.put(event.getProductId(), event.getStatus()));
+                log.debug("Published {} of {} inventory events", sentEvents.size(), events.size());
+            }
+        });
+    }
+
+    /**
+     * Time outbox events should wait before being published; zero when coalescing is disabled
+     */
+    public Duration getCoalesceWindow() {
+        return coalesceEnabled ? coalesceWindow : Duration.ZERO;
+    }
+
+    public PublishStats getPublishStats() {
+        return new PublishStats(
+                receivedEvents.sum(),
+                coalescedEvents.sum(),
+                suppressedEvents.sum(),
+                emittedEvents.sum(),
+                failedEvents.sum()
+        );
+    }
+
+    /**
+     * Keeps the last event of each product, ordered by the position of that last event
+     */
+    private List<InventoryEvent> latestPerProduct(List<InventoryEvent> events) {
+        Map<Long, InventoryEvent> latest = new LinkedHashMap<>();
+        for (InventoryEvent event : events) {
+            latest.remove(event.getProductId());
+            latest.put(event.getProductId(), event);
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    /**
+     * Drops events whose status equals the previous status of the same product, either earlier in the
+     * batch or, for its first event in the batch, the last status successfully published
+     */
+    private List<InventoryEvent> statusTransitions(List<InventoryEvent> events) {
+        Map<Long, String> currentStatus = new HashMap<>();
+        List<InventoryEvent> transitions = new ArrayList<>(events.size());
+        for (InventoryEvent event : events) {
+            String previous = currentStatus.containsKey(event.getProductId())
+                    ? currentStatus.get(event.getProductId())
+                    : lastPublishedStatus.getIfPresent(event.getProductId());
+            if (!Objects.equals(previous, event.getStatus())) {
+                transitions.add(event);
+            }
+            currentStatus.put(event.getProductId(), event.getStatus());
+        }
+        return transitions;
+    }
+
+    /**
+     * Counters of the batch publishing path
+     * @param received events handed to the producer
+     * @param coalesced events replaced by a later event of the same product
+     * @param suppressed events dropped because the product status did not change
+     * @param emitted events acknowledged by Kafka
+     * @param failed events whose send failed
+     */
+    public record PublishStats(long received, long coalesced, long suppressed, long emitted, long failed) {}
+
+    /**
+     * Sends one event, timing it until the broker acknowledges it in {@code inventory.events.send}
+     * (by outcome) and counting it in {@code inventory.events.published} (by status and outcome)
+     */
+    private CompletableFuture<SendResult<String, InventoryEvent>> send(InventoryEvent event) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<SendResult<String, InventoryEvent>> result;
+        try {
+            result = kafkaTemplate.send(toMessage(event));
+        } catch (RuntimeException e) {
+            recordSend(sample, event, e);
+            throw e;
+        }
+        return result.whenComplete((sendResult, ex) -> recordSend(sample, event, ex));
+    }
+
+    private void recordSend(Timer.Sample sample, InventoryEvent event, Throwable failure) {
+        String outcome = failure == null ? "success" : "failure";
+        sample.stop(Timer.builder("inventory.events.send")
+                .description("Time until Kafka acknowledges an inventory event")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        meterRegistry.counter("inventory.events.published",
+                "status", String.valueOf(event.getStatus()), "outcome", outcome).increment();
+    }
+
+    private void registerStageCounter(String stage, LongAdder counter) {
+        FunctionCounter.builder("inventory.events.batch", counter, LongAdder::sum)
+                .description("Inventory events through each stage of the batch publishing path")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private Message<InventoryEvent> toMessage(InventoryEvent event) {
+        return MessageBuilder
+                .withPayload(event)
+                .setHeader(KafkaHeaders.TOPIC, inventoryTopicName)
+                .setHeader("kafka_messageKey", event.getProductId().toString())
+                .setHeader("event-type", event.getStatus())
+                .build();
     }
 }
\ No newline at end of file
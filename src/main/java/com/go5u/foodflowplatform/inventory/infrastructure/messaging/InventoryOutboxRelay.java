@@ -0,0 +1,153 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
+
+import com.go5u.foodflowplatform.inventory.domain.model.entities.InventoryOutboxMessage;
+import com.go5u.foodflowplatform.inventory.domain.model.events.InventoryEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.projections.PendingOutboxHead;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.InventoryOutboxMessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the inventory outbox to Kafka in three steps, none of which holds database locks while waiting
+ * for the broker:
+ * <ol>
+ *     <li>a short transaction claims the oldest pending messages, skipping rows another relay is claiming;</li>
+ *     <li>the messages are sent in id order (so per-product order is kept on the partition) and the relay waits
+ *     for the acknowledgements outside any transaction;</li>
+ *     <li>a second short transaction deletes the acknowledged messages, or releases the claim if the send failed.</li>
+ * </ol>
+ * A message is only claimed when no earlier message of the same product is left outside the claim, so two relays
+ * never send events of one product out of order. Claims of a relay that dies expire after the claim TTL.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class InventoryOutboxRelay {
+
+    private final InventoryOutboxMessageRepository outboxRepository;
+    private final InventoryEventProducer inventoryEventProducer;
+    private final TransactionTemplate claimTransaction;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration claimTtl;
+    private final String relayId = UUID.randomUUID().toString();
+
+    public InventoryOutboxRelay(InventoryOutboxMessageRepository outboxRepository,
+                                InventoryEventProducer inventoryEventProducer,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${inventory.outbox.relay.batch-size:500}") int batchSize,
+                                @Value("${inventory.outbox.relay.send-timeout:10s}") Duration sendTimeout,
+                                @Value("${inventory.outbox.relay.claim-ttl:30s}") Duration claimTtl) {
+        if (claimTtl.compareTo(sendTimeout) <= 0) {
+            throw new IllegalArgumentException("Outbox claim TTL must be longer than the send timeout");
+        }
+        this.outboxRepository = outboxRepository;
+        this.inventoryEventProducer = inventoryEventProducer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Read committed: the claiming read takes no gap locks, so it never holds up stock writes inserting messages
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.claimTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.claimTtl = claimTtl;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.outbox.relay.interval-ms:500}")
+    public void relay() {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+    }
+
+    /**
+     * @return number of messages claimed in this round
+     */
+    private int relayBatch() {
+        List<InventoryOutboxMessage> messages;
+        try {
+            messages = claimTransaction.execute(status -> claimBatch());
+        } catch (Exception e) {
+            log.error("Error claiming inventory outbox messages: {}", e.getMessage());
+            return 0;
+        }
+        if (messages == null || messages.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = messages.stream().map(InventoryOutboxMessage::getId).toList();
+        List<InventoryEvent> events = messages.stream().map(InventoryOutboxMessage::toEvent).toList();
+        try {
+            inventoryEventProducer.publishInventoryEvents(events).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Failed to publish {} inventory events: {}", events.size(), e.getMessage());
+            releaseClaims(ids);
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteClaimed(ids, relayId));
+            log.info("Relayed {} inventory events from the outbox", ids.size());
+        } catch (Exception e) {
+            // The events went out; the claim expires and they are sent again, which consumers already tolerate
+            log.error("Error removing {} relayed inventory events from the outbox: {}", ids.size(), e.getMessage());
+        }
+        return messages.size();
+    }
+
+    /**
+     * Claims the oldest pending messages whose product has no earlier message outside the batch
+     */
+    private List<InventoryOutboxMessage> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        // Messages younger than the coalescing window stay in the outbox so later updates can replace them
+        LocalDateTime cutoff = now.minus(inventoryEventProducer.getCoalesceWindow());
+        List<InventoryOutboxMessage> candidates = outboxRepository.findClaimable(cutoff, now, PageRequest.of(0, batchSize));
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        // Earlier messages of the product may be claimed by another relay or still locked by its claim
+        Map<Long, Long> firstOtherIds = outboxRepository.findFirstOtherMessages(
+                        candidates.stream().map(InventoryOutboxMessage::getProductId).collect(Collectors.toSet()),
+                        candidates.stream().map(InventoryOutboxMessage::getId).toList()).stream()
+                .collect(Collectors.toMap(PendingOutboxHead::productId, PendingOutboxHead::firstId));
+        List<InventoryOutboxMessage> claimable = candidates.stream()
+                .filter(message -> {
+                    Long firstOther = firstOtherIds.get(message.getProductId());
+                    return firstOther == null || message.getId() < firstOther;
+                })
+                .toList();
+        if (!claimable.isEmpty()) {
+            outboxRepository.claim(claimable.stream().map(InventoryOutboxMessage::getId).toList(), relayId, now.plus(claimTtl));
+        }
+        return claimable;
+    }
+
+    private void releaseClaims(List<Long> ids) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.releaseClaims(ids, relayId));
+        } catch (Exception e) {
+            log.warn("Could not release outbox claims, they expire after {}: {}", claimTtl, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
+
+import com.go5u.foodflowplatform.inventory.domain.model.events.MenuDishEvent;
+import com.go5u.foodflowplatform.inventory.infrastructure.client.RecipeReplica;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.recipes.replica.enabled", havingValue = "true")
+public class MenuDishEventConsumer {
+
+    private final RecipeReplica recipeReplica;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Apply a dish change from the menu service to the local recipe replica.
+     * Every instance keeps its own in-memory replica, so each one reads the whole topic with its own consumer
+     * group. The group id is stable per instance, so a restart resumes from the committed offsets instead of
+     * replaying the topic; the replica is reloaded from the database, and changes are versioned, so the few
+     * replayed after a restart are harmless.
+     */
+    @KafkaListener(
+            topics = "${kafka.topic.menu-dish-events:menu-dish-events}",
+            groupId = "${inventory.recipes.replica.group-id:inventory-service-recipes-${HOSTNAME:local}}",
+            containerFactory = "kafkaListenerContainerFactory",
+            properties = {
+                    "auto.offset.reset=earliest",
+                    "spring.json.use.type.headers=false",
+                    "spring.json.value.default.type=com.go5u.foodflowplatform.inventory.domain.model.events.MenuDishEvent"
+            }
+    )
+    public void handleMenuDishEvent(MenuDishEvent event) {
+        if (event == null) {
+            return;
+        }
+        log.info("Received menu dish event: {} for dish {} (version {})", event.getEventType(), event.getDishId(), event.getVersion());
+        boolean applied = switch (String.valueOf(event.getEventType())) {
+            case "CREATED", "UPDATED", "DELETED" -> recipeReplica.apply(event);
+            default -> {
+                log.warn("Skipping menu dish event {} with unknown type {}", event.getDishId(), event.getEventType());
+                yield false;
+            }
+        };
+        meterRegistry.counter("inventory.recipes.replica.changes", "outcome", applied ? "applied" : "ignored").increment();
+    }
+}
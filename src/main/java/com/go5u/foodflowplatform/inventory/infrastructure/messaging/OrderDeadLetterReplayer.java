@@ -0,0 +1,137 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends records of the orders dead-letter topic back to orders-events. Records are copied byte for byte,
+ * without the dead-letter and retry headers, so they start again with a full set of attempts.
+ * The replay position is kept by its own consumer group, so each dead letter is replayed once.
+ */
+@Slf4j
+@Component
+public class OrderDeadLetterReplayer {
+
+    private static final String REPLAY_GROUP_ID = "inventory-service-dlt-replay";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration SEND_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ConsumerFactory<?, ?> consumerFactory;
+    private final DefaultKafkaProducerFactory<byte[], byte[]> replayProducerFactory;
+    private final KafkaTemplate<byte[], byte[]> replayTemplate;
+    private final String ordersTopic;
+    private final String deadLetterTopic;
+
+    public OrderDeadLetterReplayer(ConsumerFactory<?, ?> consumerFactory,
+                                   KafkaProperties kafkaProperties,
+                                   @Value("${kafka.topic.orders-events:orders-events}") String ordersTopic) {
+        this.consumerFactory = consumerFactory;
+        this.replayProducerFactory = new DefaultKafkaProducerFactory<>(
+                kafkaProperties.buildProducerProperties(null), new ByteArraySerializer(), new ByteArraySerializer());
+        this.replayTemplate = new KafkaTemplate<>(replayProducerFactory);
+        this.ordersTopic = ordersTopic;
+        this.deadLetterTopic = ordersTopic + "-dlt";
+    }
+
+    /**
+     * Replays up to {@code maxRecords} dead letters, oldest first within each partition
+     * @return number of records sent back to the orders topic
+     */
+    public synchronized int replay(int maxRecords) {
+        if (maxRecords <= 0) {
+            throw new IllegalArgumentException("maxRecords must be positive");
+        }
+
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        overrides.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(Math.min(maxRecords, 500)));
+
+        try (Consumer<?, ?> consumer = consumerFactory.createConsumer(REPLAY_GROUP_ID, null, null, overrides)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(deadLetterTopic).stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            if (partitions.isEmpty()) {
+                return 0;
+            }
+            consumer.assign(partitions);
+
+            int replayed = 0;
+            while (replayed < maxRecords) {
+                ConsumerRecords<?, ?> records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                List<CompletableFuture<?>> sends = new ArrayList<>();
+                for (ConsumerRecord<?, ?> record : records) {
+                    if (replayed == maxRecords) {
+                        break;
+                    }
+                    sends.add(replayTemplate.send(toOrdersRecord(record)));
+                    offsets.put(new TopicPartition(record.topic(), record.partition()), new OffsetAndMetadata(record.offset() + 1));
+                    replayed++;
+                }
+
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                        .get(SEND_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                consumer.commitSync(offsets);
+            }
+
+            log.info("Replayed {} order events from {}", replayed, deadLetterTopic);
+            return replayed;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying dead letters", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to replay dead letters: " + e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        replayProducerFactory.destroy();
+    }
+
+    private ProducerRecord<byte[], byte[]> toOrdersRecord(ConsumerRecord<?, ?> record) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith("kafka_dlt-") && !header.key().startsWith("retry_topic-")) {
+                headers.add(header);
+            }
+        }
+        return new ProducerRecord<>(ordersTopic, null, (byte[]) record.key(), (byte[]) record.value(), headers);
+    }
+}
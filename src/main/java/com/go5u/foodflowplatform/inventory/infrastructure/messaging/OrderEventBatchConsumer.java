@@ -0,0 +1,47 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
+
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Batch alternative to {@link OrderEventConsumer}: nets the stock changes of a whole poll per
+ * (userId, ingredient) and applies them in a single transaction. Offsets are committed by the
+ * container after this method returns, so a failed transaction makes the poll be redelivered.
+ * <p>
+ * A record that could not be deserialized splits the poll: the events before it are applied, and the
+ * failure is reported at its position so the container commits up to it and dead-letters it alone.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.orders.consumer.mode", havingValue = "batch")
+public class OrderEventBatchConsumer {
+
+    private final OrderEventProcessor orderEventProcessor;
+
+    @KafkaListener(
+            topics = "orders-events",
+            groupId = "inventory-service-group",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            properties = "max.poll.records=${inventory.orders.consumer.batch.max-poll-records:500}"
+    )
+    public void handleOrderEvents(List<ConsumerRecord<String, OrderEvent>> records) {
+        log.info("Received batch of {} order events", records.size());
+        int poison = OrderEventRecords.firstUndeserializable(records);
+        if (poison < 0) {
+            orderEventProcessor.process(OrderEventRecords.values(records));
+            return;
+        }
+        if (poison > 0) {
+            orderEventProcessor.process(OrderEventRecords.values(records.subList(0, poison)));
+        }
+        throw OrderEventRecords.undeserializable(records, poison);
+    }
+}
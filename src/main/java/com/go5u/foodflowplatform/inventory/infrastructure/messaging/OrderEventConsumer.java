@@ -1,30 +1,52 @@
 package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
 
 import com.go5u.foodflowplatform.inventory.domain.model.events.OrderEvent;
-import com.go5u.foodflowplatform.inventory.domain.model.events.OrderItemEvent;
-import com.go5u.foodflowplatform.inventory.domain.services.ProductCommandService;
-import com.go5u.foodflowplatform.inventory.domain.services.ProductQueryService;
-import com.go5u.foodflowplatform.inventory.domain.model.queries.GetProductByNameQuery;
-import com.go5u.foodflowplatform.inventory.infrastructure.client.MenuClient;
-import com.go5u.foodflowplatform.inventory.interfaces.dto.DishResponse;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.orders.consumer.mode", havingValue = "single", matchIfMissing = true)
 public class OrderEventConsumer {
 
-    private final ProductCommandService productCommandService;
-    private final ProductQueryService productQueryService;
-    private final InventoryEventProducer inventoryEventProducer;
-    private final MenuClient menuClient;
+    private final OrderEventProcessor orderEventProcessor;
+    private final MeterRegistry meterRegistry;
 
+    /**
+     * Process an order event:
+     * - CREATED: decrease the stock of every ingredient used by the order's dishes
+     * - CANCELLED: restore the stock of those ingredients
+     * Redelivered events whose (orderId, status) was already applied are dropped.
+     * <p>
+     * A failed event is moved to the orders-events-retry-N topics and retried there with exponential
+     * backoff, so the partition keeps flowing; after the last attempt it lands on orders-events-dlt.
+     * Events that cannot be deserialized go to the DLT directly, with their original bytes.
+     */
+    @RetryableTopic(
+            attempts = "${inventory.orders.retry.attempts:4}",
+            backoff = @Backoff(
+                    delayExpression = "${inventory.orders.retry.initial-delay-ms:1000}",
+                    multiplierExpression = "${inventory.orders.retry.multiplier:2.0}",
+                    maxDelayExpression = "${inventory.orders.retry.max-delay-ms:30000}"),
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            dltStrategy = DltStrategy.FAIL_ON_ERROR,
+            numPartitions = "3",
+            replicationFactor = "1"
+    )
     @KafkaListener(
             topics = "orders-events",
             groupId = "inventory-service-group",
@@ -32,171 +54,18 @@ public class OrderEventConsumer {
     )
     public void handleOrderEvent(OrderEvent event) {
         log.info("Received order event: {} with status: {}", event.getOrderId(), event.getStatus());
-
-        try {
-            switch(event.getStatus()) {
-                case "CREATED":
-                    log.info("Processing order creation: {}", event.getOrderId());
-                    processOrderCreation(event);
-                    break;
-
-                case "CANCELLED":
-                    log.info("Processing order cancellation: {}", event.getOrderId());
-                    processOrderCancellation(event);
-                    break;
-
-                default:
-                    log.warn("Unknown order status: {}", event.getStatus());
-            }
-        } catch (Exception ex) {
-            log.error("Error processing order event: {}", event.getOrderId(), ex);
-        }
-    }
-
-    /**
-     * Process order creation by:
-     * 1. Querying menu service for each dish's ingredients
-     * 2. Calculating total required ingredients (considering dish quantity)
-     * 3. Decreasing stock for each ingredient by ingredient name
-     */
-    private void processOrderCreation(OrderEvent event) {
-        // Map to aggregate required ingredients across all dishes in the order
-        // Key: ingredient name, Value: total quantity needed
-        Map<String, Double> requiredIngredients = new HashMap<>();
-
-        // Iterate through each dish in the order
-        for (OrderItemEvent item : event.getItems()) {
-            Long dishId = item.getDishId();
-            Integer dishQuantity = item.getQuantity(); // Quantity of this dish ordered
-
-            log.info("Processing dish ID: {}, quantity: {}", dishId, dishQuantity);
-
-            // Query menu service to get dish ingredients
-            var dishOpt = menuClient.getDishById(dishId);
-            if (dishOpt.isEmpty()) {
-                log.warn("Dish {} not found in menu service, skipping inventory update", dishId);
-                continue;
-            }
-
-            DishResponse dish = dishOpt.get();
-
-            // Calculate required ingredients for this dish
-            for (DishResponse.IngredientResponse ingredient : dish.ingredients()) {
-                String ingredientName = ingredient.name();
-                // Total needed = ingredient quantity per dish * number of dishes ordered
-                double totalNeeded = ingredient.quantity() * dishQuantity;
-
-                // Aggregate with other dishes that might use the same ingredient
-                requiredIngredients.merge(ingredientName, totalNeeded, Double::sum);
-
-                log.info("Dish '{}' requires {} {} of ingredient '{}'",
-                        dish.name(), totalNeeded, ingredient.unit(), ingredientName);
-            }
-        }
-
-        // Update inventory for each required ingredient
-        for (Map.Entry<String, Double> entry : requiredIngredients.entrySet()) {
-            String ingredientName = entry.getKey();
-            Double quantityToDecrease = entry.getValue();
-
-            try {
-                // Find product by ingredient name and userId
-                var productOpt = productQueryService.handle(new GetProductByNameQuery(ingredientName, event.getUserId()));
-                
-                if (productOpt.isEmpty()) {
-                    log.warn("Ingredient '{}' not found in inventory for user {}, skipping stock update", ingredientName, event.getUserId());
-                    continue;
-                }
-
-                var product = productOpt.get();
-                
-                // Decrease stock (converting Double to Integer)
-                int quantityToDecreaseInt = quantityToDecrease.intValue();
-                productCommandService.decreaseInventoryQuantity(
-                        product.getProductId(),
-                        quantityToDecreaseInt
-                );
-
-                log.info("Decreased inventory for ingredient '{}' by {} units",
-                        ingredientName, quantityToDecreaseInt);
-
-            } catch (IllegalArgumentException e) {
-                log.error("Cannot decrease stock for ingredient '{}': {}", ingredientName, e.getMessage());
-                // Continue processing other ingredients even if one fails
-            } catch (Exception e) {
-                log.error("Error updating stock for ingredient '{}': {}", ingredientName, e.getMessage(), e);
-            }
-        }
+        orderEventProcessor.process(List.of(event));
     }
 
     /**
-     * Process order cancellation by:
-     * 1. Querying menu service for each dish's ingredients
-     * 2. Calculating total ingredients to restore
-     * 3. Increasing stock for each ingredient by ingredient name
+     * Events that failed every attempt. The record keeps the exception, original topic, partition and
+     * offset in its kafka_dlt-* headers and can be sent back with the dead-letter replay endpoint.
      */
-    private void processOrderCancellation(OrderEvent event) {
-        // Map to aggregate ingredients to restore across all dishes in the order
-        Map<String, Double> ingredientsToRestore = new HashMap<>();
-
-        // Iterate through each dish in the cancelled order
-        for (OrderItemEvent item : event.getItems()) {
-            Long dishId = item.getDishId();
-            Integer dishQuantity = item.getQuantity();
-
-            log.info("Restoring ingredients for cancelled dish ID: {}, quantity: {}", dishId, dishQuantity);
-
-            // Query menu service to get dish ingredients
-            var dishOpt = menuClient.getDishById(dishId);
-            if (dishOpt.isEmpty()) {
-                log.warn("Dish {} not found in menu service, skipping inventory restore", dishId);
-                continue;
-            }
-
-            DishResponse dish = dishOpt.get();
-
-            // Calculate ingredients to restore for this dish
-            for (DishResponse.IngredientResponse ingredient : dish.ingredients()) {
-                String ingredientName = ingredient.name();
-                double totalToRestore = ingredient.quantity() * dishQuantity;
-
-                // Aggregate with other dishes
-                ingredientsToRestore.merge(ingredientName, totalToRestore, Double::sum);
-
-                log.info("Restoring {} {} of ingredient '{}' for cancelled dish '{}'",
-                        totalToRestore, ingredient.unit(), ingredientName, dish.name());
-            }
-        }
-
-        // Restore inventory for each ingredient
-        for (Map.Entry<String, Double> entry : ingredientsToRestore.entrySet()) {
-            String ingredientName = entry.getKey();
-            Double quantityToRestore = entry.getValue();
-
-            try {
-                // Find product by ingredient name and userId
-                var productOpt = productQueryService.handle(new GetProductByNameQuery(ingredientName, event.getUserId()));
-                
-                if (productOpt.isEmpty()) {
-                    log.warn("Ingredient '{}' not found in inventory for user {}, skipping stock restore", ingredientName, event.getUserId());
-                    continue;
-                }
-
-                var product = productOpt.get();
-                
-                // Increase stock (converting Double to Integer)
-                int quantityToRestoreInt = quantityToRestore.intValue();
-                productCommandService.increaseInventoryQuantity(
-                        product.getProductId(),
-                        quantityToRestoreInt
-                );
-
-                log.info("Restored inventory for ingredient '{}' by {} units",
-                        ingredientName, quantityToRestoreInt);
-
-            } catch (Exception e) {
-                log.error("Error restoring stock for ingredient '{}': {}", ingredientName, e.getMessage(), e);
-            }
-        }
+    @DltHandler
+    public void handleDeadLetter(OrderEvent event,
+                                 @Header(name = KafkaHeaders.DLT_EXCEPTION_MESSAGE, required = false) String exceptionMessage) {
+        meterRegistry.counter("inventory.orders.dead-lettered").increment();
+        log.error("Order event {} with status {} moved to the dead-letter topic: {}",
+                event == null ? null : event.getOrderId(), event == null ? null : event.getStatus(), exceptionMessage);
     }
-}
\ No newline at end of file
+}
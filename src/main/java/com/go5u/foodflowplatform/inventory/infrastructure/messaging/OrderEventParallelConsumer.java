@@ -0,0 +1,366 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
+
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Key-ordered alternative to {@link OrderEventBatchConsumer}: each record is queued per userId and returned to
+ * the container right away, so polling goes on while earlier events are still being applied. A worker drains a
+ * user's queue, netting whatever has piled up in one transaction, so a slow order only delays its own user.
+ * <p>
+ * Offsets are committed per partition up to the lowest record not yet completed; completed records above it
+ * wait until the gap is filled. A partition with too many records in that state is paused until it drains.
+ * <p>
+ * A failed user batch is retried one event at a time with the order retry backoff, on the user's worker only;
+ * an event that fails every attempt, or could not be deserialized, is published to the dead-letter topic and
+ * counts as completed. Work on a revoked partition is dropped without committing; the new owner redelivers it
+ * and the processed-order dedupe drops whatever was applied in between.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "inventory.orders.consumer.mode", havingValue = "parallel")
+public class OrderEventParallelConsumer implements ConsumerSeekAware {
+
+    public static final String LISTENER_ID = "inventory-orders-parallel";
+
+    private final OrderEventProcessor orderEventProcessor;
+    private final ConsumerRecordRecoverer orderDeadLetterRecoverer;
+    private final BackOff orderRetryBackOff;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final ExecutorService workers;
+    private final int maxPendingPerPartition;
+    // Key: userId
+    private final Map<Long, UserQueue> userQueues = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, PartitionProgress> partitions = new ConcurrentHashMap<>();
+
+    public OrderEventParallelConsumer(OrderEventProcessor orderEventProcessor,
+                                      ConsumerRecordRecoverer orderDeadLetterRecoverer,
+                                      BackOff orderRetryBackOff,
+                                      KafkaListenerEndpointRegistry listenerRegistry,
+                                      @Value("${inventory.orders.consumer.parallel.max-concurrency:8}") int maxConcurrency,
+                                      @Value("${inventory.orders.consumer.parallel.max-pending-per-partition:1000}") int maxPendingPerPartition) {
+        if (maxPendingPerPartition < 1) {
+            throw new IllegalArgumentException("Max pending records per partition must be at least 1");
+        }
+        this.orderEventProcessor = orderEventProcessor;
+        this.orderDeadLetterRecoverer = orderDeadLetterRecoverer;
+        this.orderRetryBackOff = orderRetryBackOff;
+        this.listenerRegistry = listenerRegistry;
+        this.maxPendingPerPartition = maxPendingPerPartition;
+        this.workers = Executors.newFixedThreadPool(maxConcurrency, Thread.ofVirtual().name("order-worker-", 0).factory());
+    }
+
+    @KafkaListener(
+            id = LISTENER_ID,
+            topics = "orders-events",
+            groupId = "inventory-service-group",
+            containerFactory = "parallelKafkaListenerContainerFactory",
+            properties = "max.poll.records=${inventory.orders.consumer.batch.max-poll-records:500}"
+    )
+    public void handleOrderEvent(ConsumerRecord<String, OrderEvent> record, Acknowledgment acknowledgment) {
+        PendingRecord pending = track(record, acknowledgment);
+        OrderEvent event = record.value();
+        if (event == null || event.getUserId() == null) {
+            // Tombstones and events without a user are not stock relevant: nothing to order them against
+            workers.execute(() -> {
+                if (event == null || applyWithRetries(pending)) {
+                    complete(pending);
+                }
+            });
+            return;
+        }
+
+        boolean[] startWorker = new boolean[1];
+        userQueues.compute(event.getUserId(), (userId, queue) -> {
+            UserQueue userQueue = queue == null ? new UserQueue() : queue;
+            userQueue.records.add(pending);
+            if (!userQueue.draining) {
+                userQueue.draining = true;
+                startWorker[0] = true;
+            }
+            return userQueue;
+        });
+        if (startWorker[0]) {
+            workers.execute(() -> drain(event.getUserId()));
+        }
+    }
+
+    /**
+     * Takes a record the container could not hand to the listener (an undeserializable value): it is
+     * dead-lettered on a worker and then committed in order like any other record
+     */
+    public void recover(ConsumerRecord<?, ?> record, Exception exception) {
+        PendingRecord pending = track(record, null);
+        workers.execute(() -> {
+            if (deadLetter(pending, exception)) {
+                complete(pending);
+            }
+        });
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> revoked) {
+        for (TopicPartition partition : revoked) {
+            PartitionProgress progress = partitions.remove(partition);
+            if (progress != null && progress.revoke()) {
+                container().resumePartition(partition);
+            }
+        }
+    }
+
+    private PendingRecord track(ConsumerRecord<?, ?> record, Acknowledgment acknowledgment) {
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        PartitionProgress progress = partitions.computeIfAbsent(partition, PartitionProgress::new);
+        PendingRecord pending = progress.track(record, acknowledgment);
+        if (progress.pauseIfBackedUp(maxPendingPerPartition)) {
+            log.info("Pausing {}: {} order events waiting to be committed", partition, progress.pending());
+            container().pausePartition(partition);
+        }
+        return pending;
+    }
+
+    private void complete(PendingRecord pending) {
+        PartitionProgress progress = pending.progress;
+        Acknowledgment acknowledgment = progress.complete(pending);
+        if (acknowledgment != null) {
+            acknowledgment.acknowledge();
+        }
+        if (progress.resumeIfDrained(maxPendingPerPartition / 2)) {
+            log.info("Resuming {}", progress.partition);
+            container().resumePartition(progress.partition);
+        }
+    }
+
+    /**
+     * Applies the queued events of a user until the queue is empty; only one drain runs per user at a time
+     */
+    private void drain(Long userId) {
+        while (true) {
+            List<PendingRecord> batch = new ArrayList<>();
+            userQueues.computeIfPresent(userId, (id, queue) -> {
+                batch.addAll(queue.records);
+                queue.records.clear();
+                return batch.isEmpty() ? null : queue;
+            });
+            if (batch.isEmpty()) {
+                return;
+            }
+            batch.removeIf(pending -> pending.progress.isRevoked());
+            if (!batch.isEmpty() && !apply(batch)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return false if the worker was interrupted before the batch completed
+     */
+    private boolean apply(List<PendingRecord> batch) {
+        try {
+            orderEventProcessor.process(batch.stream().map(PendingRecord::event).toList());
+            batch.forEach(this::complete);
+            return true;
+        } catch (RuntimeException e) {
+            PendingRecord first = batch.getFirst();
+            log.warn("Error processing {} order events of user {}, retrying them one at a time",
+                    batch.size(), first.event().getUserId(), e);
+        }
+        for (PendingRecord pending : batch) {
+            if (!applyWithRetries(pending)) {
+                return false;
+            }
+            complete(pending);
+        }
+        return true;
+    }
+
+    /**
+     * @return false if the worker was interrupted before the event was applied or dead-lettered
+     */
+    private boolean applyWithRetries(PendingRecord pending) {
+        BackOffExecution backOff = orderRetryBackOff.start();
+        while (!pending.progress.isRevoked()) {
+            try {
+                orderEventProcessor.process(List.of(pending.event()));
+                return true;
+            } catch (RuntimeException e) {
+                long delay = backOff.nextBackOff();
+                if (delay == BackOffExecution.STOP) {
+                    return deadLetter(pending, e);
+                }
+                if (delay > 0 && !sleep(delay)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Publishes the record to the dead-letter topic, retrying the publication with the order retry backoff:
+     * the record cannot be committed, and the partition cannot move past it, until it is published.
+     * @return false if the worker was interrupted first
+     */
+    private boolean deadLetter(PendingRecord pending, Exception exception) {
+        ConsumerRecord<?, ?> record = pending.record;
+        BackOffExecution backOff = orderRetryBackOff.start();
+        while (!pending.progress.isRevoked()) {
+            try {
+                orderDeadLetterRecoverer.accept(record, exception);
+                log.error("Order event at {}-{}@{} moved to the dead-letter topic: {}",
+                        record.topic(), record.partition(), record.offset(), exception.getMessage());
+                return true;
+            } catch (RuntimeException e) {
+                log.error("Could not dead-letter order event at {}-{}@{}",
+                        record.topic(), record.partition(), record.offset(), e);
+                long delay = backOff.nextBackOff();
+                if (delay == BackOffExecution.STOP) {
+                    backOff = orderRetryBackOff.start();
+                    delay = backOff.nextBackOff();
+                }
+                if (!sleep(Math.max(delay, 1000))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private MessageListenerContainer container() {
+        return listenerRegistry.getListenerContainer(LISTENER_ID);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Events of one user waiting for its worker; draining is true while a worker owns the queue
+     */
+    private static final class UserQueue {
+        private final Deque<PendingRecord> records = new ArrayDeque<>();
+        private boolean draining;
+    }
+
+    private record PendingRecord(ConsumerRecord<?, ?> record, Acknowledgment acknowledgment,
+                                 PartitionProgress progress) {
+        private OrderEvent event() {
+            return (OrderEvent) record.value();
+        }
+    }
+
+    /**
+     * Records of one partition received since the last committed offset, by offset
+     */
+    private static final class PartitionProgress {
+        private final TopicPartition partition;
+        private final TreeMap<Long, PendingRecord> inFlight = new TreeMap<>();
+        private final TreeMap<Long, Boolean> completed = new TreeMap<>();
+        private boolean paused;
+        private volatile boolean revoked;
+
+        private PartitionProgress(TopicPartition partition) {
+            this.partition = partition;
+        }
+
+        private synchronized PendingRecord track(ConsumerRecord<?, ?> record, Acknowledgment acknowledgment) {
+            PendingRecord pending = new PendingRecord(record, acknowledgment, this);
+            inFlight.put(record.offset(), pending);
+            return pending;
+        }
+
+        /**
+         * Marks the record completed and moves past every completed record at the head of the partition
+         * @return acknowledgment of the last record moved past, or null if the committed offset stays put
+         */
+        private synchronized Acknowledgment complete(PendingRecord pending) {
+            long offset = pending.record.offset();
+            if (revoked || inFlight.get(offset) != pending) {
+                return null;
+            }
+            completed.put(offset, Boolean.TRUE);
+            Acknowledgment last = null;
+            boolean moved = false;
+            while (!inFlight.isEmpty() && completed.remove(inFlight.firstKey()) != null) {
+                Acknowledgment acknowledgment = inFlight.pollFirstEntry().getValue().acknowledgment;
+                if (acknowledgment != null) {
+                    last = acknowledgment;
+                }
+                moved = true;
+            }
+            return moved ? last : null;
+        }
+
+        private synchronized int pending() {
+            return inFlight.size();
+        }
+
+        private synchronized boolean pauseIfBackedUp(int limit) {
+            if (revoked || paused || inFlight.size() < limit) {
+                return false;
+            }
+            paused = true;
+            return true;
+        }
+
+        private synchronized boolean resumeIfDrained(int limit) {
+            if (revoked || !paused || inFlight.size() > limit) {
+                return false;
+            }
+            paused = false;
+            return true;
+        }
+
+        /**
+         * @return true if the partition was paused and has to be resumed before it is assigned again
+         */
+        private synchronized boolean revoke() {
+            revoked = true;
+            inFlight.clear();
+            completed.clear();
+            boolean wasPaused = paused;
+            paused = false;
+            return wasPaused;
+        }
+
+        private boolean isRevoked() {
+            return revoked;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
+
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ApplyStockDeltasCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.CommitStockReservationCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ReleaseStockReservationCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ReserveStockCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProcessedOrderId;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.QuantityUnit;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockDelta;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockLineStatus;
+import com.go5u.foodflowplatform.inventory.domain.services.ProductCommandService;
+import com.go5u.foodflowplatform.inventory.infrastructure.client.DishRecipe;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns order events into stock changes and applies them exactly once per (orderId, status).
+ * Already applied events are dropped before any menu or product lookup; the remaining ones are
+ * netted per (userId, ingredient) and applied together with their processed-order records in one transaction.
+ * <p>
+ * With {@code inventory.reservations.enabled}, stock is held instead of consumed when an order is CREATED:
+ * the hold is released on CANCELLED and committed on one of the fulfilled statuses. An order fulfilled
+ * without holds (reservation rejected or expired) consumes its stock directly.
+ * <p>
+ * Each phase is timed in {@code inventory.orders.phase} and every event is counted in
+ * {@code inventory.orders.events} by status and outcome (applied, duplicate, skipped, failed).
+ * Statuses outside the ones this service acts on are tagged OTHER to keep the series bounded.
+ */
+@Slf4j
+@Component
+public class OrderEventProcessor {
+
+    private final OrderIngredientCalculator orderIngredientCalculator;
+    private final ProcessedOrderStore processedOrderStore;
+    private final ProductCommandService productCommandService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean reservationsEnabled;
+    private final Set<String> fulfilledStatuses;
+    private final MeterRegistry meterRegistry;
+    private final Timer dedupeTimer;
+    private final Timer menuFetchTimer;
+    private final Timer stockUnitsTimer;
+    private final Timer aggregationTimer;
+    private final Timer applyTimer;
+
+    public OrderEventProcessor(OrderIngredientCalculator orderIngredientCalculator,
+                               ProcessedOrderStore processedOrderStore,
+                               ProductCommandService productCommandService,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${inventory.reservations.enabled:false}") boolean reservationsEnabled,
+                               @Value("${inventory.reservations.fulfilled-statuses:COMPLETED,DELIVERED}") Set<String> fulfilledStatuses) {
+        this.orderIngredientCalculator = orderIngredientCalculator;
+        this.processedOrderStore = processedOrderStore;
+        this.productCommandService = productCommandService;
+        this.transactionTemplate = transactionTemplate;
+        this.reservationsEnabled = reservationsEnabled;
+        this.fulfilledStatuses = Set.copyOf(fulfilledStatuses);
+        this.meterRegistry = meterRegistry;
+        this.dedupeTimer = phaseTimer("dedupe");
+        this.menuFetchTimer = phaseTimer("menu_fetch");
+        this.stockUnitsTimer = phaseTimer("stock_units");
+        this.aggregationTimer = phaseTimer("aggregation");
+        this.applyTimer = phaseTimer("apply");
+    }
+
+    public void process(List<OrderEvent> events) {
+        Map<ProcessedOrderId, OrderEvent> candidates = new LinkedHashMap<>();
+        List<OrderEvent> untracked = new ArrayList<>();
+        List<OrderEvent> tracked = new ArrayList<>();
+        for (OrderEvent event : events) {
+            if (!isStockRelevant(event)) {
+                log.warn("Skipping order event {} with status {} for user {}",
+                        event.getOrderId(), event.getStatus(), event.getUserId());
+                countEvent(event, "skipped");
+            } else if (event.getOrderId() == null) {
+                untracked.add(event);
+            } else {
+                tracked.add(event);
+                candidates.putIfAbsent(new ProcessedOrderId(event.getOrderId(), event.getStatus()), event);
+            }
+        }
+
+        List<ProcessedOrderId> unprocessed = dedupeTimer.record(() -> processedOrderStore.filterUnprocessed(candidates.keySet()));
+        int duplicates = events.size() - untracked.size() - unprocessed.size();
+        if (duplicates > 0) {
+            log.info("Dropped {} already processed or irrelevant order events", duplicates);
+        }
+
+        List<OrderEvent> toApply = new ArrayList<>(untracked);
+        Set<ProcessedOrderId> pending = new HashSet<>(unprocessed);
+        for (OrderEvent event : tracked) {
+            if (pending.remove(new ProcessedOrderId(event.getOrderId(), event.getStatus()))) {
+                toApply.add(event);
+            } else {
+                countEvent(event, "duplicate");
+            }
+        }
+        if (toApply.isEmpty()) {
+            return;
+        }
+
+        try {
+            apply(toApply, unprocessed);
+        } catch (RuntimeException e) {
+            toApply.forEach(event -> countEvent(event, "failed"));
+            throw e;
+        }
+        toApply.forEach(event -> countEvent(event, "applied"));
+    }
+
+    private void apply(List<OrderEvent> toApply, List<ProcessedOrderId> unprocessed) {
+        Map<Long, DishRecipe> dishes = menuFetchTimer.record(() -> orderIngredientCalculator.fetchRecipes(toApply));
+        Map<Long, Map<String, QuantityUnit>> stockUnits = stockUnitsTimer.record(
+                () -> orderIngredientCalculator.fetchStockUnits(toApply, dishes));
+        if (reservationsEnabled) {
+            applyTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                processedOrderStore.markProcessed(unprocessed);
+                toApply.forEach(event -> applyReservation(event, dishes,
+                        stockUnits.getOrDefault(event.getUserId(), Map.of())));
+            }));
+            log.info("Applied reservations from {} order events", toApply.size());
+            return;
+        }
+
+        List<StockDelta> deltas = aggregationTimer.record(() -> OrderIngredientCalculator.netStockDeltas(toApply, dishes, stockUnits));
+
+        applyTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+            processedOrderStore.markProcessed(unprocessed);
+            if (!deltas.isEmpty()) {
+                productCommandService.handle(new ApplyStockDeltasCommand(deltas));
+            }
+        }));
+        meterRegistry.summary("inventory.orders.stock-changes").record(deltas.size());
+        log.info("Applied {} net stock changes from {} order events", deltas.size(), toApply.size());
+    }
+
+    private void applyReservation(OrderEvent event, Map<Long, DishRecipe> dishes, Map<String, QuantityUnit> stockUnits) {
+        String status = event.getStatus();
+        if ("CREATED".equals(status)) {
+            Map<String, Long> quantities = orderQuantities(event, dishes, stockUnits);
+            if (event.getOrderId() == null || quantities.isEmpty()) {
+                return;
+            }
+            var results = productCommandService.handle(new ReserveStockCommand(event.getOrderId(), event.getUserId(), quantities));
+            if (results.stream().anyMatch(result -> result.status() != StockLineStatus.APPLIED)) {
+                log.warn("Could not reserve all the stock for order {}: {}", event.getOrderId(), results);
+            }
+        } else if ("CANCELLED".equals(status)) {
+            if (event.getOrderId() != null) {
+                productCommandService.handle(new ReleaseStockReservationCommand(event.getOrderId()));
+            }
+        } else {
+            // Ingredients that could not be held when the order was created are consumed directly
+            Set<String> committed = event.getOrderId() == null
+                    ? Set.of()
+                    : productCommandService.handle(new CommitStockReservationCommand(event.getOrderId()));
+            List<StockDelta> deltas = new ArrayList<>();
+            orderQuantities(event, dishes, stockUnits).forEach((name, milliQuantity) -> {
+                if (!committed.contains(name)) {
+                    deltas.add(new StockDelta(event.getUserId(), name, -milliQuantity));
+                }
+            });
+            if (!deltas.isEmpty()) {
+                log.info("Order {} fulfilled with {} ingredients not held, consuming them directly", event.getOrderId(), deltas.size());
+                productCommandService.handle(new ApplyStockDeltasCommand(deltas));
+            }
+        }
+    }
+
+    /**
+     * Milli-units of stock to hold per ingredient, so the hold is exactly what the order consumes
+     */
+    private static Map<String, Long> orderQuantities(OrderEvent event, Map<Long, DishRecipe> dishes,
+                                                     Map<String, QuantityUnit> stockUnits) {
+        Map<String, Long> quantities = new LinkedHashMap<>();
+        OrderIngredientCalculator.aggregate(event.getItems(), dishes, stockUnits).forEach((name, milliQuantity) -> {
+            if (milliQuantity > 0) {
+                quantities.put(name, milliQuantity);
+            }
+        });
+        return quantities;
+    }
+
+    private Timer phaseTimer(String phase) {
+        return Timer.builder("inventory.orders.phase")
+                .description("Time spent in each phase of order event processing")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    private void countEvent(OrderEvent event, String outcome) {
+        String status = event.getStatus();
+        boolean known = "CREATED".equals(status) || "CANCELLED".equals(status) || fulfilledStatuses.contains(status);
+        meterRegistry.counter("inventory.orders.events", "status", known ? status : "OTHER", "outcome", outcome).increment();
+    }
+
+    private boolean isStockRelevant(OrderEvent event) {
+        if (event.getUserId() == null) {
+            return false;
+        }
+        String status = event.getStatus();
+        return "CREATED".equals(status) || "CANCELLED".equals(status)
+                || (reservationsEnabled && fulfilledStatuses.contains(status));
+    }
+}
@@ -0,0 +1,68 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
+
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks the records of a batch poll for values the ErrorHandlingDeserializer could not read. In batch mode
+ * such a record reaches the listener with a null value and the failure in a header; it has to be reported
+ * by position so the container commits the records before it and hands it to the recoverer alone.
+ */
+final class OrderEventRecords {
+
+    private static final LogAccessor LOGGER = new LogAccessor(OrderEventRecords.class);
+
+    private OrderEventRecords() {
+    }
+
+    /**
+     * @return position of the first record that could not be deserialized, or -1 if every record was read
+     */
+    static int firstUndeserializable(List<ConsumerRecord<String, OrderEvent>> records) {
+        for (int i = 0; i < records.size(); i++) {
+            if (deserializationFailure(records.get(i)) != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Failure reported to the container for an undeserializable record. It carries the
+     * {@link DeserializationException} as cause, so the error handler does not retry it and sends it
+     * to the dead-letter topic with its original bytes.
+     */
+    static BatchListenerFailedException undeserializable(List<ConsumerRecord<String, OrderEvent>> records, int index) {
+        ConsumerRecord<String, OrderEvent> record = records.get(index);
+        return new BatchListenerFailedException("Order event at " + record.topic() + "-" + record.partition()
+                + "@" + record.offset() + " could not be deserialized", deserializationFailure(record), index);
+    }
+
+    /**
+     * Values of the records, skipping tombstones
+     */
+    static List<OrderEvent> values(List<ConsumerRecord<String, OrderEvent>> records) {
+        List<OrderEvent> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, OrderEvent> record : records) {
+            if (record.value() != null) {
+                events.add(record.value());
+            }
+        }
+        return events;
+    }
+
+    static DeserializationException deserializationFailure(ConsumerRecord<?, ?> record) {
+        if (record.value() != null) {
+            return null;
+        }
+        return SerializationUtils.getExceptionFromHeader(record,
+                SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOGGER);
+    }
+}
@@ -0,0 +1,195 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
+
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderItemEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ProductStockUnit;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.QuantityUnit;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockDelta;
+import com.go5u.foodflowplatform.inventory.infrastructure.client.DishRecipe;
+import com.go5u.foodflowplatform.inventory.infrastructure.client.MenuClient;
+import com.go5u.foodflowplatform.inventory.infrastructure.client.RecipeReplica;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Expands order events into the total quantity of each ingredient they use, based on the dish
+ * recipes returned by the menu service. Recipe amounts are converted to the stock unit of the user's
+ * product (left as written when it is unknown or measures something else) and summed in milli-units
+ * as primitive longs, so fractional amounts add up exactly across orders.
+ * <p>
+ * With {@code inventory.recipes.replica.enabled}, recipes come from the local {@link RecipeReplica}; only dishes
+ * the replica does not know yet are fetched from the menu service (and then stored in the replica).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderIngredientCalculator {
+
+    private final MenuClient menuClient;
+    private final RecipeReplica recipeReplica;
+    private final ProductRepository productRepository;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Fetch every dish referenced by the given events, from the replica or in a single menu lookup
+     */
+    public Map<Long, DishRecipe> fetchRecipes(Collection<OrderEvent> events) {
+        List<Long> dishIds = events.stream()
+                .filter(event -> event.getItems() != null)
+                .flatMap(event -> event.getItems().stream())
+                .map(OrderItemEvent::getDishId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (!recipeReplica.isEnabled()) {
+            return menuClient.getRecipesByIds(dishIds);
+        }
+
+        Map<Long, DishRecipe> recipes = recipeReplica.getRecipes(dishIds);
+        if (recipes.size() < dishIds.size()) {
+            List<Long> misses = dishIds.stream().filter(dishId -> !recipes.containsKey(dishId)).toList();
+            meterRegistry.counter("inventory.recipes.replica.misses").increment(misses.size());
+            log.info("Dishes {} are not in the recipe replica, fetching them from Menu service", misses);
+            recipes.putAll(recipeReplica.storeFetched(menuClient.getRecipesByIds(misses)));
+        }
+        return recipes;
+    }
+
+    /**
+     * Stock units of the products the given events use, in one query for all their users
+     * @return userId -> (ingredient name -> stock unit), only for products whose unit is known
+     */
+    public Map<Long, Map<String, QuantityUnit>> fetchStockUnits(Collection<OrderEvent> events, Map<Long, DishRecipe> recipes) {
+        Set<Long> userIds = new HashSet<>();
+        events.forEach(event -> {
+            if (event.getUserId() != null) {
+                userIds.add(event.getUserId());
+            }
+        });
+        Set<String> names = new HashSet<>();
+        recipes.values().forEach(recipe -> names.addAll(Arrays.asList(recipe.ingredientNames())));
+        if (userIds.isEmpty() || names.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Map<String, QuantityUnit>> stockUnits = new HashMap<>();
+        for (ProductStockUnit product : productRepository.findStockUnitsByUserIdInAndNameIn(userIds, names)) {
+            stockUnits.computeIfAbsent(product.userId(), userId -> new HashMap<>())
+                    .putIfAbsent(product.name(), product.stockUnit());
+        }
+        return stockUnits;
+    }
+
+    /**
+     * Total quantity of each ingredient needed by one order, in milli-units of the stock unit
+     */
+    public IngredientTotals requiredIngredients(OrderEvent event) {
+        Map<Long, DishRecipe> recipes = fetchRecipes(List.of(event));
+        Map<String, QuantityUnit> stockUnits = fetchStockUnits(List.of(event), recipes)
+                .getOrDefault(event.getUserId(), Map.of());
+        return aggregate(event.getItems(), recipes, stockUnits);
+    }
+
+    /**
+     * Aggregate ingredient quantities over the items of an order, multiplying each recipe
+     * by the number of dishes ordered. Dishes missing from {@code recipes} are skipped.
+     * @param stockUnits ingredient name -> stock unit of the order user's product
+     */
+    public static IngredientTotals aggregate(List<OrderItemEvent> items, Map<Long, DishRecipe> recipes,
+                                             Map<String, QuantityUnit> stockUnits) {
+        IngredientTotals ingredients = new IngredientTotals();
+        addIngredients(ingredients, null, null, items, recipes, stockUnits, 1);
+        return ingredients;
+    }
+
+    /**
+     * Net stock change per (userId, ingredient) over many orders: CREATED orders consume their
+     * ingredients and CANCELLED orders restore them. Other statuses are ignored.
+     * Ingredients the user's recipes resolved to a product carry its productId.
+     * @param stockUnits userId -> (ingredient name -> stock unit), as returned by {@link #fetchStockUnits}
+     */
+    public static List<StockDelta> netStockDeltas(Collection<OrderEvent> events, Map<Long, DishRecipe> recipes,
+                                                  Map<Long, Map<String, QuantityUnit>> stockUnits) {
+        // Key: userId, Value: net milli-units per ingredient (negative consumes, positive restores)
+        Map<Long, IngredientTotals> netDeltas = new LinkedHashMap<>();
+        // Key: userId, Value: (ingredient name -> productId) from resolved recipes
+        Map<Long, Map<String, Long>> productIds = new HashMap<>();
+        for (OrderEvent event : events) {
+            int sign = switch (String.valueOf(event.getStatus())) {
+                case "CREATED" -> -1;
+                case "CANCELLED" -> 1;
+                default -> 0;
+            };
+            if (sign == 0 || event.getUserId() == null) {
+                continue;
+            }
+
+            IngredientTotals userDeltas = netDeltas.computeIfAbsent(event.getUserId(), userId -> new IngredientTotals());
+            Map<String, Long> userProductIds = productIds.computeIfAbsent(event.getUserId(), userId -> new HashMap<>());
+            addIngredients(userDeltas, event.getUserId(), userProductIds, event.getItems(), recipes,
+                    stockUnits.getOrDefault(event.getUserId(), Map.of()), sign);
+        }
+
+        List<StockDelta> deltas = new ArrayList<>();
+        netDeltas.forEach((userId, userDeltas) -> {
+            Map<String, Long> userProductIds = productIds.get(userId);
+            userDeltas.forEach((ingredientName, milliQuantity) -> {
+                if (milliQuantity != 0) {
+                    deltas.add(new StockDelta(userId, ingredientName, milliQuantity, userProductIds.get(ingredientName)));
+                }
+            });
+        });
+        return deltas;
+    }
+
+    private static void addIngredients(IngredientTotals totals, Long userId, Map<String, Long> productIds,
+                                       List<OrderItemEvent> items, Map<Long, DishRecipe> recipes,
+                                       Map<String, QuantityUnit> stockUnits, int sign) {
+        if (items == null) {
+            return;
+        }
+
+        for (OrderItemEvent item : items) {
+            DishRecipe recipe = recipes.get(item.getDishId());
+            if (recipe == null) {
+                log.warn("Dish {} not found in menu service, skipping its ingredients", item.getDishId());
+                continue;
+            }
+            if (item.getQuantity() == null) {
+                continue;
+            }
+
+            // Total needed = ingredient quantity per dish * number of dishes ordered
+            long dishes = (long) sign * item.getQuantity();
+            String[] names = recipe.ingredientNames();
+            long[] quantities = recipe.milliQuantities();
+            QuantityUnit[] units = recipe.units();
+            for (int i = 0; i < names.length; i++) {
+                totals.add(names[i], units[i].convertMillis(quantities[i] * dishes, stockUnits.get(names[i])));
+            }
+            // Resolved products belong to the dish owner, so they only apply to that user's orders
+            if (productIds != null && userId.equals(recipe.userId())) {
+                long[] resolved = recipe.productIds();
+                for (int i = 0; i < names.length; i++) {
+                    if (resolved[i] != DishRecipe.UNRESOLVED) {
+                        productIds.put(names[i], resolved[i]);
+                    }
+                }
+            }
+        }
+    }
+}
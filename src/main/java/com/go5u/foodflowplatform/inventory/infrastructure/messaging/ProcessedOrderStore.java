@@ -0,0 +1,103 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.go5u.foodflowplatform.inventory.domain.model.entities.ProcessedOrder;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProcessedOrderId;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProcessedOrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Remembers which (orderId, status) transitions have already been applied to the stock.
+ * A bounded in-memory set answers repeated deliveries without a query; the processed_orders table
+ * is the source of truth and is written in the same transaction as the stock change.
+ */
+@Slf4j
+@Component
+public class ProcessedOrderStore {
+
+    private final ProcessedOrderRepository processedOrderRepository;
+    private final Cache<ProcessedOrderId, Boolean> recentlyProcessed;
+    private final Duration retention;
+
+    public ProcessedOrderStore(ProcessedOrderRepository processedOrderRepository,
+                               @Value("${inventory.orders.dedupe.memory-size:100000}") long memorySize,
+                               @Value("${inventory.orders.dedupe.retention:7d}") Duration retention) {
+        this.processedOrderRepository = processedOrderRepository;
+        this.recentlyProcessed = Caffeine.newBuilder()
+                .maximumSize(memorySize)
+                .expireAfterWrite(retention)
+                .build();
+        this.retention = retention;
+    }
+
+    /**
+     * Returns the ids that have not been applied yet, in their original order and without repeats
+     */
+    public List<ProcessedOrderId> filterUnprocessed(Collection<ProcessedOrderId> ids) {
+        Set<ProcessedOrderId> candidates = new HashSet<>();
+        for (ProcessedOrderId id : ids) {
+            if (recentlyProcessed.getIfPresent(id) == null) {
+                candidates.add(id);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        for (ProcessedOrderId existing : processedOrderRepository.findExistingIds(candidates)) {
+            recentlyProcessed.put(existing, Boolean.TRUE);
+            candidates.remove(existing);
+        }
+
+        List<ProcessedOrderId> unprocessed = new ArrayList<>(candidates.size());
+        for (ProcessedOrderId id : ids) {
+            if (candidates.remove(id)) {
+                unprocessed.add(id);
+            }
+        }
+        return unprocessed;
+    }
+
+    /**
+     * Records the ids as applied. Must run inside the transaction that applies their stock changes;
+     * the in-memory set is only updated once that transaction commits.
+     */
+    @Transactional
+    public void markProcessed(Collection<ProcessedOrderId> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        processedOrderRepository.saveAll(ids.stream().map(ProcessedOrder::new).toList());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(id -> recentlyProcessed.put(id, Boolean.TRUE));
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.orders.dedupe.prune-interval-ms:3600000}")
+    @Transactional
+    public void pruneExpired() {
+        int deleted = processedOrderRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Pruned {} processed order records older than {}", deleted, retention);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging.serialization;
+
+import com.go5u.foodflowplatform.inventory.domain.model.events.InventoryEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderItemEvent;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary encoding of the order and inventory events.
+ * <p>
+ * Layout: a format byte, the schema id as a varint, then the fields of the schema in order. Each record
+ * starts with a bit mask of its non-null fields; integers are zigzag varints, strings and decimals are
+ * length-prefixed, and timestamps are epoch seconds plus nanos (LocalDateTime read as UTC).
+ * There are no field names or type headers on the wire.
+ * <p>
+ * Inventory events are written with v2, which appends the estimated time to stockout; v1 payloads still
+ * decode, with that field left null.
+ */
+public class BinaryEventCodec {
+
+    public static final int ORDER_EVENT_V1 = 1;
+    public static final int INVENTORY_EVENT_V1 = 2;
+    public static final int INVENTORY_EVENT_V2 = 3;
+
+    private static final byte FORMAT = 1;
+
+    private final EventSchemaRegistry schemaRegistry;
+
+    public BinaryEventCodec() {
+        this.schemaRegistry = new EventSchemaRegistry();
+        schemaRegistry.register(new EventSchemaRegistry.Schema(ORDER_EVENT_V1, OrderEvent.class, 1));
+        schemaRegistry.register(new EventSchemaRegistry.Schema(INVENTORY_EVENT_V1, InventoryEvent.class, 1));
+        schemaRegistry.register(new EventSchemaRegistry.Schema(INVENTORY_EVENT_V2, InventoryEvent.class, 2));
+    }
+
+    public boolean supports(Class<?> type) {
+        return schemaRegistry.latestFor(type).isPresent();
+    }
+
+    public byte[] encode(Object event) {
+        EventSchemaRegistry.Schema schema = schemaRegistry.latestFor(event.getClass())
+                .orElseThrow(() -> new IllegalArgumentException("No binary schema for " + event.getClass().getName()));
+
+        Writer writer = new Writer();
+        writer.writeByte(FORMAT);
+        writer.writeVarint(schema.id());
+        switch (schema.id()) {
+            case ORDER_EVENT_V1 -> writeOrderEvent(writer, (OrderEvent) event);
+            case INVENTORY_EVENT_V2 -> writeInventoryEvent(writer, (InventoryEvent) event);
+            default -> throw new IllegalStateException("No writer for schema " + schema);
+        }
+        return writer.toByteArray();
+    }
+
+    public Object decode(byte[] data) {
+        Reader reader = new Reader(data);
+        byte format = reader.readByte();
+        if (format != FORMAT) {
+            throw new IllegalArgumentException("Unsupported binary event format: " + format);
+        }
+        EventSchemaRegistry.Schema schema = schemaRegistry.byId((int) reader.readVarint());
+        return switch (schema.id()) {
+            case ORDER_EVENT_V1 -> readOrderEvent(reader);
+            case INVENTORY_EVENT_V1 -> readInventoryEvent(reader, 1);
+            case INVENTORY_EVENT_V2 -> readInventoryEvent(reader, 2);
+            default -> throw new IllegalStateException("No reader for schema " + schema);
+        };
+    }
+
+    private void writeOrderEvent(Writer writer, OrderEvent event) {
+        writer.writePresence(event.getOrderId(), event.getItems(), event.getStatus(),
+                event.getTimestamp(), event.getTableNumber(), event.getUserId());
+        writer.writeLong(event.getOrderId());
+        if (event.getItems() != null) {
+            writer.writeVarint(event.getItems().size());
+            for (OrderItemEvent item : event.getItems()) {
+                writer.writePresence(item.getDishId(), item.getDishName(), item.getQuantity(), item.getPrice());
+                writer.writeLong(item.getDishId());
+                writer.writeString(item.getDishName());
+                writer.writeInt(item.getQuantity());
+                writer.writeDecimal(item.getPrice());
+            }
+        }
+        writer.writeString(event.getStatus());
+        writer.writeTimestamp(event.getTimestamp());
+        writer.writeInt(event.getTableNumber());
+        writer.writeLong(event.getUserId());
+    }
+
+    private OrderEvent readOrderEvent(Reader reader) {
+        long present = reader.readVarint();
+        OrderEvent event = new OrderEvent();
+        event.setOrderId(reader.readLong(present, 0));
+        if (isPresent(present, 1)) {
+            int size = (int) reader.readVarint();
+            List<OrderItemEvent> items = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                long itemPresent = reader.readVarint();
+                OrderItemEvent item = new OrderItemEvent();
+                item.setDishId(reader.readLong(itemPresent, 0));
+                item.setDishName(reader.readString(itemPresent, 1));
+                item.setQuantity(reader.readInt(itemPresent, 2));
+                item.setPrice(reader.readDecimal(itemPresent, 3));
+                items.add(item);
+            }
+            event.setItems(items);
+        }
+        event.setStatus(reader.readString(present, 2));
+        event.setTimestamp(reader.readTimestamp(present, 3));
+        event.setTableNumber(reader.readInt(present, 4));
+        event.setUserId(reader.readLong(present, 5));
+        return event;
+    }
+
+    private void writeInventoryEvent(Writer writer, InventoryEvent event) {
+        writer.writePresence(event.getProductId(), event.getProductName(), event.getAvailableQuantity(),
+                event.getStatus(), event.getTimestamp(), event.getEstimatedSecondsToStockout());
+        writer.writeLong(event.getProductId());
+        writer.writeString(event.getProductName());
+        writer.writeInt(event.getAvailableQuantity());
+        writer.writeString(event.getStatus());
+        writer.writeTimestamp(event.getTimestamp());
+        writer.writeLong(event.getEstimatedSecondsToStockout());
+    }
+
+    private InventoryEvent readInventoryEvent(Reader reader, int version) {
+        long present = reader.readVarint();
+        InventoryEvent event = new InventoryEvent();
+        event.setProductId(reader.readLong(present, 0));
+        event.setProductName(reader.readString(present, 1));
+        event.setAvailableQuantity(reader.readInt(present, 2));
+        event.setStatus(reader.readString(present, 3));
+        event.setTimestamp(reader.readTimestamp(present, 4));
+        if (version >= 2) {
+            event.setEstimatedSecondsToStockout(reader.readLong(present, 5));
+        }
+        return event;
+    }
+
+    private static boolean isPresent(long present, int field) {
+        return (present & (1L << field)) != 0;
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer = new byte[64];
+        private int size;
+
+        void writeByte(byte value) {
+            ensureCapacity(1);
+            buffer[size++] = value;
+        }
+
+        void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writePresence(Object... fields) {
+            long present = 0;
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i] != null) {
+                    present |= 1L << i;
+                }
+            }
+            writeVarint(present);
+        }
+
+        void writeLong(Long value) {
+            if (value != null) {
+                writeVarint((value << 1) ^ (value >> 63));
+            }
+        }
+
+        void writeInt(Integer value) {
+            if (value != null) {
+                writeLong(value.longValue());
+            }
+        }
+
+        void writeString(String value) {
+            if (value != null) {
+                writeBytes(value.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        void writeDecimal(BigDecimal value) {
+            if (value != null) {
+                writeVarint(value.scale() & 0xFFFFFFFFL);
+                writeBytes(value.unscaledValue().toByteArray());
+            }
+        }
+
+        void writeTimestamp(LocalDateTime value) {
+            if (value != null) {
+                writeLong(value.toEpochSecond(ZoneOffset.UTC));
+                writeVarint(value.getNano());
+            }
+        }
+
+        private void writeBytes(byte[] bytes) {
+            writeVarint(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        byte readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Truncated binary event");
+            }
+            return data[position++];
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in binary event");
+        }
+
+        Long readLong(long present, int field) {
+            if (!isPresent(present, field)) {
+                return null;
+            }
+            return zigzag(readVarint());
+        }
+
+        Integer readInt(long present, int field) {
+            Long value = readLong(present, field);
+            return value == null ? null : Math.toIntExact(value);
+        }
+
+        String readString(long present, int field) {
+            if (!isPresent(present, field)) {
+                return null;
+            }
+            int length = readLength();
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        BigDecimal readDecimal(long present, int field) {
+            if (!isPresent(present, field)) {
+                return null;
+            }
+            int scale = (int) readVarint();
+            return new BigDecimal(new BigInteger(readBytes()), scale);
+        }
+
+        LocalDateTime readTimestamp(long present, int field) {
+            if (!isPresent(present, field)) {
+                return null;
+            }
+            long seconds = zigzag(readVarint());
+            return LocalDateTime.ofEpochSecond(seconds, (int) readVarint(), ZoneOffset.UTC);
+        }
+
+        private byte[] readBytes() {
+            int length = readLength();
+            byte[] bytes = Arrays.copyOfRange(data, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        private int readLength() {
+            long length = readVarint();
+            if (length > data.length - position) {
+                throw new IllegalArgumentException("Truncated binary event");
+            }
+            return (int) length;
+        }
+
+        private static long zigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
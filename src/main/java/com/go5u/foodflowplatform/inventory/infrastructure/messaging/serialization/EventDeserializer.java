@@ -0,0 +1,50 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging.serialization;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Kafka value deserializer for the inventory events. Records marked with the binary content type are
+ * decoded with {@link BinaryEventCodec}; records without the header (older producers) or marked as JSON
+ * go through Spring's JsonDeserializer, configured with the same consumer properties as before.
+ */
+public class EventDeserializer implements Deserializer<Object> {
+
+    private static final byte[] BINARY = EventSerializer.BINARY_CONTENT_TYPE.getBytes(StandardCharsets.UTF_8);
+
+    private final BinaryEventCodec binaryCodec = new BinaryEventCodec();
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        Header contentType = headers.lastHeader(EventSerializer.CONTENT_TYPE_HEADER);
+        if (contentType != null && Arrays.equals(contentType.value(), BINARY)) {
+            return binaryCodec.decode(data);
+        }
+        return jsonDeserializer.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
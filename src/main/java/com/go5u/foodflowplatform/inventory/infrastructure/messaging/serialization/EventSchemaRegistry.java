@@ -0,0 +1,51 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging.serialization;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process stand-in for a schema registry. Every binary message starts with the id of the schema it was
+ * written with; readers look the id up here to know the payload type and field layout.
+ * <p>
+ * Evolution rules: a schema id is never reused or changed. A new layout of a type gets a new id and
+ * version, writers switch to it, and readers keep decoding every older id still on the topics.
+ */
+public final class EventSchemaRegistry {
+
+    /**
+     * @param id value written in the message header
+     * @param type payload class the schema describes
+     * @param version layout version of that type
+     */
+    public record Schema(int id, Class<?> type, int version) {}
+
+    private final Map<Integer, Schema> schemasById = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Schema> latestByType = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a schema; the highest version of each type is the one used for writing
+     */
+    public void register(Schema schema) {
+        Schema existing = schemasById.putIfAbsent(schema.id(), schema);
+        if (existing != null && !existing.equals(schema)) {
+            throw new IllegalArgumentException("Schema id " + schema.id() + " is already registered as " + existing);
+        }
+        latestByType.merge(schema.type(), schema, (current, added) -> added.version() > current.version() ? added : current);
+    }
+
+    public Schema byId(int id) {
+        Schema schema = schemasById.get(id);
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown event schema id: " + id);
+        }
+        return schema;
+    }
+
+    /**
+     * Schema to write a payload of the given type with, empty if the type has no binary encoding
+     */
+    public Optional<Schema> latestFor(Class<?> type) {
+        return Optional.ofNullable(latestByType.get(type));
+    }
+}
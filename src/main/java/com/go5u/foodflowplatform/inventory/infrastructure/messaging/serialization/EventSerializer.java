@@ -0,0 +1,61 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging.serialization;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Kafka value serializer for the inventory events. With {@code inventory.codec.format=binary} the events
+ * that have a binary schema are written with {@link BinaryEventCodec}; everything else, and every event in
+ * the default {@code json} format, goes through Spring's JsonSerializer. The chosen encoding is stated in
+ * the {@value #CONTENT_TYPE_HEADER} header, replacing any value copied from an earlier record.
+ */
+public class EventSerializer implements Serializer<Object> {
+
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+    public static final String BINARY_CONTENT_TYPE = "application/vnd.foodflow.event+binary";
+    public static final String JSON_CONTENT_TYPE = "application/json";
+    public static final String FORMAT_CONFIG = "inventory.codec.format";
+
+    private static final byte[] BINARY = BINARY_CONTENT_TYPE.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] JSON = JSON_CONTENT_TYPE.getBytes(StandardCharsets.UTF_8);
+
+    private final BinaryEventCodec binaryCodec = new BinaryEventCodec();
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+    private boolean binaryEnabled;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        binaryEnabled = "binary".equalsIgnoreCase(String.valueOf(configs.get(FORMAT_CONFIG)));
+        jsonSerializer.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return data != null && binaryEnabled && binaryCodec.supports(data.getClass())
+                ? binaryCodec.encode(data)
+                : jsonSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data == null) {
+            return null;
+        }
+        headers.remove(CONTENT_TYPE_HEADER);
+        if (binaryEnabled && binaryCodec.supports(data.getClass())) {
+            headers.add(CONTENT_TYPE_HEADER, BINARY);
+            return binaryCodec.encode(data);
+        }
+        headers.add(CONTENT_TYPE_HEADER, JSON);
+        return jsonSerializer.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
@@ -0,0 +1,98 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.persistence.jdbc;
+
+import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts new products with plain JDBC batches. Hibernate cannot batch inserts of {@code IDENTITY} entities
+ * because it needs each generated id right away; a JDBC batch gets all of them back at once through the
+ * generated keys, in insertion order (with {@code rewriteBatchedStatements} MySQL runs the batch as one
+ * multi-row insert). Each product gets its initial stock as its first lot and an inventory status event in
+ * the outbox, as when products are created one by one.
+ */
+@Repository
+public class ProductBulkInsertRepository {
+
+    private static final String INSERT_PRODUCT = "INSERT INTO products " +
+            "(name, quantity, expiration_date, price, user_id, reserved_quantity, reserved_millis, fraction_millis, " +
+            "stock_status, stock_unit) VALUES (?, ?, ?, ?, ?, 0, 0, 0, ?, ?)";
+    private static final String INSERT_LOT = "INSERT INTO product_items " +
+            "(product_id, expiration_date, quantity, price) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_OUTBOX_MESSAGE = "INSERT INTO inventory_outbox_messages " +
+            "(product_id, product_name, available_quantity, status, occurred_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductBulkInsertRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the products, their lots and their status events in one transaction.
+     * Products must already carry their stock status.
+     * @return generated product ids, in the order of {@code products}
+     */
+    @Transactional
+    public long[] insertAll(List<Product> products) {
+        long[] productIds = insertProducts(products);
+
+        List<Object[]> lots = new ArrayList<>(products.size());
+        List<Object[]> events = new ArrayList<>(products.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            int quantity = product.getQuantity().quantity();
+            if (quantity > 0) {
+                lots.add(new Object[]{productIds[i], Date.valueOf(product.getExpirationDate().expirationDate()),
+                        quantity, product.getPrice().price()});
+            }
+            events.add(new Object[]{productIds[i], product.getName(), product.getAvailableQuantity(),
+                    product.getStockStatus(), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_LOT, lots);
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_MESSAGE, events);
+        return productIds;
+    }
+
+    private long[] insertProducts(List<Product> products) {
+        return jdbcTemplate.execute((ConnectionCallback<long[]>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_PRODUCT, Statement.RETURN_GENERATED_KEYS)) {
+                for (Product product : products) {
+                    statement.setString(1, product.getName());
+                    statement.setInt(2, product.getQuantity().quantity());
+                    statement.setDate(3, Date.valueOf(product.getExpirationDate().expirationDate()));
+                    statement.setBigDecimal(4, product.getPrice().price());
+                    statement.setLong(5, product.getUserId());
+                    statement.setString(6, product.getStockStatus());
+                    statement.setString(7, product.getStockUnit() != null ? product.getStockUnit().name() : null);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                long[] productIds = new long[products.size()];
+                int count = 0;
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    while (keys.next() && count < productIds.length) {
+                        productIds[count++] = keys.getLong(1);
+                    }
+                }
+                if (count != productIds.length) {
+                    throw new IllegalStateException("Expected " + productIds.length + " generated product ids, got " + count);
+                }
+                return productIds;
+            }
+        });
+    }
+}
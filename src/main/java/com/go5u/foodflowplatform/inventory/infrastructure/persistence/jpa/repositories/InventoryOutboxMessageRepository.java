@@ -0,0 +1,53 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories;
+
+import com.go5u.foodflowplatform.inventory.domain.model.entities.InventoryOutboxMessage;
+import com.go5u.foodflowplatform.inventory.domain.model.projections.PendingOutboxHead;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface InventoryOutboxMessageRepository extends JpaRepository<InventoryOutboxMessage, Long> {
+
+    /**
+     * Oldest unclaimed messages that occurred up to {@code cutoff}. Rows locked by another relay that is claiming
+     * at the same moment are skipped ({@code SKIP LOCKED}, lock timeout -2) instead of waited for.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select m from InventoryOutboxMessage m where m.occurredAt <= :cutoff " +
+            "and (m.claimedUntil is null or m.claimedUntil < :now) order by m.id")
+    List<InventoryOutboxMessage> findClaimable(@Param("cutoff") LocalDateTime cutoff,
+                                               @Param("now") LocalDateTime now,
+                                               Pageable pageable);
+
+    /**
+     * First message of each product that is not among {@code ids}
+     */
+    @Query("select new com.go5u.foodflowplatform.inventory.domain.model.projections.PendingOutboxHead(m.productId, min(m.id)) " +
+            "from InventoryOutboxMessage m where m.productId in :productIds and m.id not in :ids group by m.productId")
+    List<PendingOutboxHead> findFirstOtherMessages(@Param("productIds") Collection<Long> productIds,
+                                                   @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update InventoryOutboxMessage m set m.claimedBy = :owner, m.claimedUntil = :until where m.id in :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("update InventoryOutboxMessage m set m.claimedBy = null, m.claimedUntil = null " +
+            "where m.id in :ids and m.claimedBy = :owner")
+    int releaseClaims(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+
+    @Modifying
+    @Query("delete from InventoryOutboxMessage m where m.id in :ids and m.claimedBy = :owner")
+    int deleteClaimed(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+}
@@ -0,0 +1,22 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories;
+
+import com.go5u.foodflowplatform.inventory.domain.model.entities.ProcessedOrder;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProcessedOrderId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ProcessedOrderRepository extends JpaRepository<ProcessedOrder, ProcessedOrderId> {
+
+    @Query("select p.id from ProcessedOrder p where p.id in :ids")
+    List<ProcessedOrderId> findExistingIds(@Param("ids") Collection<ProcessedOrderId> ids);
+
+    @Modifying
+    @Query("delete from ProcessedOrder p where p.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,79 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories;
+
+import com.go5u.foodflowplatform.inventory.domain.model.entities.ProductItem;
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ExpiringLot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lots are only changed while their product row is write-locked (or just updated) in the same transaction.
+ */
+public interface ProductItemRepository extends JpaRepository<ProductItem, Long> {
+
+    String EXPIRING_LOT = "select new com.go5u.foodflowplatform.inventory.domain.model.projections.ExpiringLot(" +
+            "i.Id, p.productId, p.name, i.expirationDate.expirationDate, p.quantity.quantity - p.reservedQuantity) " +
+            "from ProductItem i join i.product p ";
+
+    /**
+     * Lots of a product in consumption order (first expiring first), served by the (product, expiration) index.
+     * Depleted lots are deleted, so every returned lot has stock.
+     */
+    @Query("select i from ProductItem i where i.product.productId = :productId " +
+            "order by i.expirationDate.expirationDate, i.Id")
+    List<ProductItem> findLotsInConsumptionOrder(@Param("productId") Long productId, Pageable pageable);
+
+    @Query("select i from ProductItem i where i.product.productId = :productId " +
+            "and i.expirationDate.expirationDate = :expirationDate")
+    List<ProductItem> findLotsExpiringOn(@Param("productId") Long productId,
+                                         @Param("expirationDate") LocalDate expirationDate);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ProductItem i where i.product.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ProductItem> findByIdIn(Collection<Long> ids);
+
+    // Cursor walks over the (expiration, id) index for the expiration sweeper. Each range has a first-batch
+    // query and an "after cursor" query; the batch size comes from the Pageable.
+
+    @Query(EXPIRING_LOT + "where i.expirationDate.expirationDate < :today " +
+            "order by i.expirationDate.expirationDate, i.Id")
+    List<ExpiringLot> findExpiredLots(@Param("today") LocalDate today, Pageable pageable);
+
+    @Query(EXPIRING_LOT + "where i.expirationDate.expirationDate < :today " +
+            "and (i.expirationDate.expirationDate > :afterDate " +
+            "or (i.expirationDate.expirationDate = :afterDate and i.Id > :afterId)) " +
+            "order by i.expirationDate.expirationDate, i.Id")
+    List<ExpiringLot> findExpiredLotsAfter(@Param("today") LocalDate today,
+                                           @Param("afterDate") LocalDate afterDate,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    @Query(EXPIRING_LOT + "where i.expirationDate.expirationDate >= :today and i.expirationDate.expirationDate <= :until " +
+            "order by i.expirationDate.expirationDate, i.Id")
+    List<ExpiringLot> findLotsExpiringBetween(@Param("today") LocalDate today,
+                                              @Param("until") LocalDate until,
+                                              Pageable pageable);
+
+    @Query(EXPIRING_LOT + "where i.expirationDate.expirationDate >= :today and i.expirationDate.expirationDate <= :until " +
+            "and (i.expirationDate.expirationDate > :afterDate " +
+            "or (i.expirationDate.expirationDate = :afterDate and i.Id > :afterId)) " +
+            "order by i.expirationDate.expirationDate, i.Id")
+    List<ExpiringLot> findLotsExpiringBetweenAfter(@Param("today") LocalDate today,
+                                                   @Param("until") LocalDate until,
+                                                   @Param("afterDate") LocalDate afterDate,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+}
@@ -1,14 +1,190 @@
 package com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories;
 
 import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ExpiringProduct;
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ProductStock;
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ProductStockUnit;
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ProductSummary;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.BurnRate;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockThresholds;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    String PRODUCT_SUMMARY = "select new com.go5u.foodflowplatform.inventory.domain.model.projections.ProductSummary(" +
+            "p.productId, p.name, p.quantity.quantity, p.expirationDate.expirationDate, p.price.price) from Product p ";
+
+    String UNTRACKED_PRODUCT = "select new com.go5u.foodflowplatform.inventory.domain.model.projections.ExpiringProduct(" +
+            "p.productId, p.name, p.expirationDate.expirationDate, p.quantity.quantity - p.reservedQuantity) from Product p " +
+            "where p.quantity.quantity > 0 and not exists (select 1 from ProductItem i where i.product.productId = p.productId) ";
+
+    String EXPIRED_UNTRACKED_PRODUCT = UNTRACKED_PRODUCT + "and p.expirationDate.expirationDate < :today ";
+
+    String EXPIRING_UNTRACKED_PRODUCT = UNTRACKED_PRODUCT +
+            "and p.expirationDate.expirationDate >= :today and p.expirationDate.expirationDate <= :until ";
+
     Optional<Product> findByName(String name);
     Optional<Product> findByNameAndUserId(String name, Long userId);
     List<Product> findByUserId(Long userId);
     Optional<Product> findByProductIdAndUserId(Long productId, Long userId);
+
+    /**
+     * Loads and write-locks the named products of a user, always in productId order so that
+     * concurrent transactions acquire the row locks in the same sequence.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Product> findByUserIdAndNameInOrderByProductIdAsc(Long userId, Collection<String> names);
+
+    /**
+     * Names of all products of a user
+     */
+    @Query("select p.name from Product p where p.userId = :userId")
+    List<String> findNamesByUserId(@Param("userId") Long userId);
+
+    /**
+     * Product ids of the named products of a user, read without locking
+     */
+    @Query(PRODUCT_SUMMARY + "where p.userId = :userId and p.name in :names")
+    List<ProductSummary> findSummariesByUserIdAndNameIn(@Param("userId") Long userId, @Param("names") Collection<String> names);
+
+    /**
+     * Stock units of the named products of several users, for the products that have one
+     */
+    @Query("select new com.go5u.foodflowplatform.inventory.domain.model.projections.ProductStockUnit(" +
+            "p.userId, p.name, p.stockUnit) from Product p " +
+            "where p.userId in :userIds and p.name in :names and p.stockUnit is not null")
+    List<ProductStockUnit> findStockUnitsByUserIdInAndNameIn(@Param("userIds") Collection<Long> userIds,
+                                                             @Param("names") Collection<String> names);
+
+    /**
+     * Write-locks products by id, in productId order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Product> findByProductIdInOrderByProductIdAsc(Collection<Long> productIds);
+
+    /**
+     * Decreases the stock in a single statement, only if enough is available outside active reservations.
+     * @return 1 if the stock was decreased, 0 if the product does not exist or has insufficient stock
+     */
+    @Modifying
+    @Query("update Product p set p.quantity.quantity = p.quantity.quantity - :amount " +
+            "where p.productId = :productId and p.quantity.quantity - p.reservedQuantity >= :amount")
+    int decreaseQuantityIfAvailable(@Param("productId") Long productId, @Param("amount") int amount);
+
+    /**
+     * Increases the stock in a single statement
+     * @return 1 if the stock was increased, 0 if the product does not exist
+     */
+    @Modifying
+    @Query("update Product p set p.quantity.quantity = p.quantity.quantity + :amount where p.productId = :productId")
+    int increaseQuantity(@Param("productId") Long productId, @Param("amount") int amount);
+
+    /**
+     * Sets the expiration date to the earliest expiring lot after a lot change made through an UPDATE
+     */
+    @Modifying
+    @Query("update Product p set p.expirationDate.expirationDate = :expirationDate where p.productId = :productId")
+    int updateExpirationDate(@Param("productId") Long productId, @Param("expirationDate") LocalDate expirationDate);
+
+    @Query("select new com.go5u.foodflowplatform.inventory.domain.model.projections.ProductStock(" +
+            "p.productId, p.name, p.quantity.quantity, p.reservedQuantity, p.stockStatus, p.burnRate) " +
+            "from Product p where p.productId = :productId")
+    Optional<ProductStock> findStockByProductId(@Param("productId") Long productId);
+
+    @Query("select p.stockThresholds from Product p where p.productId = :productId and p.stockThresholds is not null")
+    Optional<StockThresholds> findStockThresholdsByProductId(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("update Product p set p.stockStatus = :stockStatus where p.productId = :productId")
+    int updateStockStatus(@Param("productId") Long productId, @Param("stockStatus") String stockStatus);
+
+    @Modifying
+    @Query("update Product p set p.burnRate.decayedUnits = :#{#burnRate.decayedUnits()}, " +
+            "p.burnRate.observedSince = :#{#burnRate.observedSince()}, " +
+            "p.burnRate.lastConsumedAt = :#{#burnRate.lastConsumedAt()} where p.productId = :productId")
+    int updateBurnRate(@Param("productId") Long productId, @Param("burnRate") BurnRate burnRate);
+
+    // Keyset pagination over product summaries. Each ordering has a first-page query and an
+    // "after cursor" query; the limit comes from the Pageable (page 0 only, no count query).
+
+    @Query(PRODUCT_SUMMARY + "where p.userId = :userId order by p.productId")
+    List<ProductSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(PRODUCT_SUMMARY + "where p.userId = :userId and p.productId > :afterId order by p.productId")
+    List<ProductSummary> findSummariesByUserIdAfter(@Param("userId") Long userId,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable pageable);
+
+    @Query(PRODUCT_SUMMARY + "where p.userId = :userId order by p.name, p.productId")
+    List<ProductSummary> findSummariesByUserIdOrderByName(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(PRODUCT_SUMMARY + "where p.userId = :userId " +
+            "and (p.name > :afterName or (p.name = :afterName and p.productId > :afterId)) " +
+            "order by p.name, p.productId")
+    List<ProductSummary> findSummariesByUserIdOrderByNameAfter(@Param("userId") Long userId,
+                                                               @Param("afterName") String afterName,
+                                                               @Param("afterId") Long afterId,
+                                                               Pageable pageable);
+
+    @Query(PRODUCT_SUMMARY + "where p.userId = :userId order by p.expirationDate.expirationDate, p.productId")
+    List<ProductSummary> findSummariesByUserIdOrderByExpiration(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(PRODUCT_SUMMARY + "where p.userId = :userId " +
+            "and (p.expirationDate.expirationDate > :afterDate " +
+            "or (p.expirationDate.expirationDate = :afterDate and p.productId > :afterId)) " +
+            "order by p.expirationDate.expirationDate, p.productId")
+    List<ProductSummary> findSummariesByUserIdOrderByExpirationAfter(@Param("userId") Long userId,
+                                                                     @Param("afterDate") LocalDate afterDate,
+                                                                     @Param("afterId") Long afterId,
+                                                                     Pageable pageable);
+
+    // Rows stored without expiration date sort first (MySQL orders NULL before any value), so a page that
+    // ends on one continues with the remaining undated rows and then every dated one.
+    @Query(PRODUCT_SUMMARY + "where p.userId = :userId " +
+            "and (p.expirationDate.expirationDate is not null or p.productId > :afterId) " +
+            "order by p.expirationDate.expirationDate, p.productId")
+    List<ProductSummary> findSummariesByUserIdOrderByExpirationAfterUndated(@Param("userId") Long userId,
+                                                                            @Param("afterId") Long afterId,
+                                                                            Pageable pageable);
+
+    // Products whose stock is not tracked in lots (created before lot tracking) and has expired,
+    // walked over the (expiration, productId) index with a cursor.
+
+    @Query(EXPIRED_UNTRACKED_PRODUCT + "order by p.expirationDate.expirationDate, p.productId")
+    List<ExpiringProduct> findExpiredUntrackedProducts(@Param("today") LocalDate today, Pageable pageable);
+
+    @Query(EXPIRED_UNTRACKED_PRODUCT + "and (p.expirationDate.expirationDate > :afterDate " +
+            "or (p.expirationDate.expirationDate = :afterDate and p.productId > :afterId)) " +
+            "order by p.expirationDate.expirationDate, p.productId")
+    List<ExpiringProduct> findExpiredUntrackedProductsAfter(@Param("today") LocalDate today,
+                                                            @Param("afterDate") LocalDate afterDate,
+                                                            @Param("afterId") Long afterId,
+                                                            Pageable pageable);
+
+    // Products whose stock is not tracked in lots and expires within the warning window
+
+    @Query(EXPIRING_UNTRACKED_PRODUCT + "order by p.expirationDate.expirationDate, p.productId")
+    List<ExpiringProduct> findUntrackedProductsExpiringBetween(@Param("today") LocalDate today,
+                                                               @Param("until") LocalDate until,
+                                                               Pageable pageable);
+
+    @Query(EXPIRING_UNTRACKED_PRODUCT + "and (p.expirationDate.expirationDate > :afterDate " +
+            "or (p.expirationDate.expirationDate = :afterDate and p.productId > :afterId)) " +
+            "order by p.expirationDate.expirationDate, p.productId")
+    List<ExpiringProduct> findUntrackedProductsExpiringBetweenAfter(@Param("today") LocalDate today,
+                                                                    @Param("until") LocalDate until,
+                                                                    @Param("afterDate") LocalDate afterDate,
+                                                                    @Param("afterId") Long afterId,
+                                                                    Pageable pageable);
 }
@@ -0,0 +1,20 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories;
+
+import com.go5u.foodflowplatform.inventory.domain.model.entities.ReplicatedDish;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ReplicatedDishRepository extends JpaRepository<ReplicatedDish, Long> {
+
+    List<ReplicatedDish> findByDeletedFalse();
+
+    /**
+     * Reads a dish for a change, locking it so changes of the same dish from several instances apply one at a time
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ReplicatedDish> findWithLockByDishId(Long dishId);
+}
@@ -0,0 +1,35 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories;
+
+import com.go5u.foodflowplatform.inventory.domain.model.entities.StockHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Holds are only changed while their products are write-locked, so readers first pick candidate holds
+ * without locking, lock the products, and then re-read the holds with {@link #findByIdIn}.
+ */
+public interface StockHoldRepository extends JpaRepository<StockHold, Long> {
+
+    List<StockHold> findByOrderId(Long orderId);
+
+    /**
+     * Oldest expired holds first, served by the expires_at index
+     */
+    List<StockHold> findByExpiresAtLessThanEqualOrderByExpiresAtAsc(LocalDateTime now, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StockHold> findByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from StockHold h where h.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
@@ -0,0 +1,40 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories;
+
+import com.go5u.foodflowplatform.inventory.domain.model.entities.SweepCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Leases and cursor moves are conditional UPDATEs, so two sweeper instances never both hold a cursor
+ */
+public interface SweepCursorRepository extends JpaRepository<SweepCursor, String> {
+
+    /**
+     * Takes or renews the lease of a cursor unless another instance holds an unexpired one
+     * @return 1 if leased
+     */
+    @Modifying
+    @Query("update SweepCursor c set c.leasedBy = :owner, c.leasedUntil = :until where c.name = :name " +
+            "and (c.leasedUntil is null or c.leasedUntil < :now or c.leasedBy = :owner)")
+    int lease(@Param("name") String name, @Param("owner") String owner,
+              @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    /**
+     * Moves the cursor, only while the lease is still held by {@code owner}
+     * @return 1 if moved
+     */
+    @Modifying
+    @Query("update SweepCursor c set c.cursorDate = :date, c.cursorId = :id " +
+            "where c.name = :name and c.leasedBy = :owner")
+    int advance(@Param("name") String name, @Param("owner") String owner,
+                @Param("date") LocalDate date, @Param("id") Long id);
+
+    @Modifying
+    @Query("update SweepCursor c set c.leasedBy = null, c.leasedUntil = null where c.name = :name and c.leasedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
@@ -0,0 +1,245 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.scheduling;
+
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ExpireProductLotsCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ExpireUntrackedStockCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.entities.InventoryOutboxMessage;
+import com.go5u.foodflowplatform.inventory.domain.model.entities.SweepCursor;
+import com.go5u.foodflowplatform.inventory.domain.model.events.InventoryEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ExpiringLot;
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ExpiringProduct;
+import com.go5u.foodflowplatform.inventory.domain.services.ProductCommandService;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.InventoryOutboxMessageRepository;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductItemRepository;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductRepository;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.SweepCursorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Finds expired and soon-to-expire stock by walking the expiration-date indexes with a (date, id) cursor,
+ * one bounded batch at a time:
+ * <ul>
+ *     <li>expired lots: stock removed in one short transaction per batch, EXPIRED queued in the outbox</li>
+ *     <li>expired products without lots (stock from before lot tracking): same, per product</li>
+ *     <li>lots and products without lots expiring within the warning window: EXPIRING_SOON queued in the outbox</li>
+ * </ul>
+ * The untracked-product and expiring-soon cursors are stored in {@link SweepCursor} rows and moved in the same
+ * transaction as the batch they cover, so each row is visited once, also across restarts. Each cursor is leased
+ * for the walk, so with several instances only one walks a range at a time. A lot received with a date the
+ * expiring-soon cursor has already passed is not warned about.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.expiration.sweep.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductExpirationSweeper {
+
+    static final String UNTRACKED_EXPIRED_CURSOR = "untracked-expired";
+    static final String EXPIRING_SOON_LOTS_CURSOR = "expiring-soon-lots";
+    static final String EXPIRING_SOON_UNTRACKED_CURSOR = "expiring-soon-untracked";
+
+    private final ProductItemRepository productItemRepository;
+    private final ProductRepository productRepository;
+    private final ProductCommandService productCommandService;
+    private final InventoryOutboxMessageRepository outboxRepository;
+    private final SweepCursorRepository sweepCursorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerTick;
+    private final Duration expiringSoonWindow;
+    private final Duration leaseTtl;
+    private final String sweeperId = UUID.randomUUID().toString();
+
+    public ProductExpirationSweeper(ProductItemRepository productItemRepository,
+                                    ProductRepository productRepository,
+                                    ProductCommandService productCommandService,
+                                    InventoryOutboxMessageRepository outboxRepository,
+                                    SweepCursorRepository sweepCursorRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${inventory.expiration.sweep.batch-size:500}") int batchSize,
+                                    @Value("${inventory.expiration.sweep.max-batches-per-tick:20}") int maxBatchesPerTick,
+                                    @Value("${inventory.expiration.expiring-soon-window:3d}") Duration expiringSoonWindow,
+                                    @Value("${inventory.expiration.sweep.lease-ttl:5m}") Duration leaseTtl) {
+        this.productItemRepository = productItemRepository;
+        this.productRepository = productRepository;
+        this.productCommandService = productCommandService;
+        this.outboxRepository = outboxRepository;
+        this.sweepCursorRepository = sweepCursorRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerTick = maxBatchesPerTick;
+        this.expiringSoonWindow = expiringSoonWindow;
+        this.leaseTtl = leaseTtl;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.expiration.sweep.interval-ms:60000}")
+    public void sweep() {
+        LocalDate today = LocalDate.now();
+        try {
+            int lots = expireLots(today);
+            int products = expireUntrackedProducts(today);
+            int warnings = warnExpiringSoon(today);
+            if (lots + products + warnings > 0) {
+                log.info("Expiration sweep: {} lots expired, {} untracked products expired, {} expiring-soon events",
+                        lots, products, warnings);
+            }
+        } catch (Exception e) {
+            log.error("Error sweeping expired stock: {}", e.getMessage(), e);
+        }
+    }
+
+    private int expireLots(LocalDate today) {
+        int expired = 0;
+        // Expired lots are deleted, so this walk restarts every tick and only meets leftovers. The command
+        // re-reads the lots under lock, so instances walking it at the same time do not expire a lot twice.
+        Cursor cursor = null;
+        for (int batch = 0; batch < maxBatchesPerTick; batch++) {
+            List<ExpiringLot> lots = cursor == null
+                    ? productItemRepository.findExpiredLots(today, page())
+                    : productItemRepository.findExpiredLotsAfter(today, cursor.date(), cursor.id(), page());
+            if (lots.isEmpty()) {
+                break;
+            }
+            Set<Long> productIds = lots.stream().map(ExpiringLot::productId).collect(Collectors.toSet());
+            List<Long> lotIds = lots.stream().map(ExpiringLot::lotId).toList();
+            expired += productCommandService.handle(new ExpireProductLotsCommand(productIds, lotIds, today));
+
+            ExpiringLot last = lots.getLast();
+            cursor = new Cursor(last.expirationDate(), last.lotId());
+            if (lots.size() < batchSize) {
+                break;
+            }
+        }
+        return expired;
+    }
+
+    private int expireUntrackedProducts(LocalDate today) {
+        return walk(UNTRACKED_EXPIRED_CURSOR,
+                (cursor, page) -> cursor == null
+                        ? productRepository.findExpiredUntrackedProducts(today, page)
+                        : productRepository.findExpiredUntrackedProductsAfter(today, cursor.date(), cursor.id(), page),
+                product -> new Cursor(product.expirationDate(), product.productId()),
+                products -> productCommandService.handle(new ExpireUntrackedStockCommand(
+                        products.stream().map(ExpiringProduct::productId).toList(), today)));
+    }
+
+    private int warnExpiringSoon(LocalDate today) {
+        LocalDate until = today.plusDays(Math.max(0, expiringSoonWindow.toDays()));
+        int lots = walk(EXPIRING_SOON_LOTS_CURSOR,
+                (cursor, page) -> cursor == null
+                        ? productItemRepository.findLotsExpiringBetween(today, until, page)
+                        : productItemRepository.findLotsExpiringBetweenAfter(today, until, cursor.date(), cursor.id(), page),
+                lot -> new Cursor(lot.expirationDate(), lot.lotId()),
+                batch -> queueExpiringSoon(batch.stream()
+                        .map(lot -> new InventoryEvent(lot.productId(), lot.productName(), lot.availableQuantity(),
+                                "EXPIRING_SOON", LocalDateTime.now()))
+                        .toList()));
+        int products = walk(EXPIRING_SOON_UNTRACKED_CURSOR,
+                (cursor, page) -> cursor == null
+                        ? productRepository.findUntrackedProductsExpiringBetween(today, until, page)
+                        : productRepository.findUntrackedProductsExpiringBetweenAfter(today, until, cursor.date(), cursor.id(), page),
+                product -> new Cursor(product.expirationDate(), product.productId()),
+                batch -> queueExpiringSoon(batch.stream()
+                        .map(product -> new InventoryEvent(product.productId(), product.productName(),
+                                product.availableQuantity(), "EXPIRING_SOON", LocalDateTime.now()))
+                        .toList()));
+        return lots + products;
+    }
+
+    /**
+     * Queues one event per product, however many of its lots enter the window
+     */
+    private int queueExpiringSoon(List<InventoryEvent> events) {
+        Map<Long, InventoryEvent> byProduct = new LinkedHashMap<>();
+        events.forEach(event -> byProduct.putIfAbsent(event.getProductId(), event));
+        outboxRepository.saveAll(byProduct.values().stream().map(InventoryOutboxMessage::new).toList());
+        return byProduct.size();
+    }
+
+    /**
+     * Walks a range from its stored cursor, up to {@code maxBatchesPerTick} batches. Each batch is applied and
+     * the cursor moved past it in one transaction; the walk stops if another instance holds the cursor or has
+     * taken it over.
+     * @return sum of what {@code apply} returned for each batch
+     */
+    private <T> int walk(String cursorName,
+                         BiFunction<Cursor, Pageable, List<T>> fetch,
+                         Function<T, Cursor> position,
+                         ToIntFunction<List<T>> apply) {
+        if (!lease(cursorName)) {
+            log.debug("Sweep cursor {} is leased by another instance", cursorName);
+            return 0;
+        }
+        try {
+            SweepCursor stored = sweepCursorRepository.findById(cursorName).orElseThrow();
+            Cursor cursor = stored.getCursorDate() == null ? null : new Cursor(stored.getCursorDate(), stored.getCursorId());
+            int total = 0;
+            for (int batch = 0; batch < maxBatchesPerTick; batch++) {
+                List<T> rows = fetch.apply(cursor, page());
+                if (rows.isEmpty()) {
+                    break;
+                }
+                Cursor next = position.apply(rows.getLast());
+                Integer applied = transactionTemplate.execute(status -> {
+                    if (sweepCursorRepository.advance(cursorName, sweeperId, next.date(), next.id()) == 0) {
+                        status.setRollbackOnly();
+                        return null;
+                    }
+                    return apply.applyAsInt(rows);
+                });
+                if (applied == null) {
+                    log.warn("Lost the lease of sweep cursor {}, stopping its walk", cursorName);
+                    break;
+                }
+                total += applied;
+                cursor = next;
+                if (rows.size() < batchSize) {
+                    break;
+                }
+            }
+            return total;
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> sweepCursorRepository.release(cursorName, sweeperId));
+        }
+    }
+
+    private boolean lease(String cursorName) {
+        if (!sweepCursorRepository.existsById(cursorName)) {
+            try {
+                sweepCursorRepository.saveAndFlush(new SweepCursor(cursorName));
+            } catch (DataIntegrityViolationException e) {
+                // Created by another instance at the same moment
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Integer leased = transactionTemplate.execute(status ->
+                sweepCursorRepository.lease(cursorName, sweeperId, now, now.plus(leaseTtl)));
+        return leased != null && leased > 0;
+    }
+
+    private Pageable page() {
+        return PageRequest.ofSize(batchSize);
+    }
+
+    private record Cursor(LocalDate date, Long id) {}
+}
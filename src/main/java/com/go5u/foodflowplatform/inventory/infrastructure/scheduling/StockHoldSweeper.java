@@ -0,0 +1,39 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.scheduling;
+
+import com.go5u.foodflowplatform.inventory.domain.services.ProductCommandService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Returns the stock of expired holds to the available stock. Each round releases the oldest expired
+ * holds in batches (one transaction per batch) until none are left.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.reservations.sweep.enabled", havingValue = "true", matchIfMissing = true)
+public class StockHoldSweeper {
+
+    private final ProductCommandService productCommandService;
+    private final int batchSize;
+
+    public StockHoldSweeper(ProductCommandService productCommandService,
+                            @Value("${inventory.reservations.sweep.batch-size:500}") int batchSize) {
+        this.productCommandService = productCommandService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.sweep.interval-ms:30000}")
+    public void sweep() {
+        try {
+            int released;
+            do {
+                released = productCommandService.releaseExpiredHolds(batchSize);
+            } while (released == batchSize);
+        } catch (Exception e) {
+            log.error("Error releasing expired stock holds: {}", e.getMessage(), e);
+        }
+    }
+}
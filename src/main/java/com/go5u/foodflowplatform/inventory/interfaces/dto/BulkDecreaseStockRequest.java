@@ -0,0 +1,14 @@
+package com.go5u.foodflowplatform.inventory.interfaces.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * DTO para restar stock de varios ingredientes en una sola operación
+ */
+public record BulkDecreaseStockRequest(
+        @NotEmpty(message = "Debe indicar al menos un ingrediente")
+        List<@Valid IngredientDecreaseLine> items
+) {}
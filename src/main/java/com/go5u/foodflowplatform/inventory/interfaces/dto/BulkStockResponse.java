@@ -0,0 +1,11 @@
+package com.go5u.foodflowplatform.inventory.interfaces.dto;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta de una resta masiva: o se aplicaron todas las líneas o ninguna
+ */
+public record BulkStockResponse(
+        boolean applied,
+        List<StockLineResponse> items
+) {}
@@ -0,0 +1,16 @@
+package com.go5u.foodflowplatform.inventory.interfaces.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * DTO con un ingrediente y la cantidad a restar dentro de una resta masiva
+ */
+public record IngredientDecreaseLine(
+        @NotBlank(message = "El nombre del ingrediente es obligatorio")
+        String ingredientName,
+        @NotNull(message = "La cantidad es obligatoria")
+        @Positive(message = "La cantidad debe ser positiva")
+        Double quantity
+) {}
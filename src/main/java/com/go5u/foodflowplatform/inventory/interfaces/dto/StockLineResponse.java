@@ -0,0 +1,12 @@
+package com.go5u.foodflowplatform.inventory.interfaces.dto;
+
+/**
+ * DTO con el resultado de un ingrediente dentro de una resta masiva
+ */
+public record StockLineResponse(
+        String ingredientName,
+        Integer requestedQuantity,
+        Long productId,
+        Integer availableQuantity,
+        String status
+) {}
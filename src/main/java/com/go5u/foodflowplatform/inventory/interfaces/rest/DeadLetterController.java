@@ -0,0 +1,49 @@
+package com.go5u.foodflowplatform.inventory.interfaces.rest;
+
+import com.go5u.foodflowplatform.inventory.infrastructure.messaging.OrderDeadLetterReplayer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Controller para reinyectar los eventos de pedidos que agotaron sus reintentos (orders-events-dlt)
+ */
+@Slf4j
+@Tag(name = "Dead letters", description = "Replay of order events that failed every retry")
+@RestController
+@RequestMapping("/api/v1/inventory/dead-letters")
+public class DeadLetterController {
+
+    private final OrderDeadLetterReplayer orderDeadLetterReplayer;
+
+    public DeadLetterController(OrderDeadLetterReplayer orderDeadLetterReplayer) {
+        this.orderDeadLetterReplayer = orderDeadLetterReplayer;
+    }
+
+    /**
+     * Reenvía eventos del topic de dead letters a orders-events, los más antiguos primero
+     * @param maxRecords Número máximo de eventos a reenviar
+     * @return Número de eventos reenviados
+     */
+    @PostMapping("/orders/replay")
+    @Operation(summary = "Replay dead-lettered order events", description = "Send up to maxRecords events from orders-events-dlt back to orders-events")
+    public ResponseEntity<Map<String, Object>> replayOrderEvents(@RequestParam(defaultValue = "100") int maxRecords) {
+        try {
+            int replayed = orderDeadLetterReplayer.replay(maxRecords);
+            return ResponseEntity.ok(Map.of("replayed", replayed));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error replaying dead-lettered order events: {}", e.getMessage(), e);
+            return ResponseEntity.status(503).body(Map.of("error", "Could not replay dead letters: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.go5u.foodflowplatform.inventory.interfaces.rest;
+
+import com.go5u.foodflowplatform.inventory.infrastructure.client.MenuCallGuard;
+import com.go5u.foodflowplatform.inventory.infrastructure.client.MenuClient;
+import com.go5u.foodflowplatform.inventory.infrastructure.client.RecipeReplica;
+import com.go5u.foodflowplatform.inventory.infrastructure.messaging.InventoryEventProducer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Controller con contadores internos del servicio (cachés, réplica de recetas, publicación de eventos)
+ */
+@Tag(name = "Diagnostics", description = "Internal counters of the inventory service")
+@RestController
+@RequestMapping("/api/v1/inventory/diagnostics")
+public class DiagnosticsController {
+
+    private final MenuClient menuClient;
+    private final InventoryEventProducer inventoryEventProducer;
+    private final RecipeReplica recipeReplica;
+    private final MenuCallGuard menuCallGuard;
+
+    public DiagnosticsController(MenuClient menuClient,
+                                 InventoryEventProducer inventoryEventProducer,
+                                 RecipeReplica recipeReplica,
+                                 MenuCallGuard menuCallGuard) {
+        this.menuClient = menuClient;
+        this.inventoryEventProducer = inventoryEventProducer;
+        this.recipeReplica = recipeReplica;
+        this.menuCallGuard = menuCallGuard;
+    }
+
+    @GetMapping("/menu-cache")
+    @Operation(summary = "Get menu dish cache statistics", description = "Hit, miss and eviction counters of the dish recipe cache")
+    public ResponseEntity<Map<String, Object>> getMenuCacheStats() {
+        var stats = menuClient.cacheStats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", menuClient.cacheSize());
+        body.put("hits", stats.hitCount());
+        body.put("misses", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("evictions", stats.evictionCount());
+        body.put("loadFailures", stats.loadFailureCount());
+        body.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/menu-calls")
+    @Operation(summary = "Get Menu call protection state", description = "Circuit breaker state, free bulkhead permits and current hedge delay")
+    public ResponseEntity<Map<String, Object>> getMenuCallState() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("circuitState", menuCallGuard.circuitState());
+        body.put("availableBulkheadPermits", menuCallGuard.availableBulkheadPermits());
+        body.put("hedgeDelayMs", menuCallGuard.hedgeDelay().toMillis());
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/recipe-replica")
+    @Operation(summary = "Get recipe replica statistics", description = "Replicated dishes and dishes with ingredients not yet resolved to a product")
+    public ResponseEntity<Map<String, Object>> getRecipeReplicaStats() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", recipeReplica.isEnabled());
+        body.put("dishes", recipeReplica.size());
+        body.put("unresolvedDishes", recipeReplica.unresolvedCount());
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/inventory-events")
+    @Operation(summary = "Get inventory event publishing statistics", description = "Received, coalesced, suppressed, emitted and failed inventory events")
+    public ResponseEntity<InventoryEventProducer.PublishStats> getInventoryEventStats() {
+        return ResponseEntity.ok(inventoryEventProducer.getPublishStats());
+    }
+}
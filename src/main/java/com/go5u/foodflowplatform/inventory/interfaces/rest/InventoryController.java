@@ -1,17 +1,29 @@
 package com.go5u.foodflowplatform.inventory.interfaces.rest;
 
 import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.DecreaseIngredientsStockCommand;
 import com.go5u.foodflowplatform.inventory.domain.model.queries.GetProductByNameQuery;
 import com.go5u.foodflowplatform.inventory.domain.services.ProductCommandService;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.QuantityUnit;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockLineStatus;
 import com.go5u.foodflowplatform.inventory.domain.services.ProductQueryService;
+import com.go5u.foodflowplatform.inventory.interfaces.dto.BulkDecreaseStockRequest;
+import com.go5u.foodflowplatform.inventory.interfaces.dto.BulkStockResponse;
 import com.go5u.foodflowplatform.inventory.interfaces.dto.DecreaseStockRequest;
+import com.go5u.foodflowplatform.inventory.interfaces.dto.IngredientDecreaseLine;
+import com.go5u.foodflowplatform.inventory.interfaces.dto.StockLineResponse;
 import com.go5u.foodflowplatform.inventory.interfaces.dto.StockResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.ObjectError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -58,7 +70,7 @@ public class InventoryController {
             StockResponse response = new StockResponse(
                     product.getProductId(),
                     product.getName(),
-                    product.getQuantity().quantity()
+                    product.getAvailableQuantity()
             );
 
             return ResponseEntity.ok(response);
@@ -81,7 +93,7 @@ public class InventoryController {
     public ResponseEntity<Map<String, String>> decreaseIngredientStock(
             @PathVariable Long userId,
             @PathVariable String ingredientName,
-            @RequestBody DecreaseStockRequest request) {
+            @Valid @RequestBody DecreaseStockRequest request) {
         try {
             log.info("Decreasing stock for ingredient {} by {} for user {}", ingredientName, request.quantity(), userId);
 
@@ -109,5 +121,65 @@ public class InventoryController {
             return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
         }
     }
-}
 
+    /**
+     * Resta varios ingredientes del inventario de un usuario en una sola transacción.
+     * Se aplican todas las líneas o ninguna; las líneas repetidas del mismo ingrediente se suman.
+     * Las cantidades pueden tener decimales: se restan en milésimas de la unidad de stock del producto.
+     * @param userId ID del usuario
+     * @param request Ingredientes y cantidades a restar
+     * @return Resultado por ingrediente (200 si se aplicó, 409 si alguna línea falló)
+     */
+    @PostMapping("/users/{userId}/ingredients/decrease")
+    @Operation(summary = "Decrease stock of several ingredients for a user", description = "Decrease the stock of several ingredients for a specific user in one transaction, all or nothing")
+    public ResponseEntity<?> decreaseIngredientsStock(
+            @PathVariable Long userId,
+            @Valid @RequestBody BulkDecreaseStockRequest request) {
+        try {
+            log.info("Decreasing stock of {} ingredients for user {}", request.items().size(), userId);
+
+            Map<String, Long> milliQuantities = new LinkedHashMap<>();
+            for (IngredientDecreaseLine line : request.items()) {
+                // Milésimas de la unidad de stock, para no perder las cantidades fraccionarias
+                milliQuantities.merge(line.ingredientName(), QuantityUnit.toMillis(line.quantity()), Long::sum);
+            }
+
+            var results = productCommandService.handle(new DecreaseIngredientsStockCommand(userId, milliQuantities));
+
+            boolean applied = results.stream().allMatch(result -> result.status() == StockLineStatus.APPLIED);
+            var items = results.stream()
+                    .map(result -> new StockLineResponse(
+                            result.ingredientName(),
+                            result.requestedQuantity(),
+                            result.productId(),
+                            result.availableQuantity(),
+                            result.status().name()))
+                    .toList();
+            var response = new BulkStockResponse(applied, items);
+
+            return applied
+                    ? ResponseEntity.ok(response)
+                    : ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Cannot decrease stock of ingredients for user {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error decreasing stock of ingredients for user {}: {}", userId, e.getMessage(), e);
+            return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+        }
+    }
+
+    /**
+     * Cuerpos que no cumplen las validaciones del DTO: 400 con el primer error, como el resto de errores
+     */
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidRequest(MethodArgumentNotValidException e) {
+        String message = e.getBindingResult().getAllErrors().stream()
+                .map(ObjectError::getDefaultMessage)
+                .findFirst()
+                .orElse("Invalid request");
+        log.warn("Rejected invalid request: {}", message);
+        return ResponseEntity.badRequest().body(Map.of("error", message));
+    }
+}
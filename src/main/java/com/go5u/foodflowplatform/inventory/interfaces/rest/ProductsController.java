@@ -2,23 +2,47 @@ package com.go5u.foodflowplatform.inventory.interfaces.rest;
 
 import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
 import com.go5u.foodflowplatform.inventory.domain.model.commands.CreateProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.DeleteProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.UpdateProductCommand;
 import com.go5u.foodflowplatform.inventory.domain.model.queries.GetAllProductsQuery;
+import com.go5u.foodflowplatform.inventory.domain.model.queries.GetProductBurnRateQuery;
 import com.go5u.foodflowplatform.inventory.domain.model.queries.GetProductByIdQuery;
+import com.go5u.foodflowplatform.inventory.domain.model.queries.GetProductLotsQuery;
+import com.go5u.foodflowplatform.inventory.domain.model.queries.GetProductsPageQuery;
+import com.go5u.foodflowplatform.inventory.application.internal.commandservices.ProductImportService;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductImportFormat;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductSortField;
 import com.go5u.foodflowplatform.inventory.interfaces.rest.resources.CreateProductResource;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.resources.ProductBurnRateResource;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.resources.ProductItemResource;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.resources.ProductPageResource;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.resources.ReceiveProductLotResource;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.resources.UpdateStockThresholdsResource;
 import com.go5u.foodflowplatform.inventory.interfaces.rest.transform.CreateProductCommandFromResourceAssembler;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.transform.ProductBurnRateResourceFromProjectionAssembler;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.transform.ProductImportResultResourceFromResultAssembler;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.transform.ProductItemResourceFromEntityAssembler;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.transform.ProductPageCursorAssembler;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.transform.ProductSummaryResourceFromProjectionAssembler;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.transform.ReceiveProductLotCommandFromResourceAssembler;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.transform.UpdateStockThresholdsCommandFromResourceAssembler;
+import com.go5u.foodflowplatform.inventory.domain.services.ProductCommandService;
 import com.go5u.foodflowplatform.inventory.domain.services.ProductQueryService;
-import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Tag(name = "Products", description = "Operations on products in the inventory")
@@ -26,14 +50,19 @@ import java.util.Map;
 @RequestMapping("/api/v1/products")
 public class ProductsController {
 
-    private final ProductRepository productRepository;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final ProductQueryService productQueryService;
+    private final ProductCommandService productCommandService;
+    private final ProductImportService productImportService;
 
     @Autowired
-    public ProductsController(ProductRepository productRepository,
-                              ProductQueryService productQueryService) {
-        this.productRepository = productRepository;
+    public ProductsController(ProductQueryService productQueryService,
+                              ProductCommandService productCommandService,
+                              ProductImportService productImportService) {
         this.productQueryService = productQueryService;
+        this.productCommandService = productCommandService;
+        this.productImportService = productImportService;
     }
 
     @PostMapping("/users/{userId}")
@@ -46,12 +75,12 @@ public class ProductsController {
             log.info("Creating product in DB for user {}: {}", userId, resource);
 
             CreateProductCommand command = CreateProductCommandFromResourceAssembler.toCommandFromResource(resource, userId);
-            var product = new com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product(command);
-            productRepository.save(product);
+            // The initial stock is recorded as the product's first lot
+            Long productId = productCommandService.handle(command);
 
-            log.info("Successfully created product in DB with id {} for user {}", product.getProductId(), userId);
+            log.info("Successfully created product in DB with id {} for user {}", productId, userId);
             Map<String, Object> body = new HashMap<>();
-            body.put("productId", product.getProductId());
+            body.put("productId", productId);
             return ResponseEntity.ok(body);
 
         } catch (IllegalArgumentException e) {
@@ -67,6 +96,33 @@ public class ProductsController {
         }
     }
 
+    @PostMapping(value = "/users/{userId}/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Import products in bulk from a CSV or NDJSON body",
+            description = "The body is streamed and inserted in JDBC batches. CSV needs a header row with name, quantity, " +
+                    "expirationDate and price; NDJSON has one product object per line. Invalid or duplicate rows are " +
+                    "skipped and reported by line")
+    public ResponseEntity<Object> importProducts(
+            @PathVariable Long userId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        try {
+            var format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                    ? ProductImportFormat.NDJSON : ProductImportFormat.CSV;
+            log.info("Importing products for user {} from {}", userId, format);
+            var result = productImportService.importProducts(userId, format, body);
+            return ResponseEntity.ok(ProductImportResultResourceFromResultAssembler.toResourceFromResult(result));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid product import for user {}: {}", userId, e.getMessage());
+            Map<String, Object> errorBody = new HashMap<>();
+            errorBody.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorBody);
+        } catch (Exception e) {
+            log.error("Error importing products for user {}", userId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/users/{userId}")
     @Operation(summary = "Get all products from the database for a user")
     public ResponseEntity<List<Product>> getAllProducts(@PathVariable Long userId) {
@@ -80,6 +136,45 @@ public class ProductsController {
         }
     }
 
+    @GetMapping("/users/{userId}/page")
+    @Operation(summary = "Get a page of products for a user",
+            description = "Keyset pagination over product summaries. Pass the returned nextCursor to get the next page; " +
+                    "sort by productId, name or expirationDate; optionally restrict the returned fields")
+    public ResponseEntity<ProductPageResource> getProductsPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "productId") String sort,
+            @RequestParam(required = false) Set<String> fields) {
+        try {
+            var sortField = ProductSortField.fromFieldName(sort);
+            var after = cursor == null ? null : ProductPageCursorAssembler.toCursorFromToken(cursor);
+            if (fields != null && !ProductSummaryResourceFromProjectionAssembler.FIELDS.containsAll(fields)) {
+                return ResponseEntity.badRequest().build();
+            }
+            int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+
+            // One extra row tells whether there is a next page without a count query
+            var summaries = productQueryService.handle(new GetProductsPageQuery(userId, sortField, after, pageSize + 1));
+            boolean hasMore = summaries.size() > pageSize;
+            var page = hasMore ? summaries.subList(0, pageSize) : summaries;
+
+            var items = page.stream()
+                    .map(summary -> ProductSummaryResourceFromProjectionAssembler.toResourceFromProjection(summary, fields))
+                    .toList();
+            String nextCursor = hasMore
+                    ? ProductPageCursorAssembler.toToken(ProductPageCursorAssembler.toCursorFromLastItem(page.getLast(), sortField))
+                    : null;
+            return ResponseEntity.ok(new ProductPageResource(items, nextCursor));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid product page request for user {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error fetching product page from DB for user {}", userId, e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
     @GetMapping("/users/{userId}/{productId}")
     @Operation(summary = "Get a product by its ID from the DB for a user")
     public ResponseEntity<Product> getProductById(
@@ -94,31 +189,114 @@ public class ProductsController {
         }
     }
 
+    @PostMapping("/users/{userId}/{productId}/lots")
+    @Operation(summary = "Receive stock of a product as a lot",
+            description = "Add a lot with its own expiration date and price; stock is consumed first-expiring-first-out")
+    public ResponseEntity<Map<String, Object>> receiveProductLot(
+            @PathVariable Long userId,
+            @PathVariable Long productId,
+            @RequestBody ReceiveProductLotResource resource) {
+        try {
+            log.info("Receiving lot for product {} of user {}: {}", productId, userId, resource);
+            var command = ReceiveProductLotCommandFromResourceAssembler.toCommandFromResource(resource, productId, userId);
+            Long lotId = productCommandService.handle(command);
+
+            Map<String, Object> body = new HashMap<>();
+            body.put("productItemId", lotId);
+            return ResponseEntity.ok(body);
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid lot for product {} of user {}: {}", productId, userId, e.getMessage());
+            Map<String, Object> errorBody = new HashMap<>();
+            errorBody.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorBody);
+        } catch (Exception e) {
+            log.error("Error receiving lot for product {} of user {}", productId, userId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/users/{userId}/{productId}/lots")
+    @Operation(summary = "Get the lots of a product in consumption order (first expiring first)")
+    public ResponseEntity<List<ProductItemResource>> getProductLots(
+            @PathVariable Long userId,
+            @PathVariable Long productId) {
+        try {
+            var lots = productQueryService.handle(new GetProductLotsQuery(productId, userId)).stream()
+                    .map(ProductItemResourceFromEntityAssembler::toResourceFromEntity)
+                    .toList();
+            return ResponseEntity.ok(lots);
+        } catch (Exception e) {
+            log.error("Error fetching lots of product {} for user {}", productId, userId, e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping("/users/{userId}/{productId}/burn-rate")
+    @Operation(summary = "Get the consumption rate of a product and its estimated time to stockout",
+            description = "Rate from a decayed window over recent consumption; null fields until enough has been observed")
+    public ResponseEntity<ProductBurnRateResource> getProductBurnRate(
+            @PathVariable Long userId,
+            @PathVariable Long productId) {
+        try {
+            return productQueryService.handle(new GetProductBurnRateQuery(productId, userId))
+                    .map(ProductBurnRateResourceFromProjectionAssembler::toResourceFromProjection)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            log.error("Error fetching burn rate of product {} for user {}", productId, userId, e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @PutMapping("/users/{userId}/{productId}/thresholds")
+    @Operation(summary = "Set the low-stock and recovery levels of a product",
+            description = "LOW_STOCK at or below lowStockThreshold, back to AVAILABLE only above recoveryThreshold; " +
+                    "send both as null to use the service defaults")
+    public ResponseEntity<Map<String, Object>> updateStockThresholds(
+            @PathVariable Long userId,
+            @PathVariable Long productId,
+            @RequestBody UpdateStockThresholdsResource resource) {
+        try {
+            var command = UpdateStockThresholdsCommandFromResourceAssembler.toCommandFromResource(resource, productId, userId);
+            productCommandService.handle(command);
+            log.info("Updated stock thresholds of product {} for user {}: {}", productId, userId, resource);
+            return ResponseEntity.noContent().build();
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid stock thresholds for product {} of user {}: {}", productId, userId, e.getMessage());
+            Map<String, Object> errorBody = new HashMap<>();
+            errorBody.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorBody);
+        } catch (Exception e) {
+            log.error("Error updating stock thresholds of product {} for user {}", productId, userId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PutMapping("/users/{userId}/{productId}")
-    @Operation(summary = "Update an existing product by ID in the DB for a user")
-    public ResponseEntity<Product> updateProduct(
+    @Operation(summary = "Update an existing product by ID in the DB for a user",
+            description = "Null fields keep their current value. The quantity and expiration date of a product " +
+                    "with lots follow its lots and cannot be changed here")
+    public ResponseEntity<Object> updateProduct(
             @PathVariable Long userId,
             @PathVariable Long productId,
             @RequestBody CreateProductResource resource) {
         try {
-            var existing = productRepository.findByProductIdAndUserId(productId, userId).orElse(null);
-            if (existing == null) {
+            var command = new UpdateProductCommand(productId, userId, resource.quantity(), resource.expirationDate(),
+                    resource.price(), resource.unit());
+            var updatedProduct = productCommandService.handle(command).orElse(null);
+            if (updatedProduct == null) {
                 log.warn("Product {} not found for user {}", productId, userId);
                 return ResponseEntity.notFound().build();
             }
-
-            var updatedCommand = new CreateProductCommand(
-                    existing.getName(),
-                    existing.getProductId(),
-                    resource.quantity(),
-                    resource.expirationDate(),
-                    resource.price(),
-                    userId
-            );
-            var updatedProduct = new Product(updatedCommand);
-            productRepository.save(updatedProduct);
             log.info("Successfully updated product {} in DB for user {}", productId, userId);
             return ResponseEntity.ok(updatedProduct);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid update of product {} for user {}: {}", productId, userId, e.getMessage());
+            Map<String, Object> errorBody = new HashMap<>();
+            errorBody.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorBody);
         } catch (Exception e) {
             log.error("Error updating product {} in DB for user {}", productId, userId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -131,12 +309,10 @@ public class ProductsController {
             @PathVariable Long userId,
             @PathVariable Long productId) {
         try {
-            var existing = productRepository.findByProductIdAndUserId(productId, userId).orElse(null);
-            if (existing == null) {
+            if (!productCommandService.handle(new DeleteProductCommand(productId, userId))) {
                 log.warn("Product {} not found for user {}", productId, userId);
                 return ResponseEntity.notFound().build();
             }
-            productRepository.deleteById(productId);
             log.info("Deleted product {} from DB for user {}", productId, userId);
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
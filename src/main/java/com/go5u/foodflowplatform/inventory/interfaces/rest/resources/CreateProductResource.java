@@ -8,5 +8,6 @@ public record CreateProductResource(
         Long productItemId,
         Integer quantity,
         LocalDate expirationDate,
-        BigDecimal price
+        BigDecimal price,
+        String unit
 ) {}
\ No newline at end of file
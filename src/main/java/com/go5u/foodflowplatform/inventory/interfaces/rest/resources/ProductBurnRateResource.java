@@ -0,0 +1,11 @@
+package com.go5u.foodflowplatform.inventory.interfaces.rest.resources;
+
+import java.time.LocalDateTime;
+
+public record ProductBurnRateResource(Long productId,
+                                      String name,
+                                      int availableQuantity,
+                                      Double unitsPerHour,
+                                      Long secondsToStockout,
+                                      LocalDateTime estimatedStockoutAt) {
+}
@@ -0,0 +1,12 @@
+package com.go5u.foodflowplatform.inventory.interfaces.rest.resources;
+
+import java.util.List;
+
+public record ProductImportResultResource(long imported,
+                                          long rejected,
+                                          List<RowError> errors,
+                                          boolean errorsTruncated) {
+
+    public record RowError(long line, String message) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.go5u.foodflowplatform.inventory.interfaces.rest.resources;
+
+import java.util.List;
+
+/**
+ * @param nextCursor cursor to request the following page, or null if this is the last page
+ */
+public record ProductPageResource(List<ProductSummaryResource> items,
+                                  String nextCursor) {
+}
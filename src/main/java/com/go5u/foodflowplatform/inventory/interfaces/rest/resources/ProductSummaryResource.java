@@ -0,0 +1,14 @@
+package com.go5u.foodflowplatform.inventory.interfaces.rest.resources;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductSummaryResource(Long productId,
+                                     String name,
+                                     Integer quantity,
+                                     LocalDate expirationDate,
+                                     BigDecimal price) {
+}
@@ -0,0 +1,10 @@
+package com.go5u.foodflowplatform.inventory.interfaces.rest.resources;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record ReceiveProductLotResource(
+        Integer quantity,
+        LocalDate expirationDate,
+        BigDecimal price
+) {}
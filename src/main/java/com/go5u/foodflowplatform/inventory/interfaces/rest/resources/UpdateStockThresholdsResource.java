@@ -0,0 +1,6 @@
+package com.go5u.foodflowplatform.inventory.interfaces.rest.resources;
+
+public record UpdateStockThresholdsResource(
+        Integer lowStockThreshold,
+        Integer recoveryThreshold
+) {}
@@ -11,7 +11,8 @@ public class CreateProductCommandFromResourceAssembler {
                 resource.quantity(),
                 resource.expirationDate(),
                 resource.price(),
-                userId
+                userId,
+                resource.unit()
         );
     }
 }
@@ -0,0 +1,18 @@
+package com.go5u.foodflowplatform.inventory.interfaces.rest.transform;
+
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ProductBurnRate;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.resources.ProductBurnRateResource;
+
+import java.time.LocalDateTime;
+
+public class ProductBurnRateResourceFromProjectionAssembler {
+    public static ProductBurnRateResource toResourceFromProjection(ProductBurnRate projection) {
+        return new ProductBurnRateResource(
+                projection.productId(),
+                projection.name(),
+                projection.availableQuantity(),
+                projection.unitsPerHour(),
+                projection.secondsToStockout(),
+                projection.secondsToStockout() != null ? LocalDateTime.now().plusSeconds(projection.secondsToStockout()) : null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.go5u.foodflowplatform.inventory.interfaces.rest.transform;
+
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductImportResult;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.resources.ProductImportResultResource;
+
+public class ProductImportResultResourceFromResultAssembler {
+    public static ProductImportResultResource toResourceFromResult(ProductImportResult result) {
+        return new ProductImportResultResource(
+                result.imported(),
+                result.rejected(),
+                result.errors().stream()
+                        .map(error -> new ProductImportResultResource.RowError(error.line(), error.message()))
+                        .toList(),
+                result.errorsTruncated());
+    }
+}
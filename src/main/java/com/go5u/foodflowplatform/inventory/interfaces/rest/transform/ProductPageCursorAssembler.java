@@ -0,0 +1,43 @@
+package com.go5u.foodflowplatform.inventory.interfaces.rest.transform;
+
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ProductSummary;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductPageCursor;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductSortField;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Converts page cursors to and from the opaque token returned to clients
+ */
+public class ProductPageCursorAssembler {
+
+    private static final String SEPARATOR = "\n";
+
+    public static ProductPageCursor toCursorFromLastItem(ProductSummary last, ProductSortField sort) {
+        String sortValue = switch (sort) {
+            case PRODUCT_ID -> null;
+            case NAME -> last.name();
+            case EXPIRATION_DATE -> last.expirationDate() == null ? "" : last.expirationDate().toString();
+        };
+        return new ProductPageCursor(sort, sortValue, last.productId());
+    }
+
+    public static String toToken(ProductPageCursor cursor) {
+        String raw = cursor.sort().fieldName() + SEPARATOR + cursor.productId() + SEPARATOR
+                + (cursor.sortValue() == null ? "" : cursor.sortValue());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductPageCursor toCursorFromToken(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 3);
+            var sort = ProductSortField.fromFieldName(parts[0]);
+            String sortValue = sort == ProductSortField.PRODUCT_ID ? null : parts[2];
+            return new ProductPageCursor(sort, sortValue, Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+    }
+}
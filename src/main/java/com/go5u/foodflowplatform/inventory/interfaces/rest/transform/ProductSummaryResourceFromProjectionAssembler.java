@@ -0,0 +1,24 @@
+package com.go5u.foodflowplatform.inventory.interfaces.rest.transform;
+
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ProductSummary;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.resources.ProductSummaryResource;
+
+import java.util.Set;
+
+public class ProductSummaryResourceFromProjectionAssembler {
+
+    public static final Set<String> FIELDS = Set.of("productId", "name", "quantity", "expirationDate", "price");
+
+    /**
+     * @param fields fields to include; productId is always included. Null or empty includes every field.
+     */
+    public static ProductSummaryResource toResourceFromProjection(ProductSummary summary, Set<String> fields) {
+        boolean all = fields == null || fields.isEmpty();
+        return new ProductSummaryResource(
+                summary.productId(),
+                all || fields.contains("name") ? summary.name() : null,
+                all || fields.contains("quantity") ? summary.quantity() : null,
+                all || fields.contains("expirationDate") ? summary.expirationDate() : null,
+                all || fields.contains("price") ? summary.price() : null);
+    }
+}
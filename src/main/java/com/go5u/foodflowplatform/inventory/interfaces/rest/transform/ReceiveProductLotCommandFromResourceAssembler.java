@@ -0,0 +1,16 @@
+package com.go5u.foodflowplatform.inventory.interfaces.rest.transform;
+
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ReceiveProductLotCommand;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.resources.ReceiveProductLotResource;
+
+public class ReceiveProductLotCommandFromResourceAssembler {
+    public static ReceiveProductLotCommand toCommandFromResource(ReceiveProductLotResource resource, Long productId, Long userId){
+        return new ReceiveProductLotCommand(
+                productId,
+                userId,
+                resource.quantity(),
+                resource.expirationDate(),
+                resource.price()
+        );
+    }
+}
@@ -0,0 +1,15 @@
+package com.go5u.foodflowplatform.inventory.interfaces.rest.transform;
+
+import com.go5u.foodflowplatform.inventory.domain.model.commands.UpdateStockThresholdsCommand;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.resources.UpdateStockThresholdsResource;
+
+public class UpdateStockThresholdsCommandFromResourceAssembler {
+    public static UpdateStockThresholdsCommand toCommandFromResource(UpdateStockThresholdsResource resource, Long productId, Long userId){
+        return new UpdateStockThresholdsCommand(
+                productId,
+                userId,
+                resource.lowStockThreshold(),
+                resource.recoveryThreshold()
+        );
+    }
+}
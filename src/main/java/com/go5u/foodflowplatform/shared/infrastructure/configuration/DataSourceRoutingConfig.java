@@ -0,0 +1,112 @@
+package com.go5u.foodflowplatform.shared.infrastructure.configuration;
+
+import com.go5u.foodflowplatform.shared.infrastructure.persistence.routing.ReadWriteRoutingDataSource;
+import com.go5u.foodflowplatform.shared.infrastructure.web.TenantContextInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read/write split: {@code @Transactional(readOnly = true)} work goes to the replica pools listed in
+ * {@code inventory.datasource.replicas.urls}, everything else to the primary configured through the usual
+ * {@code spring.datasource.*} properties. Off unless {@code inventory.datasource.routing.enabled=true}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "inventory.datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig implements WebMvcConfigurer {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("inventory-primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            @Value("${inventory.datasource.replicas.urls:}") List<String> replicaUrls,
+            @Value("${inventory.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${inventory.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${inventory.datasource.replicas.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${inventory.datasource.replicas.connection-timeout:2s}") Duration connectionTimeout,
+            @Value("${inventory.datasource.read-your-writes.window:5s}") Duration readYourWritesWindow,
+            @Value("${inventory.datasource.read-your-writes.max-tenants:100000}") long maxTrackedTenants,
+            MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "inventory-replica-" + (replicas.size() + 1);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(name);
+            replica.setJdbcUrl(url.trim());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setReadOnly(true);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            // Let the app start while a replica is down; the health check keeps it out of rotation
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(name, replica);
+        }
+        if (replicas.isEmpty()) {
+            log.warn("Datasource routing is enabled but no replica URLs are configured; all reads go to the primary");
+        } else {
+            log.info("Routing read-only transactions to {} replica(s)", replicas.size());
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, readYourWritesWindow, maxTrackedTenants);
+    }
+
+    /**
+     * The datasource the rest of the application (JPA, JdbcTemplate) uses. The lazy proxy delays picking the
+     * route until the first statement, when the transaction is already marked read-only or not.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    /**
+     * With open-in-view the EntityManager lives for the whole request and by default keeps its first connection
+     * until the request ends, so every later transaction would reuse that route. Releasing after each
+     * transaction lets each one pick its own.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new TenantContextInterceptor());
+    }
+}
@@ -0,0 +1,237 @@
+package com.go5u.foodflowplatform.shared.infrastructure.persistence.routing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica, round robin, and everything else to the primary.
+ * <p>
+ * The route is chosen when the transaction first needs a connection, so this has to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager
+ * only marks the transaction read-only after it has asked for the connection. Work outside a transaction
+ * always goes to the primary.
+ * <p>
+ * After a tenant commits a write, its read-only transactions stay on the primary for the read-your-writes
+ * window, so a restaurant does not see its own change disappear while the replicas catch up. Replicas that
+ * fail a health check, or fail to hand out a connection, are skipped until a later check passes; with no
+ * healthy replica reads fall back to the primary.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Cache<Long, Boolean> recentWriters;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /**
+     * @param replicas replica pools by name, in round-robin order
+     * @param readYourWritesWindow how long a tenant's reads stay on the primary after it commits a write
+     * @param maxTrackedTenants upper bound on tenants inside their window at once
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                      Duration readYourWritesWindow, long maxTrackedTenants) {
+        if (replicas.containsKey(PRIMARY)) {
+            throw new IllegalArgumentException("Replica name '" + PRIMARY + "' is reserved for the primary datasource");
+        }
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream().map(entry -> new Replica(entry.getKey(), entry.getValue())).toList();
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .maximumSize(maxTrackedTenants)
+                .build();
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            markTenantWriteOnCommit();
+            return PRIMARY;
+        }
+        Long tenant = TenantContext.current();
+        if (tenant != null && recentWriters.getIfPresent(tenant) != null) {
+            return PRIMARY;
+        }
+        Replica replica = nextHealthyReplica();
+        return replica == null ? PRIMARY : replica.name;
+    }
+
+    /**
+     * A replica that cannot hand out a connection is taken out of rotation and the read goes to the primary
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        String key = (String) determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) {
+            return primary.getConnection();
+        }
+        Replica replica = replica(key);
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            markUnhealthy(replica, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * Validates every replica and, when a lag query is given, checks it is no further behind than the limit
+     * @param validationTimeout how long to wait for each replica to answer
+     * @param lagQuery query returning the replica's lag in seconds as a single number, or null to skip the check
+     * @param maxLag largest lag at which a replica still serves reads
+     */
+    public void checkReplicas(Duration validationTimeout, String lagQuery, Duration maxLag) {
+        int timeoutSeconds = (int) Math.max(1, validationTimeout.toSeconds());
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(timeoutSeconds)) {
+                    markUnhealthy(replica, "connection validation failed");
+                } else if (lagQuery != null && !lagQuery.isBlank()) {
+                    long lagSeconds = lagSeconds(connection, lagQuery, timeoutSeconds);
+                    if (lagSeconds > maxLag.toSeconds()) {
+                        markUnhealthy(replica, "replication lag of " + lagSeconds + "s");
+                    } else {
+                        markHealthy(replica);
+                    }
+                } else {
+                    markHealthy(replica);
+                }
+            } catch (SQLException e) {
+                markUnhealthy(replica, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Health of each replica by name, in round-robin order
+     */
+    public Map<String, Boolean> replicaHealth() {
+        Map<String, Boolean> health = new LinkedHashMap<>();
+        replicas.forEach(replica -> health.put(replica.name, replica.healthy));
+        return health;
+    }
+
+    /**
+     * Tenants whose reads are currently kept on the primary
+     */
+    public long tenantsInReadYourWritesWindow() {
+        return recentWriters.estimatedSize();
+    }
+
+    /**
+     * Closes the replica pools; the primary pool is a bean of its own and is closed by the container
+     */
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Could not close replica datasource {}: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void markTenantWriteOnCommit() {
+        Long tenant = TenantContext.current();
+        if (tenant == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(tenant, Boolean.TRUE);
+            }
+        });
+    }
+
+    private Replica nextHealthyReplica() {
+        int count = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(count, 1));
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private Replica replica(String name) {
+        for (Replica replica : replicas) {
+            if (replica.name.equals(name)) {
+                return replica;
+            }
+        }
+        throw new IllegalArgumentException("Unknown replica datasource: " + name);
+    }
+
+    private static long lagSeconds(Connection connection, String lagQuery, int timeoutSeconds) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(timeoutSeconds);
+            try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    throw new SQLException("Replica lag query returned no rows");
+                }
+                long lag = resultSet.getLong(1);
+                if (resultSet.wasNull()) {
+                    // MySQL reports a NULL lag when replication is not running
+                    throw new SQLException("Replica lag is unknown");
+                }
+                return lag;
+            }
+        }
+    }
+
+    private static void markHealthy(Replica replica) {
+        if (!replica.healthy) {
+            log.info("Replica datasource {} is back in rotation", replica.name);
+            replica.healthy = true;
+        }
+    }
+
+    private static void markUnhealthy(Replica replica, String reason) {
+        if (replica.healthy) {
+            log.warn("Taking replica datasource {} out of rotation: {}", replica.name, reason);
+            replica.healthy = false;
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
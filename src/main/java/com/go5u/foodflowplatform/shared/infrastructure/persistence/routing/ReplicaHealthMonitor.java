@@ -0,0 +1,52 @@
+package com.go5u.foodflowplatform.shared.infrastructure.persistence.routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Periodically validates the read replicas and takes lagging or unreachable ones out of rotation.
+ * The lag query is optional; against MySQL it is usually a heartbeat table lookup such as
+ * {@code SELECT TIMESTAMPDIFF(SECOND, MAX(ts), UTC_TIMESTAMP()) FROM heartbeat}.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.datasource.routing.enabled", havingValue = "true")
+public class ReplicaHealthMonitor {
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final Duration validationTimeout;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    public ReplicaHealthMonitor(ReadWriteRoutingDataSource routingDataSource,
+                                @Value("${inventory.datasource.replicas.validation-timeout:2s}") Duration validationTimeout,
+                                @Value("${inventory.datasource.replicas.lag-query:}") String lagQuery,
+                                @Value("${inventory.datasource.replicas.max-lag:5s}") Duration maxLag,
+                                MeterRegistry meterRegistry) {
+        this.routingDataSource = routingDataSource;
+        this.validationTimeout = validationTimeout;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        for (String replica : routingDataSource.replicaHealth().keySet()) {
+            Gauge.builder("inventory.datasource.replica.healthy", routingDataSource,
+                            routing -> Boolean.TRUE.equals(routing.replicaHealth().get(replica)) ? 1 : 0)
+                    .description("Whether the read replica is serving read-only transactions")
+                    .tag("replica", replica)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("inventory.datasource.read-your-writes.tenants", routingDataSource,
+                        ReadWriteRoutingDataSource::tenantsInReadYourWritesWindow)
+                .description("Tenants whose reads are kept on the primary after a recent write")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.datasource.replicas.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        routingDataSource.checkReplicas(validationTimeout, lagQuery, maxLag);
+    }
+}
@@ -0,0 +1,28 @@
+package com.go5u.foodflowplatform.shared.infrastructure.persistence.routing;
+
+/**
+ * Tenant (restaurant user) the current thread is working for. Set per HTTP request from the {@code userId}
+ * path variable; the routing datasource uses it to keep a tenant's reads on the primary right after it wrote.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * @return the current tenant, or null outside a tenant-scoped request
+     */
+    public static Long current() {
+        return CURRENT.get();
+    }
+
+    public static void set(Long userId) {
+        CURRENT.set(userId);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,77 @@
+package com.go5u.foodflowplatform.shared.infrastructure.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the number of requests handled at once when Tomcat runs on virtual threads. Without a thread
+ * pool every accepted request gets its own thread, so a burst would otherwise pile up on the JDBC
+ * connection pool. The limit defaults to a number of requests per pooled connection (four unless
+ * configured otherwise); requests that cannot get a slot within the queue timeout get a 503.
+ * Actuator endpoints are not limited.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class RequestConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int maxConcurrentRequests;
+    private final Duration queueTimeout;
+
+    public RequestConcurrencyLimitFilter(@Value("${inventory.virtual-threads.max-concurrent-requests:0}") int maxConcurrentRequests,
+                                         @Value("${inventory.virtual-threads.queue-timeout:2s}") Duration queueTimeout,
+                                         @Value("${inventory.virtual-threads.requests-per-connection:4}") int requestsPerConnection,
+                                         @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        if (maxConcurrentRequests <= 0 && requestsPerConnection < 1) {
+            throw new IllegalArgumentException("Requests per connection must be at least 1");
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests > 0 ? maxConcurrentRequests : connectionPoolSize * requestsPerConnection;
+        this.queueTimeout = queueTimeout;
+        this.permits = new Semaphore(this.maxConcurrentRequests, true);
+        log.info("Limiting concurrent requests to {} on virtual threads", this.maxConcurrentRequests);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(queueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.warn("Rejecting {} {}: {} requests already in progress", request.getMethod(), request.getRequestURI(), maxConcurrentRequests);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
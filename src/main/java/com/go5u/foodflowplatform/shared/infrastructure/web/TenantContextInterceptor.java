@@ -0,0 +1,34 @@
+package com.go5u.foodflowplatform.shared.infrastructure.web;
+
+import com.go5u.foodflowplatform.shared.infrastructure.persistence.routing.TenantContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Binds the {@code userId} path variable of the request to {@link TenantContext} for the duration of the request
+ */
+public class TenantContextInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables
+                && variables.get("userId") instanceof String userId) {
+            try {
+                TenantContext.set(Long.valueOf(userId));
+            } catch (NumberFormatException e) {
+                // Not a tenant id; the controller rejects the request
+                TenantContext.clear();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        TenantContext.clear();
+    }
+}
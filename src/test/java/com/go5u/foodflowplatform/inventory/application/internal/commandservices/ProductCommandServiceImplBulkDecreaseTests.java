@@ -0,0 +1,90 @@
+package com.go5u.foodflowplatform.inventory.application.internal.commandservices;
+
+import com.go5u.foodflowplatform.inventory.domain.model.commands.CreateProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.DecreaseIngredientsStockCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockLineResult;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockLineStatus;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductItemRepository;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductCommandServiceImpl.class, ProductLotAllocator.class, StockStatusEvaluator.class, BurnRateTracker.class})
+class ProductCommandServiceImplBulkDecreaseTests {
+
+    private static final Long USER_ID = 1L;
+
+    @Autowired
+    private ProductCommandServiceImpl productCommandService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductItemRepository productItemRepository;
+
+    @Test
+    void fractionalLinesAreAppliedExactly() {
+        Long riceId = product("Rice", 10);
+
+        var first = productCommandService.handle(new DecreaseIngredientsStockCommand(USER_ID, Map.of("Rice", 500L)));
+        var second = productCommandService.handle(new DecreaseIngredientsStockCommand(USER_ID, Map.of("Rice", 500L)));
+
+        assertEquals(StockLineStatus.APPLIED, first.get(0).status());
+        assertEquals(StockLineStatus.APPLIED, second.get(0).status());
+        var rice = productRepository.findById(riceId).orElseThrow();
+        assertEquals(9_000, rice.getAvailableMillis());
+        assertEquals(9, rice.getQuantity().quantity());
+        // The lot gave up the unit that was started, once
+        assertEquals(9, lotUnits(riceId));
+    }
+
+    @Test
+    void fractionOverTheAvailableStockRejectsEveryLine() {
+        Long riceId = product("Rice", 10);
+        Long oilId = product("Oil", 1);
+
+        List<StockLineResult> results = productCommandService.handle(new DecreaseIngredientsStockCommand(USER_ID,
+                quantities("Rice", 2_000L, "Oil", 1_001L)));
+
+        assertEquals(List.of(StockLineStatus.NOT_APPLIED, StockLineStatus.INSUFFICIENT_STOCK),
+                results.stream().map(StockLineResult::status).toList());
+        assertEquals(10_000, productRepository.findById(riceId).orElseThrow().getAvailableMillis());
+        assertEquals(1_000, productRepository.findById(oilId).orElseThrow().getAvailableMillis());
+        assertEquals(10, lotUnits(riceId));
+    }
+
+    private int lotUnits(Long productId) {
+        return productItemRepository.findLotsInConsumptionOrder(productId, Pageable.unpaged()).stream()
+                .mapToInt(lot -> lot.getQuantity().quantity())
+                .sum();
+    }
+
+    private Long product(String name, int quantity) {
+        return productCommandService.handle(new CreateProductCommand(
+                name, null, quantity, LocalDate.now().plusDays(5), BigDecimal.ONE, USER_ID, null));
+    }
+
+    private static Map<String, Long> quantities(String firstName, Long firstMillis, String secondName, Long secondMillis) {
+        Map<String, Long> quantities = new LinkedHashMap<>();
+        quantities.put(firstName, firstMillis);
+        quantities.put(secondName, secondMillis);
+        return quantities;
+    }
+}
@@ -0,0 +1,93 @@
+package com.go5u.foodflowplatform.inventory.application.internal.commandservices;
+
+import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.CommitStockReservationCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.CreateProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ReserveStockCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockLineStatus;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductRepository;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.StockHoldRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductCommandServiceImpl.class, ProductLotAllocator.class, StockStatusEvaluator.class, BurnRateTracker.class})
+class ProductCommandServiceImplReservationTests {
+
+    private static final Long USER_ID = 1L;
+    private static final Long ORDER_ID = 100L;
+
+    @Autowired
+    private ProductCommandServiceImpl productCommandService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Test
+    void availableLinesAreHeldWhenOthersCannotBe() {
+        Long riceId = product("Rice", 10);
+        Long oilId = product("Oil", 1);
+
+        var results = productCommandService.handle(new ReserveStockCommand(ORDER_ID, USER_ID,
+                quantities("Rice", 2_500L, "Oil", 3_000L, "Saffron", 1_000L)));
+
+        assertEquals(List.of(StockLineStatus.APPLIED, StockLineStatus.INSUFFICIENT_STOCK, StockLineStatus.NOT_FOUND),
+                results.stream().map(result -> result.status()).toList());
+        assertEquals(7, productRepository.findById(riceId).orElseThrow().getAvailableQuantity());
+        assertEquals(1, productRepository.findById(oilId).orElseThrow().getAvailableQuantity());
+        var holds = stockHoldRepository.findByOrderId(ORDER_ID);
+        assertEquals(1, holds.size());
+        assertEquals("Rice", holds.get(0).getIngredientName());
+        assertEquals(2_500L, holds.get(0).getHeldMillis());
+    }
+
+    @Test
+    void commitReportsTheIngredientsItConsumed() {
+        Long riceId = product("Rice", 10);
+        product("Oil", 1);
+        productCommandService.handle(new ReserveStockCommand(ORDER_ID, USER_ID, quantities("Rice", 2_000L, "Oil", 3_000L)));
+
+        Set<String> committed = productCommandService.handle(new CommitStockReservationCommand(ORDER_ID));
+
+        assertEquals(Set.of("Rice"), committed);
+        assertEquals(8, productRepository.findById(riceId).orElseThrow().getQuantity().quantity());
+        assertTrue(stockHoldRepository.findByOrderId(ORDER_ID).isEmpty());
+    }
+
+    @Test
+    void commitWithoutHoldsReportsNothing() {
+        assertTrue(productCommandService.handle(new CommitStockReservationCommand(ORDER_ID)).isEmpty());
+    }
+
+    private Long product(String name, int quantity) {
+        return productRepository.saveAndFlush(new Product(new CreateProductCommand(
+                name, null, quantity, LocalDate.now().plusDays(5), BigDecimal.ONE, USER_ID, null))).getProductId();
+    }
+
+    private static Map<String, Long> quantities(Object... namesAndMillis) {
+        Map<String, Long> quantities = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndMillis.length; i += 2) {
+            quantities.put((String) namesAndMillis[i], (Long) namesAndMillis[i + 1]);
+        }
+        return quantities;
+    }
+}
@@ -0,0 +1,112 @@
+package com.go5u.foodflowplatform.inventory.application.internal.commandservices;
+
+import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.CreateProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.DeleteProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.ReceiveProductLotCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.UpdateProductCommand;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductItemRepository;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductCommandServiceImpl.class, ProductLotAllocator.class, StockStatusEvaluator.class, BurnRateTracker.class})
+class ProductCommandServiceImplUpdateTests {
+
+    private static final Long USER_ID = 1L;
+
+    @Autowired
+    private ProductCommandServiceImpl productCommandService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductItemRepository productItemRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void untrackedProductIsUpdatedInPlace() {
+        Long productId = untrackedProduct(LocalDate.now().plusDays(5));
+        long products = productRepository.count();
+
+        var updated = productCommandService.handle(new UpdateProductCommand(productId, USER_ID, 4,
+                LocalDate.now().plusDays(9), new BigDecimal("2.50"), "kg")).orElseThrow();
+
+        assertEquals(productId, updated.getProductId());
+        assertEquals(products, productRepository.count());
+        assertEquals(4, updated.getQuantity().quantity());
+        assertEquals(LocalDate.now().plusDays(9), updated.getExpirationDate().expirationDate());
+        assertEquals(new BigDecimal("2.50"), updated.getPrice().price());
+    }
+
+    @Test
+    void pastExpirationDateIsRejected() {
+        Long productId = untrackedProduct(LocalDate.now().plusDays(5));
+
+        assertThrows(IllegalArgumentException.class, () -> productCommandService.handle(new UpdateProductCommand(
+                productId, USER_ID, null, LocalDate.now().minusDays(1), null, null)));
+    }
+
+    @Test
+    void stockOfProductWithLotsCannotBeSetDirectly() {
+        Long productId = productCommandService.handle(new CreateProductCommand(
+                "Flour", null, 10, LocalDate.now().plusDays(5), BigDecimal.ONE, USER_ID, null));
+
+        assertThrows(IllegalArgumentException.class, () -> productCommandService.handle(new UpdateProductCommand(
+                productId, USER_ID, 20, null, null, null)));
+        // Sending the current values back is not a change
+        var updated = productCommandService.handle(new UpdateProductCommand(
+                productId, USER_ID, 10, LocalDate.now().plusDays(5), new BigDecimal("3"), null)).orElseThrow();
+        assertEquals(new BigDecimal("3"), updated.getPrice().price());
+    }
+
+    @Test
+    void receivedLotKeepsTheEarlierDateOfUntrackedStock() {
+        LocalDate untrackedExpiration = LocalDate.now().plusDays(2);
+        Long productId = untrackedProduct(untrackedExpiration);
+
+        productCommandService.handle(new ReceiveProductLotCommand(productId, USER_ID, 5, LocalDate.now().plusDays(10), null));
+
+        var product = productRepository.findById(productId).orElseThrow();
+        assertEquals(untrackedExpiration, product.getExpirationDate().expirationDate());
+        assertEquals(15, product.getQuantity().quantity());
+    }
+
+    @Test
+    void productIsDeletedWithItsLots() {
+        Long productId = productCommandService.handle(new CreateProductCommand(
+                "Sugar", null, 10, LocalDate.now().plusDays(5), BigDecimal.ONE, USER_ID, null));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertFalse(productCommandService.handle(new DeleteProductCommand(productId, 2L)));
+        assertTrue(productCommandService.handle(new DeleteProductCommand(productId, USER_ID)));
+
+        assertTrue(productRepository.findById(productId).isEmpty());
+        assertTrue(productItemRepository.findAll().stream().noneMatch(lot -> lot.getProduct().getProductId().equals(productId)));
+    }
+
+    private Long untrackedProduct(LocalDate expirationDate) {
+        return productRepository.saveAndFlush(new Product(new CreateProductCommand(
+                "Rice", null, 10, expirationDate, BigDecimal.ONE, USER_ID, null))).getProductId();
+    }
+}
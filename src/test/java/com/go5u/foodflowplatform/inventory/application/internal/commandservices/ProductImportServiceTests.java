@@ -0,0 +1,201 @@
+package com.go5u.foodflowplatform.inventory.application.internal.commandservices;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.CreateProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductImportFormat;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductImportResult;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductImportRowError;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.QuantityUnit;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jdbc.ProductBulkInsertRepository;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductBulkInsertRepository.class, StockStatusEvaluator.class})
+class ProductImportServiceTests {
+
+    private static final Long USER_ID = 1L;
+    private static final String FUTURE = LocalDate.now().plusDays(10).toString();
+    private static final String PAST = LocalDate.now().minusDays(1).toString();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductBulkInsertRepository productBulkInsertRepository;
+
+    @Autowired
+    private StockStatusEvaluator stockStatusEvaluator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void csvColumnsAreMatchedByHeaderInAnyOrder() {
+        ProductImportResult result = importCsv(service(100), """
+                \uFEFFprice,expiration_date,Name,quantity,unit
+                2.50,%s,"Rice, long grain",10,kg
+                1.00,%s,"Chef ""special"" salt",0,
+                """.formatted(FUTURE, FUTURE));
+
+        assertEquals(2, result.imported());
+        assertEquals(0, result.rejected());
+        Product rice = byName("Rice, long grain");
+        assertEquals(10, rice.getQuantity().quantity());
+        assertEquals(QuantityUnit.KILOGRAM, rice.getStockUnit());
+        assertEquals(0, new BigDecimal("2.50").compareTo(rice.getPrice().price()));
+        assertEquals(0, byName("Chef \"special\" salt").getQuantity().quantity());
+    }
+
+    @Test
+    void invalidRowsAreReportedByLineAndSkipped() {
+        productRepository.saveAndFlush(new Product(new CreateProductCommand(
+                "Oil", null, 1, LocalDate.now().plusDays(5), BigDecimal.ONE, USER_ID, null)));
+
+        ProductImportResult result = importCsv(service(100), """
+                name,quantity,expirationDate,price
+                Rice,ten,%1$s,1
+
+                Beans,3,%2$s,1
+                ,3,%1$s,1
+                oil,3,%1$s,1
+                Flour,3,%1$s,1
+                FLOUR,3,%1$s,1
+                "Sugar,3,%1$s,1
+                Pepper,3,%1$s,1
+                """.formatted(FUTURE, PAST));
+
+        assertEquals(2, result.imported());
+        assertEquals(6, result.rejected());
+        // The blank line 3 is skipped but still counted
+        assertEquals(List.of(2L, 4L, 5L, 6L, 8L, 9L),
+                result.errors().stream().map(ProductImportRowError::line).toList());
+        assertEquals("Invalid quantity: ten", result.errors().get(0).message());
+        assertTrue(result.errors().get(3).message().startsWith("Product already exists"));
+        assertEquals("Unterminated quoted field", result.errors().get(5).message());
+        assertFalse(result.errorsTruncated());
+        assertTrue(productRepository.findByNameAndUserId("Pepper", USER_ID).isPresent());
+    }
+
+    @Test
+    void reportedErrorsAreCapped() {
+        ProductImportResult result = importCsv(service(100, 2), """
+                name,quantity,expirationDate,price
+                A,x,%1$s,1
+                B,x,%1$s,1
+                C,x,%1$s,1
+                """.formatted(FUTURE));
+
+        assertEquals(3, result.rejected());
+        assertEquals(2, result.errors().size());
+        assertTrue(result.errorsTruncated());
+    }
+
+    @Test
+    void missingHeaderColumnFailsTheImport() {
+        var service = service(100);
+        assertThrows(IllegalArgumentException.class, () -> importCsv(service, "name,quantity,price\nRice,1,1\n"));
+    }
+
+    @Test
+    void rowsAreWrittenInBatchesOfTheConfiguredSize() {
+        var bulkInsert = spy(new ProductBulkInsertRepository(jdbcTemplate));
+        var service = new ProductImportService(productRepository, bulkInsert, stockStatusEvaluator,
+                new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(), 2, 100);
+
+        ProductImportResult result = importCsv(service, csvRows("P", 5));
+
+        assertEquals(5, result.imported());
+        verify(bulkInsert, times(3)).insertAll(anyList());
+        assertEquals(5, productRepository.findNamesByUserId(USER_ID).size());
+    }
+
+    @Test
+    void failedBatchRejectsItsRowsAndTheImportGoesOn() {
+        var bulkInsert = spy(new ProductBulkInsertRepository(jdbcTemplate));
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .doCallRealMethod()
+                .when(bulkInsert).insertAll(anyList());
+        var service = new ProductImportService(productRepository, bulkInsert, stockStatusEvaluator,
+                new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(), 2, 100);
+
+        ProductImportResult result = importCsv(service, csvRows("P", 4));
+
+        assertEquals(2, result.imported());
+        assertEquals(2, result.rejected());
+        assertEquals(List.of(2L, 3L), result.errors().stream().map(ProductImportRowError::line).toList());
+        assertEquals("Batch insert failed: duplicate key", result.errors().get(0).message());
+        assertTrue(productRepository.findByNameAndUserId("P3", USER_ID).isPresent());
+    }
+
+    @Test
+    void ndjsonRowsAreImportedAndBadJsonIsReported() {
+        ProductImportResult result = service(100).importProducts(USER_ID, ProductImportFormat.NDJSON, body("""
+                {"name":"Rice","quantity":4,"expirationDate":"%s","price":1.5,"unit":"kg"}
+                {"name":"Beans",
+                {"name":"Corn","quantity":2,"expirationDate":"%s","price":1}
+                """.formatted(FUTURE, FUTURE)));
+
+        assertEquals(2, result.imported());
+        assertEquals(1, result.rejected());
+        assertEquals(2L, result.errors().get(0).line());
+        assertTrue(result.errors().get(0).message().startsWith("Invalid JSON"));
+        assertEquals(QuantityUnit.KILOGRAM, byName("Rice").getStockUnit());
+    }
+
+    private ProductImportService service(int batchSize) {
+        return service(batchSize, 100);
+    }
+
+    private ProductImportService service(int batchSize, int maxReportedErrors) {
+        return new ProductImportService(productRepository, productBulkInsertRepository, stockStatusEvaluator,
+                new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(), batchSize, maxReportedErrors);
+    }
+
+    private static ProductImportResult importCsv(ProductImportService service, String csv) {
+        return service.importProducts(USER_ID, ProductImportFormat.CSV, body(csv));
+    }
+
+    private static String csvRows(String prefix, int count) {
+        StringBuilder csv = new StringBuilder("name,quantity,expirationDate,price\n");
+        for (int i = 1; i <= count; i++) {
+            csv.append(prefix).append(i).append(",1,").append(FUTURE).append(",1\n");
+        }
+        return csv.toString();
+    }
+
+    private static ByteArrayInputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Product byName(String name) {
+        return productRepository.findByNameAndUserId(name, USER_ID).orElseThrow();
+    }
+}
@@ -0,0 +1,91 @@
+package com.go5u.foodflowplatform.inventory.application.internal.commandservices;
+
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockThresholds;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static com.go5u.foodflowplatform.inventory.application.internal.commandservices.StockStatusEvaluator.AVAILABLE;
+import static com.go5u.foodflowplatform.inventory.application.internal.commandservices.StockStatusEvaluator.LOW_STOCK;
+import static com.go5u.foodflowplatform.inventory.application.internal.commandservices.StockStatusEvaluator.OUT_OF_STOCK;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockStatusEvaluatorTests {
+
+    private static final Long PRODUCT_ID = 1L;
+
+    private ProductRepository productRepository;
+    private StockStatusEvaluator evaluator;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.findStockThresholdsByProductId(PRODUCT_ID)).thenReturn(Optional.empty());
+        // Defaults: LOW_STOCK at 5 or less, back to AVAILABLE above 10
+        evaluator = new StockStatusEvaluator(productRepository, 5, 10, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void levelsOutsideTheBandIgnoreThePreviousStatus() {
+        assertEquals(OUT_OF_STOCK, evaluator.evaluate(PRODUCT_ID, 0, AVAILABLE));
+        assertEquals(OUT_OF_STOCK, evaluator.evaluate(PRODUCT_ID, -1, null));
+        assertEquals(LOW_STOCK, evaluator.evaluate(PRODUCT_ID, 5, AVAILABLE));
+        assertEquals(LOW_STOCK, evaluator.evaluate(PRODUCT_ID, 1, OUT_OF_STOCK));
+        assertEquals(AVAILABLE, evaluator.evaluate(PRODUCT_ID, 11, LOW_STOCK));
+        assertEquals(AVAILABLE, evaluator.evaluate(PRODUCT_ID, 11, OUT_OF_STOCK));
+    }
+
+    @Test
+    void insideTheBandThePreviousStatusIsKept() {
+        // Falling from plenty: stays AVAILABLE until the low-stock level
+        assertEquals(AVAILABLE, evaluator.evaluate(PRODUCT_ID, 10, AVAILABLE));
+        assertEquals(AVAILABLE, evaluator.evaluate(PRODUCT_ID, 6, AVAILABLE));
+        // Restocking: stays LOW_STOCK until above the recovery level
+        assertEquals(LOW_STOCK, evaluator.evaluate(PRODUCT_ID, 6, LOW_STOCK));
+        assertEquals(LOW_STOCK, evaluator.evaluate(PRODUCT_ID, 10, LOW_STOCK));
+        assertEquals(LOW_STOCK, evaluator.evaluate(PRODUCT_ID, 8, OUT_OF_STOCK));
+    }
+
+    @Test
+    void stockFlappingAroundTheLowLevelDoesNotFlipTheStatus() {
+        String status = AVAILABLE;
+        String[] statuses = new String[6];
+        int[] levels = {5, 6, 5, 7, 10, 11};
+        for (int i = 0; i < levels.length; i++) {
+            status = evaluator.evaluate(PRODUCT_ID, levels[i], status);
+            statuses[i] = status;
+        }
+
+        assertEquals(String.join(",", LOW_STOCK, LOW_STOCK, LOW_STOCK, LOW_STOCK, LOW_STOCK, AVAILABLE),
+                String.join(",", statuses));
+    }
+
+    @Test
+    void newProductsHaveNoPreviousStatus() {
+        assertEquals(AVAILABLE, evaluator.evaluateNew(8));
+        assertEquals(LOW_STOCK, evaluator.evaluateNew(5));
+        assertEquals(OUT_OF_STOCK, evaluator.evaluateNew(0));
+    }
+
+    @Test
+    void productThresholdsAreCachedUntilInvalidated() {
+        when(productRepository.findStockThresholdsByProductId(PRODUCT_ID)).thenReturn(Optional.of(new StockThresholds(20, 30)));
+
+        assertEquals(LOW_STOCK, evaluator.evaluate(PRODUCT_ID, 15, AVAILABLE));
+        assertEquals(LOW_STOCK, evaluator.evaluate(PRODUCT_ID, 25, LOW_STOCK));
+        verify(productRepository, times(1)).findStockThresholdsByProductId(PRODUCT_ID);
+
+        when(productRepository.findStockThresholdsByProductId(PRODUCT_ID)).thenReturn(Optional.empty());
+        evaluator.invalidate(PRODUCT_ID);
+
+        assertEquals(AVAILABLE, evaluator.evaluate(PRODUCT_ID, 15, AVAILABLE));
+        verify(productRepository, times(2)).findStockThresholdsByProductId(PRODUCT_ID);
+    }
+}
@@ -0,0 +1,94 @@
+package com.go5u.foodflowplatform.inventory.application.internal.queryservices;
+
+import com.go5u.foodflowplatform.inventory.application.internal.commandservices.BurnRateTracker;
+import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.CreateProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ProductSummary;
+import com.go5u.foodflowplatform.inventory.domain.model.queries.GetProductsPageQuery;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductPageCursor;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductSortField;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductRepository;
+import com.go5u.foodflowplatform.inventory.interfaces.rest.transform.ProductPageCursorAssembler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductQueryServiceImpl.class, BurnRateTracker.class})
+class ProductQueryServiceImplPageTests {
+
+    private static final Long USER_ID = 1L;
+
+    @Autowired
+    private ProductQueryServiceImpl productQueryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void pagesWalkEveryProductOnceInEachOrder() {
+        product("Rice", 9);
+        product("Beans", 3);
+        product("Oil", 3);
+        product("Flour", 1);
+
+        assertEquals(List.of("Beans", "Flour", "Oil", "Rice"), walk(ProductSortField.NAME));
+        assertEquals(List.of("Flour", "Beans", "Oil", "Rice"), walk(ProductSortField.EXPIRATION_DATE));
+        assertEquals(List.of("Rice", "Beans", "Oil", "Flour"), walk(ProductSortField.PRODUCT_ID));
+    }
+
+    @Test
+    void productsWithoutExpirationDateComeFirstAndAreNotRepeated() {
+        product("Rice", 9);
+        Long salt = product("Salt", 2);
+        product("Beans", 3);
+        Long sugar = product("Sugar", 1);
+        // Rows from before expiration dates were required
+        jdbcTemplate.update("UPDATE products SET expiration_date = NULL WHERE product_id IN (?, ?)", salt, sugar);
+        entityManager.clear();
+
+        assertEquals(List.of("Salt", "Sugar", "Beans", "Rice"), walk(ProductSortField.EXPIRATION_DATE));
+    }
+
+    /**
+     * Reads every page of one product at a time, passing the cursor through its token as a client would
+     */
+    private List<String> walk(ProductSortField sort) {
+        List<String> names = new ArrayList<>();
+        ProductPageCursor after = null;
+        while (true) {
+            List<ProductSummary> page = productQueryService.handle(new GetProductsPageQuery(USER_ID, sort, after, 1));
+            if (page.isEmpty()) {
+                return names;
+            }
+            names.add(page.getLast().name());
+            after = ProductPageCursorAssembler.toCursorFromToken(ProductPageCursorAssembler.toToken(
+                    ProductPageCursorAssembler.toCursorFromLastItem(page.getLast(), sort)));
+        }
+    }
+
+    private Long product(String name, int daysToExpire) {
+        return productRepository.saveAndFlush(new Product(new CreateProductCommand(name, null, 1,
+                LocalDate.now().plusDays(daysToExpire), BigDecimal.ONE, USER_ID, null))).getProductId();
+    }
+}
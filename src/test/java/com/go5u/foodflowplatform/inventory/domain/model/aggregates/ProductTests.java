@@ -0,0 +1,95 @@
+package com.go5u.foodflowplatform.inventory.domain.model.aggregates;
+
+import com.go5u.foodflowplatform.inventory.domain.model.commands.CreateProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.QuantityUnit;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductTests {
+
+    @Test
+    void milliDeltasCarryFractionsAcrossWholeUnits() {
+        var product = product(10);
+
+        assertEquals(-1, product.applyMilliDelta(-250));
+        assertEquals(9, product.getQuantity().quantity());
+        assertEquals(750, product.getFractionMillis());
+
+        assertEquals(0, product.applyMilliDelta(-500));
+        assertEquals(-1, product.applyMilliDelta(-500));
+        assertEquals(8, product.getQuantity().quantity());
+        assertEquals(750, product.getFractionMillis());
+        assertEquals(8_750, product.getAvailableMillis());
+
+        assertEquals(2, product.applyMilliDelta(1_250));
+        assertEquals(10, product.getQuantity().quantity());
+        assertEquals(0, product.getFractionMillis());
+    }
+
+    @Test
+    void milliDeltaCannotConsumeMoreThanTheAvailableStock() {
+        var product = product(2);
+        product.reserve(500);
+
+        assertThrows(IllegalArgumentException.class, () -> product.applyMilliDelta(-1_501));
+        assertEquals(2, product.getQuantity().quantity());
+
+        assertEquals(-2, product.applyMilliDelta(-1_500));
+        assertEquals(0, product.getQuantity().quantity());
+        assertEquals(500, product.getFractionMillis());
+        assertEquals(0, product.getAvailableMillis());
+    }
+
+    @Test
+    void reservationsAreHeldAndCommittedInMilliUnits() {
+        var product = product(5);
+
+        product.reserve(1_200);
+        assertEquals(1_200, product.getReservedMillis());
+        // Whole-unit views round the reservation up
+        assertEquals(2, product.getReservedQuantity());
+        assertEquals(3, product.getAvailableQuantity());
+        assertEquals(3_800, product.getAvailableMillis());
+
+        assertEquals(-2, product.commitReservation(1_200));
+        assertEquals(3, product.getQuantity().quantity());
+        assertEquals(800, product.getFractionMillis());
+        assertEquals(0, product.getReservedMillis());
+        assertEquals(0, product.getReservedQuantity());
+        assertEquals(3_800, product.getAvailableMillis());
+    }
+
+    @Test
+    void releasedReservationReturnsToTheAvailableStock() {
+        var product = product(1);
+        product.reserve(400);
+
+        assertThrows(IllegalArgumentException.class, () -> product.reserve(601));
+        product.releaseReservation(400);
+
+        assertEquals(0, product.getReservedMillis());
+        assertEquals(1_000, product.getAvailableMillis());
+    }
+
+    @Test
+    void stockUnitIsParsedFromTheCommand() {
+        assertEquals(QuantityUnit.KILOGRAM, product(1, "kg").getStockUnit());
+        assertNull(product(1, null).getStockUnit());
+        assertThrows(IllegalArgumentException.class, () -> product(1, "bushel"));
+    }
+
+    private static Product product(int quantity) {
+        return product(quantity, "kg");
+    }
+
+    private static Product product(int quantity, String unit) {
+        return new Product(new CreateProductCommand("Flour", null, quantity, LocalDate.now().plusDays(30),
+                BigDecimal.ONE, 1L, unit));
+    }
+}
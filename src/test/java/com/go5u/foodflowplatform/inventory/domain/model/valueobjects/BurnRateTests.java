@@ -0,0 +1,73 @@
+package com.go5u.foodflowplatform.inventory.domain.model.valueobjects;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BurnRateTests {
+
+    private static final Duration HALF_LIFE = Duration.ofHours(1);
+    private static final Duration MIN_OBSERVATION = Duration.ofMinutes(10);
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Test
+    void constantConsumptionIsMeasuredBeforeTheWindowWarmsUp() {
+        // One unit per minute for 30 minutes: half a half-life, far from a warmed up decayed sum
+        BurnRate rate = null;
+        for (int minute = 0; minute < 30; minute++) {
+            rate = BurnRate.record(rate, 1, START.plusMinutes(minute), HALF_LIFE);
+        }
+
+        double perMinute = rate.unitsPerSecond(START.plusMinutes(30), HALF_LIFE, MIN_OBSERVATION).getAsDouble() * 60;
+
+        assertEquals(1.0, perMinute, 0.05);
+    }
+
+    @Test
+    void rateHalvesAfterOneIdleHalfLife() {
+        BurnRate rate = null;
+        for (int minute = 0; minute < 600; minute++) {
+            rate = BurnRate.record(rate, 2, START.plusMinutes(minute), HALF_LIFE);
+        }
+        LocalDateTime end = START.plusMinutes(600);
+
+        double busy = rate.unitsPerSecond(end, HALF_LIFE, MIN_OBSERVATION).getAsDouble();
+        double idle = rate.unitsPerSecond(end.plus(HALF_LIFE), HALF_LIFE, MIN_OBSERVATION).getAsDouble();
+
+        // After ten half-lives the window is warm, so only the decay of the sum moves the rate
+        assertEquals(0.5, idle / busy, 0.01);
+    }
+
+    @Test
+    void noRateUntilTheMinimumObservationTime() {
+        BurnRate rate = BurnRate.record(null, 5, START, HALF_LIFE);
+
+        assertTrue(rate.unitsPerSecond(START.plusMinutes(9), HALF_LIFE, MIN_OBSERVATION).isEmpty());
+        assertTrue(rate.unitsPerSecond(START.plusMinutes(10), HALF_LIFE, MIN_OBSERVATION).isPresent());
+    }
+
+    @Test
+    void restoredStockLowersTheSumWithoutGoingNegative() {
+        BurnRate rate = BurnRate.record(null, 3, START, HALF_LIFE);
+        rate = BurnRate.record(rate, -1, START, HALF_LIFE);
+        assertEquals(2.0, rate.decayedUnits(), 1e-9);
+
+        rate = BurnRate.record(rate, -10, START.plusMinutes(1), HALF_LIFE);
+        assertEquals(0.0, rate.decayedUnits());
+        assertEquals(START, rate.observedSince());
+    }
+
+    @Test
+    void earlierTimestampFromAnotherInstanceDoesNotDecayBackwards() {
+        BurnRate rate = BurnRate.record(null, 4, START.plusMinutes(5), HALF_LIFE);
+
+        rate = BurnRate.record(rate, 1, START.plusMinutes(4), HALF_LIFE);
+
+        assertEquals(5.0, rate.decayedUnits(), 1e-9);
+        assertEquals(START.plusMinutes(5), rate.lastConsumedAt());
+    }
+}
@@ -0,0 +1,40 @@
+package com.go5u.foodflowplatform.inventory.domain.model.valueobjects;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QuantityUnitTests {
+
+    @Test
+    void convertsBetweenUnitsOfTheSameDimension() {
+        // 250 g of a product stocked in kilograms is 0.25 kg
+        assertEquals(250, QuantityUnit.GRAM.convertMillis(QuantityUnit.toMillis(250), QuantityUnit.KILOGRAM));
+        assertEquals(1_500_000, QuantityUnit.LITER.convertMillis(QuantityUnit.toMillis(1.5), QuantityUnit.MILLILITER));
+        assertEquals(-250, QuantityUnit.GRAM.convertMillis(-250_000, QuantityUnit.KILOGRAM));
+    }
+
+    @Test
+    void roundsToTheNearestMilliUnit() {
+        assertEquals(1, QuantityUnit.MILLIGRAM.convertMillis(500, QuantityUnit.GRAM));
+        assertEquals(0, QuantityUnit.MILLIGRAM.convertMillis(499, QuantityUnit.GRAM));
+        assertEquals(-1, QuantityUnit.MILLIGRAM.convertMillis(-500, QuantityUnit.GRAM));
+    }
+
+    @Test
+    void leavesAmountsUnconvertedWhenTheStockUnitIsUnknownOrOfAnotherDimension() {
+        assertEquals(2_000, QuantityUnit.KILOGRAM.convertMillis(2_000, null));
+        assertEquals(2_000, QuantityUnit.LITER.convertMillis(2_000, QuantityUnit.KILOGRAM));
+        assertEquals(3_000, QuantityUnit.parse("pinch").convertMillis(3_000, QuantityUnit.GRAM));
+    }
+
+    @Test
+    void stockUnitsAreParsedStrictly() {
+        assertEquals(QuantityUnit.LITER, QuantityUnit.parseStockUnit(" Litros "));
+        assertEquals(QuantityUnit.MILLILITER, QuantityUnit.parseStockUnit("MILLILITER"));
+        assertNull(QuantityUnit.parseStockUnit(" "));
+        assertThrows(IllegalArgumentException.class, () -> QuantityUnit.parseStockUnit("cups"));
+    }
+}
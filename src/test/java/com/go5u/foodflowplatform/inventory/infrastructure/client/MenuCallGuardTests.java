@@ -0,0 +1,89 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MenuCallGuardTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void fullBulkheadRejectsCallsWithoutCountingThemAsFailures() throws Exception {
+        // Circuit breaker that opens on the first failure
+        var guard = guard(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        var running = CompletableFuture.supplyAsync(() -> guard.call("dish", () -> {
+            started.countDown();
+            await(release);
+            return "slow";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(MenuCallRejectedException.class, () -> guard.call("dish", () -> "fast"));
+        assertEquals(1, rejections("bulkhead_full"));
+        assertEquals(MenuCircuitBreaker.State.CLOSED, guard.circuitState());
+
+        release.countDown();
+        assertEquals("slow", running.get(5, TimeUnit.SECONDS));
+        assertEquals(1, guard.availableBulkheadPermits());
+        assertEquals("fast", guard.call("dish", () -> "fast"));
+    }
+
+    @Test
+    void openCircuitRejectsCallsWithoutRunningThem() {
+        var guard = guard(4, 1);
+
+        assertThrows(IllegalStateException.class, () -> guard.call("dish", () -> {
+            throw new IllegalStateException("menu down");
+        }));
+        assertEquals(MenuCircuitBreaker.State.OPEN, guard.circuitState());
+
+        boolean[] ran = {false};
+        assertThrows(MenuCallRejectedException.class, () -> guard.call("dish", () -> ran[0] = true));
+        assertFalse(ran[0]);
+        assertEquals(1, rejections("circuit_open"));
+        assertEquals(4, guard.availableBulkheadPermits());
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuit() {
+        var guard = guard(4, 1);
+
+        assertThrows(HttpClientErrorException.class, () -> guard.call("dish", () -> {
+            throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+        }));
+
+        assertEquals(MenuCircuitBreaker.State.CLOSED, guard.circuitState());
+    }
+
+    private MenuCallGuard guard(int maxConcurrentCalls, int minimumCalls) {
+        return new MenuCallGuard(maxConcurrentCalls, Duration.ofMillis(10), minimumCalls, minimumCalls, 50,
+                Duration.ofMinutes(1), 1, false, Duration.ofMillis(20), Duration.ofMillis(200), meterRegistry);
+    }
+
+    private double rejections(String reason) {
+        return meterRegistry.counter("inventory.menu.calls.rejected", "operation", "dish", "reason", reason).count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MenuCircuitBreakerTests {
+
+    @Test
+    void staysClosedUntilTheMinimumNumberOfCalls() {
+        var breaker = new MenuCircuitBreaker(10, 4, 50, Duration.ofMinutes(1), 1);
+
+        fail(breaker, 3);
+
+        assertEquals(MenuCircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void opensAtTheFailureRateAndRejectsCalls() {
+        var breaker = new MenuCircuitBreaker(10, 4, 50, Duration.ofMinutes(1), 1);
+
+        succeed(breaker, 2);
+        fail(breaker, 1);
+        assertEquals(MenuCircuitBreaker.State.CLOSED, breaker.state());
+        fail(breaker, 1);
+
+        assertEquals(MenuCircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void oldCallsLeaveTheWindow() {
+        var breaker = new MenuCircuitBreaker(4, 4, 50, Duration.ofMinutes(1), 1);
+
+        fail(breaker, 1);
+        succeed(breaker, 3);
+        // The early failure is pushed out, so one more failure is 1 of 4
+        succeed(breaker, 1);
+        fail(breaker, 1);
+
+        assertEquals(MenuCircuitBreaker.State.CLOSED, breaker.state());
+        fail(breaker, 1);
+        assertEquals(MenuCircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void halfOpenClosesAfterEveryTrialCallSucceeds() {
+        var breaker = openBreaker(2);
+
+        assertEquals(MenuCircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        // Only the trial calls are let through
+        assertFalse(breaker.tryAcquirePermission());
+        breaker.onSuccess();
+        assertEquals(MenuCircuitBreaker.State.HALF_OPEN, breaker.state());
+        breaker.onSuccess();
+
+        assertEquals(MenuCircuitBreaker.State.CLOSED, breaker.state());
+        // Closing starts a fresh window, so a single failure does not reopen it
+        fail(breaker, 1);
+        assertEquals(MenuCircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void halfOpenReopensOnAnyTrialFailure() {
+        var breaker = new MenuCircuitBreaker(2, 2, 50, Duration.ofMillis(50), 2);
+        fail(breaker, 2);
+        awaitHalfOpen(breaker);
+
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onFailure();
+
+        assertEquals(MenuCircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void releasedTrialPermitsCanBeUsedAgain() {
+        var breaker = openBreaker(1);
+
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+        breaker.releasePermission();
+
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onSuccess();
+        assertEquals(MenuCircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void invalidSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new MenuCircuitBreaker(5, 6, 50, Duration.ofSeconds(1), 1));
+        assertThrows(IllegalArgumentException.class, () -> new MenuCircuitBreaker(5, 5, 0, Duration.ofSeconds(1), 1));
+        assertThrows(IllegalArgumentException.class, () -> new MenuCircuitBreaker(5, 5, 50, Duration.ofSeconds(1), 0));
+    }
+
+    /**
+     * A breaker that has just finished its open period
+     */
+    private static MenuCircuitBreaker openBreaker(int halfOpenCalls) {
+        var breaker = new MenuCircuitBreaker(2, 2, 50, Duration.ZERO, halfOpenCalls);
+        fail(breaker, 2);
+        return breaker;
+    }
+
+    private static void awaitHalfOpen(MenuCircuitBreaker breaker) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (breaker.state() != MenuCircuitBreaker.State.HALF_OPEN) {
+            assertTrue(System.nanoTime() < deadline, "Circuit breaker did not leave the open state");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void succeed(MenuCircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+            breaker.onSuccess();
+        }
+    }
+
+    private static void fail(MenuCircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+            breaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.client;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.queryParam;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class MenuClientTests {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final Duration REFRESH_AFTER = Duration.ofMinutes(5);
+    private static final Duration NEGATIVE_TTL = Duration.ofSeconds(30);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FakeTicker ticker = new FakeTicker();
+    private final MenuCallGuard callGuard = mock(MenuCallGuard.class);
+    private final RestClient.Builder restClientBuilder = RestClient.builder();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(restClientBuilder)
+            .ignoreExpectOrder(true)
+            .build();
+    private MenuClient client;
+
+    @BeforeEach
+    void passCallsThroughTheGuard() {
+        doAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get()).when(callGuard).call(anyString(), any());
+        doAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get()).when(callGuard).hedgedCall(anyString(), any());
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentMissesOnTheSameDishMakeOneCall() throws Exception {
+        client = client(true, Duration.ofSeconds(3));
+        CountDownLatch requested = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ResponseCreator slowDish = request -> {
+            requested.countDown();
+            await(release);
+            return withSuccess(dish(1, "Rice bowl"), MediaType.APPLICATION_JSON).createResponse(request);
+        };
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/1")).andRespond(slowDish);
+
+        var first = CompletableFuture.supplyAsync(() -> client.getRecipeById(1L));
+        assertTrue(requested.await(5, TimeUnit.SECONDS));
+        var second = new CompletableFuture<Optional<DishRecipe>>();
+        Thread waiter = new Thread(() -> second.complete(client.getRecipeById(1L)));
+        waiter.start();
+        awaitBlocked(waiter);
+        release.countDown();
+
+        assertEquals("Rice bowl", first.get(5, TimeUnit.SECONDS).orElseThrow().name());
+        assertEquals("Rice bowl", second.get(5, TimeUnit.SECONDS).orElseThrow().name());
+        server.verify();
+    }
+
+    @Test
+    void notFoundIsCachedUntilTheNegativeTtlPasses() {
+        client = client(true, Duration.ofSeconds(3));
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/7")).andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        assertTrue(client.getRecipeById(7L).isEmpty());
+        ticker.advance(NEGATIVE_TTL.minusSeconds(1));
+        assertTrue(client.getRecipeById(7L).isEmpty());
+        server.verify();
+
+        server.reset();
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/7"))
+                .andRespond(withSuccess(dish(7, "Soup"), MediaType.APPLICATION_JSON));
+        ticker.advance(Duration.ofSeconds(2));
+
+        assertEquals("Soup", client.getRecipeById(7L).orElseThrow().name());
+        server.verify();
+    }
+
+    @Test
+    void staleDishesAreRefreshedAndExpiredOnesReloaded() {
+        client = client(true, Duration.ofSeconds(3));
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/1"))
+                .andRespond(withSuccess(dish(1, "Rice bowl"), MediaType.APPLICATION_JSON));
+        assertEquals("Rice bowl", client.getRecipeById(1L).orElseThrow().name());
+        server.verify();
+
+        // Past refreshAfter the next read reloads the dish (synchronously here, see client())
+        server.reset();
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/1"))
+                .andRespond(withSuccess(dish(1, "Rice bowl v2"), MediaType.APPLICATION_JSON));
+        ticker.advance(REFRESH_AFTER.minusSeconds(1));
+        assertEquals("Rice bowl", client.getRecipeById(1L).orElseThrow().name());
+        ticker.advance(Duration.ofSeconds(2));
+        assertEquals("Rice bowl v2", client.getRecipeById(1L).orElseThrow().name());
+        assertEquals("Rice bowl v2", client.getRecipeById(1L).orElseThrow().name());
+        server.verify();
+
+        // Past the TTL the dish is gone and the next read waits for a fresh one
+        server.reset();
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/1"))
+                .andRespond(withSuccess(dish(1, "Rice bowl v3"), MediaType.APPLICATION_JSON));
+        ticker.advance(TTL.plusSeconds(1));
+        assertEquals("Rice bowl v3", client.getRecipeById(1L).orElseThrow().name());
+        server.verify();
+    }
+
+    @Test
+    void serverErrorsAreNotCachedAsNotFound() {
+        client = client(true, Duration.ofSeconds(3));
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/1")).andRespond(withServerError());
+
+        assertThrows(MenuServiceUnavailableException.class, () -> client.getRecipeById(1L));
+        assertEquals(0, client.cacheSize());
+        server.verify();
+
+        server.reset();
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/1"))
+                .andRespond(withSuccess(dish(1, "Rice bowl"), MediaType.APPLICATION_JSON));
+        assertEquals("Rice bowl", client.getRecipeById(1L).orElseThrow().name());
+        server.verify();
+    }
+
+    @Test
+    void rejectedCallsAreNotCachedAsNotFound() {
+        client = client(true, Duration.ofSeconds(3));
+        doThrow(new MenuCallRejectedException("Menu service circuit is open"))
+                .when(callGuard).hedgedCall(anyString(), any());
+
+        assertThrows(MenuCallRejectedException.class, () -> client.getRecipeById(1L));
+        assertEquals(0, client.cacheSize());
+
+        passCallsThroughTheGuard();
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/1"))
+                .andRespond(withSuccess(dish(1, "Rice bowl"), MediaType.APPLICATION_JSON));
+        assertEquals("Rice bowl", client.getRecipeById(1L).orElseThrow().name());
+        server.verify();
+    }
+
+    @Test
+    void bulkLookupFetchesAllMissesInOneCall() {
+        client = client(true, Duration.ofSeconds(3));
+        server.expect(once(), requestTo(startsWith("http://menu-service/api/v1/menu/batch")))
+                .andExpect(queryParam("ids", "1", "2"))
+                .andRespond(withSuccess(dishes(dish(1, "Rice bowl"), dish(2, "Soup")), MediaType.APPLICATION_JSON));
+
+        Map<Long, DishRecipe> recipes = client.getRecipesByIds(List.of(1L, 2L));
+
+        assertEquals(Set.of(1L, 2L), recipes.keySet());
+        assertEquals(2, client.cacheSize());
+        server.verify();
+    }
+
+    @Test
+    void disabledBulkLookupFallsBackToParallelSingleLookups() {
+        client = client(false, Duration.ofSeconds(3));
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/1"))
+                .andRespond(withSuccess(dish(1, "Rice bowl"), MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/2"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        Map<Long, DishRecipe> recipes = client.getRecipesByIds(List.of(1L, 2L));
+
+        assertEquals(Set.of(1L), recipes.keySet());
+        server.verify();
+    }
+
+    @Test
+    void missingBulkEndpointFallsBackAndIsNotCalledAgain() {
+        client = client(true, Duration.ofSeconds(3));
+        server.expect(once(), requestTo(startsWith("http://menu-service/api/v1/menu/batch")))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/1"))
+                .andRespond(withSuccess(dish(1, "Rice bowl"), MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/2"))
+                .andRespond(withSuccess(dish(2, "Soup"), MediaType.APPLICATION_JSON));
+        assertEquals(Set.of(1L, 2L), client.getRecipesByIds(List.of(1L, 2L)).keySet());
+        server.verify();
+
+        server.reset();
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/3"))
+                .andRespond(withSuccess(dish(3, "Salad"), MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/4"))
+                .andRespond(withSuccess(dish(4, "Curry"), MediaType.APPLICATION_JSON));
+        assertEquals(Set.of(3L, 4L), client.getRecipesByIds(List.of(3L, 4L)).keySet());
+        server.verify();
+    }
+
+    @Test
+    void failedBulkLookupFallsBackToSingleLookups() {
+        client = client(true, Duration.ofSeconds(3));
+        server.expect(once(), requestTo(startsWith("http://menu-service/api/v1/menu/batch")))
+                .andRespond(withServerError());
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/1"))
+                .andRespond(withSuccess(dish(1, "Rice bowl"), MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/2"))
+                .andRespond(withSuccess(dish(2, "Soup"), MediaType.APPLICATION_JSON));
+
+        assertEquals(Set.of(1L, 2L), client.getRecipesByIds(List.of(1L, 2L)).keySet());
+        server.verify();
+    }
+
+    @Test
+    void dishesMissingFromTheBulkReplyAreFetchedOneByOne() {
+        client = client(true, Duration.ofSeconds(3));
+        server.expect(once(), requestTo(startsWith("http://menu-service/api/v1/menu/batch")))
+                .andRespond(withSuccess(dishes(dish(1, "Rice bowl")), MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/2"))
+                .andRespond(withSuccess(dish(2, "Soup"), MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/3"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        Map<Long, DishRecipe> recipes = client.getRecipesByIds(List.of(1L, 2L, 3L));
+
+        assertEquals(Set.of(1L, 2L), recipes.keySet());
+        assertEquals("Soup", recipes.get(2L).name());
+        server.verify();
+    }
+
+    @Test
+    void lookupsPastTheOrderDeadlineFailTheOrder() {
+        client = client(false, Duration.ofMillis(200));
+        CountDownLatch release = new CountDownLatch(1);
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/1"))
+                .andRespond(withSuccess(dish(1, "Rice bowl"), MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://menu-service/api/v1/menu/2")).andRespond(request -> {
+            await(release);
+            return withSuccess(dish(2, "Soup"), MediaType.APPLICATION_JSON).createResponse(request);
+        });
+
+        try {
+            var e = assertThrows(MenuServiceUnavailableException.class,
+                    () -> client.getRecipesByIds(List.of(1L, 2L)));
+            assertTrue(e.getMessage().contains("[2]"));
+            assertEquals(1, meterRegistry.counter("inventory.menu.lookup.timeouts").count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private MenuClient client(boolean bulkLookupEnabled, Duration orderLookupDeadline) {
+        // Refreshes run on the calling thread so the test sees them finish
+        return new MenuClient(restClientBuilder, 100, TTL, REFRESH_AFTER, NEGATIVE_TTL, bulkLookupEnabled,
+                "/api/v1/menu/batch", orderLookupDeadline, callGuard, meterRegistry, ticker, Runnable::run);
+    }
+
+    private static String dish(long id, String name) {
+        return """
+                {"id": %d, "name": "%s", "userId": 1, "price": 12.50,
+                 "ingredients": [{"name": "Rice", "quantity": 0.2, "unit": "kg"}]}""".formatted(id, name);
+    }
+
+    private static String dishes(String... dishes) {
+        return "[" + String.join(",", dishes) + "]";
+    }
+
+    private static void awaitBlocked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.BLOCKED && thread.getState() != Thread.State.WAITING) {
+            assertTrue(System.nanoTime() < deadline, "thread never blocked on the pending load");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class FakeTicker implements Ticker {
+
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void advance(Duration duration) {
+            nanos.addAndGet(duration.toNanos());
+        }
+    }
+}
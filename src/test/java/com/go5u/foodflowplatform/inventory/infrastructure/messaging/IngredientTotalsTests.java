@@ -0,0 +1,62 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IngredientTotalsTests {
+
+    @Test
+    void addsUpQuantitiesPerIngredient() {
+        var totals = new IngredientTotals();
+
+        totals.add("flour", 250);
+        totals.add("salt", 5);
+        totals.add("flour", 750);
+        totals.add("salt", -5);
+
+        assertEquals(2, totals.size());
+        assertEquals(1_000, totals.get("flour"));
+        assertEquals(0, totals.get("salt"));
+        assertEquals(0, totals.get("sugar"));
+    }
+
+    @Test
+    void iteratesInFirstAddedOrder() {
+        var totals = new IngredientTotals();
+        totals.add("tomato", 1);
+        totals.add("basil", 2);
+        totals.add("tomato", 3);
+
+        List<String> names = new ArrayList<>();
+        List<Long> quantities = new ArrayList<>();
+        totals.forEach((name, quantity) -> {
+            names.add(name);
+            quantities.add(quantity);
+        });
+
+        assertEquals(List.of("tomato", "basil"), names);
+        assertEquals(List.of(4L, 2L), quantities);
+    }
+
+    @Test
+    void keepsEveryTotalWhenGrowingPastItsInitialSize() {
+        var totals = new IngredientTotals(2);
+        assertTrue(totals.isEmpty());
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 500; i++) {
+                totals.add("ingredient-" + i, i);
+            }
+        }
+
+        assertEquals(500, totals.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(3L * i, totals.get("ingredient-" + i));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
+
+import com.go5u.foodflowplatform.inventory.domain.model.events.InventoryEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryEventProducerTests {
+
+    private KafkaTemplate<String, InventoryEvent> kafkaTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private InventoryEventProducer producer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(CompletableFuture.completedFuture(null));
+        meterRegistry = new SimpleMeterRegistry();
+        producer = new InventoryEventProducer(kafkaTemplate, meterRegistry);
+        ReflectionTestUtils.setField(producer, "inventoryTopicName", "inventory-events");
+        ReflectionTestUtils.setField(producer, "coalesceWindow", Duration.ofSeconds(2));
+        producer.registerMetrics();
+    }
+
+    @Test
+    void everyEventIsSentInOrderByDefault() {
+        producer.publishInventoryEvents(List.of(event(1L, "AVAILABLE"), event(1L, "AVAILABLE"), event(2L, "LOW_STOCK"))).join();
+
+        assertEquals(List.of("1:AVAILABLE", "1:AVAILABLE", "2:LOW_STOCK"), sent());
+        assertEquals(new InventoryEventProducer.PublishStats(3, 0, 0, 3, 0), producer.getPublishStats());
+        assertEquals(Duration.ZERO, producer.getCoalesceWindow());
+    }
+
+    @Test
+    void coalescingKeepsTheLatestEventOfEachProduct() {
+        ReflectionTestUtils.setField(producer, "coalesceEnabled", true);
+
+        producer.publishInventoryEvents(List.of(event(1L, "AVAILABLE"), event(2L, "AVAILABLE"),
+                event(1L, "LOW_STOCK"), event(1L, "OUT_OF_STOCK"))).join();
+
+        // Each product is sent at the position of its last event
+        assertEquals(List.of("2:AVAILABLE", "1:OUT_OF_STOCK"), sent());
+        assertEquals(new InventoryEventProducer.PublishStats(4, 2, 0, 2, 0), producer.getPublishStats());
+        assertEquals(Duration.ofSeconds(2), producer.getCoalesceWindow());
+    }
+
+    @Test
+    void transitionsOnlySuppressesUnchangedStatuses() {
+        ReflectionTestUtils.setField(producer, "transitionsOnly", true);
+
+        producer.publishInventoryEvents(List.of(event(1L, "AVAILABLE"), event(1L, "AVAILABLE"),
+                event(1L, "LOW_STOCK"), event(2L, "AVAILABLE"))).join();
+        // The next batch compares with the last status published for each product
+        producer.publishInventoryEvents(List.of(event(1L, "LOW_STOCK"), event(2L, "OUT_OF_STOCK"))).join();
+
+        assertEquals(List.of("1:AVAILABLE", "1:LOW_STOCK", "2:AVAILABLE", "2:OUT_OF_STOCK"), sent());
+        assertEquals(new InventoryEventProducer.PublishStats(6, 0, 2, 4, 0), producer.getPublishStats());
+    }
+
+    @Test
+    void coalescingAndTransitionsOnlyCombine() {
+        ReflectionTestUtils.setField(producer, "coalesceEnabled", true);
+        ReflectionTestUtils.setField(producer, "transitionsOnly", true);
+        producer.publishInventoryEvents(List.of(event(1L, "LOW_STOCK"))).join();
+
+        producer.publishInventoryEvents(List.of(event(1L, "AVAILABLE"), event(1L, "LOW_STOCK"), event(2L, "AVAILABLE"))).join();
+
+        assertEquals(List.of("1:LOW_STOCK", "2:AVAILABLE"), sent());
+        assertEquals(new InventoryEventProducer.PublishStats(4, 1, 1, 2, 0), producer.getPublishStats());
+        assertEquals(1.0, stage("coalesced"));
+        assertEquals(1.0, stage("suppressed"));
+        assertEquals(2.0, stage("emitted"));
+    }
+
+    @Test
+    void failedSendIsCountedAndDoesNotUpdateTheLastStatus() {
+        ReflectionTestUtils.setField(producer, "transitionsOnly", true);
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        var result = producer.publishInventoryEvents(List.of(event(1L, "AVAILABLE")));
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(1.0, stage("failed"));
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(CompletableFuture.completedFuture(null));
+        producer.publishInventoryEvents(List.of(event(1L, "AVAILABLE"))).join();
+        assertEquals(new InventoryEventProducer.PublishStats(2, 0, 0, 1, 1), producer.getPublishStats());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> sent() {
+        ArgumentCaptor<Message<InventoryEvent>> messages = ArgumentCaptor.forClass(Message.class);
+        verify(kafkaTemplate, atLeast(0)).send(messages.capture());
+        return messages.getAllValues().stream()
+                .map(message -> message.getPayload().getProductId() + ":" + message.getPayload().getStatus())
+                .toList();
+    }
+
+    private double stage(String stage) {
+        return meterRegistry.get("inventory.events.batch").tag("stage", stage).functionCounter().count();
+    }
+
+    private static InventoryEvent event(Long productId, String status) {
+        return new InventoryEvent(productId, "product-" + productId, 5, status, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,130 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
+
+import com.go5u.foodflowplatform.inventory.domain.model.entities.InventoryOutboxMessage;
+import com.go5u.foodflowplatform.inventory.domain.model.events.InventoryEvent;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.InventoryOutboxMessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryOutboxRelayTests {
+
+    @Autowired
+    private InventoryOutboxMessageRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private InventoryEventProducer producer;
+    private InventoryOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAllInBatch();
+        producer = mock(InventoryEventProducer.class);
+        when(producer.getCoalesceWindow()).thenReturn(Duration.ZERO);
+        relay = new InventoryOutboxRelay(outboxRepository, producer, transactionManager, 100,
+                Duration.ofSeconds(1), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void relayedMessagesAreDeleted() {
+        when(producer.publishInventoryEvents(anyList())).thenReturn(CompletableFuture.completedFuture(null));
+        save(1L, "AVAILABLE");
+        save(2L, "LOW_STOCK");
+
+        relay.relay();
+
+        assertEquals(List.of(1L, 2L), publishedProductIds());
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void failedSendReleasesTheClaim() {
+        when(producer.publishInventoryEvents(anyList())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        save(1L, "AVAILABLE");
+
+        relay.relay();
+
+        InventoryOutboxMessage message = outboxRepository.findAll().getFirst();
+        assertNull(message.getClaimedBy());
+        assertNull(message.getClaimedUntil());
+    }
+
+    @Test
+    void messagesAfterAnotherRelaysClaimOfTheSameProductWait() {
+        when(producer.publishInventoryEvents(anyList())).thenReturn(CompletableFuture.completedFuture(null));
+        Long claimedElsewhere = save(1L, "LOW_STOCK");
+        Long sameProduct = save(1L, "OUT_OF_STOCK");
+        save(2L, "AVAILABLE");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                outboxRepository.claim(List.of(claimedElsewhere), "other-relay", LocalDateTime.now().plusMinutes(1)));
+
+        relay.relay();
+
+        assertEquals(List.of(2L), publishedProductIds());
+        assertEquals(List.of(claimedElsewhere, sameProduct),
+                outboxRepository.findAll().stream().map(InventoryOutboxMessage::getId).sorted().toList());
+    }
+
+    @Test
+    void expiredClaimsAreTakenOver() {
+        when(producer.publishInventoryEvents(anyList())).thenReturn(CompletableFuture.completedFuture(null));
+        Long abandoned = save(1L, "LOW_STOCK");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                outboxRepository.claim(List.of(abandoned), "dead-relay", LocalDateTime.now().minusSeconds(1)));
+
+        relay.relay();
+
+        assertEquals(List.of(1L), publishedProductIds());
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void messagesYoungerThanTheCoalescingWindowStay() {
+        when(producer.getCoalesceWindow()).thenReturn(Duration.ofMinutes(1));
+        save(1L, "AVAILABLE");
+
+        relay.relay();
+
+        verify(producer, never()).publishInventoryEvents(anyList());
+        assertEquals(1, outboxRepository.count());
+    }
+
+    private Long save(Long productId, String status) {
+        var event = new InventoryEvent(productId, "Product " + productId, 5, status, LocalDateTime.now().minusSeconds(1));
+        return outboxRepository.save(new InventoryOutboxMessage(event)).getId();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> publishedProductIds() {
+        ArgumentCaptor<List<InventoryEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(producer).publishInventoryEvents(captor.capture());
+        return captor.getValue().stream().map(InventoryEvent::getProductId).toList();
+    }
+}
@@ -0,0 +1,119 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
+
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderEvent;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderEventBatchConsumerTests {
+
+    private static final TopicPartition PARTITION = new TopicPartition("orders-events", 0);
+
+    private OrderEventProcessor processor;
+    private OrderEventBatchConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        processor = mock(OrderEventProcessor.class);
+        consumer = new OrderEventBatchConsumer(processor);
+    }
+
+    @Test
+    void undeserializableRecordIsReportedAtItsPosition() {
+        List<ConsumerRecord<String, OrderEvent>> records = List.of(event(0, 1L), event(1, 2L), poison(2), event(3, 3L));
+
+        var failure = assertThrows(BatchListenerFailedException.class, () -> consumer.handleOrderEvents(records));
+
+        assertEquals(2, failure.getIndex());
+        assertInstanceOf(DeserializationException.class, failure.getCause());
+        verify(processor).process(List.of(records.get(0).value(), records.get(1).value()));
+    }
+
+    @Test
+    void undeserializableFirstRecordProcessesNothing() {
+        List<ConsumerRecord<String, OrderEvent>> records = List.of(poison(0), event(1, 1L));
+
+        var failure = assertThrows(BatchListenerFailedException.class, () -> consumer.handleOrderEvents(records));
+
+        assertEquals(0, failure.getIndex());
+        verify(processor, never()).process(any());
+    }
+
+    @Test
+    void tombstonesAreSkipped() {
+        var tombstone = new ConsumerRecord<String, OrderEvent>(PARTITION.topic(), PARTITION.partition(), 1, "k", null);
+        List<ConsumerRecord<String, OrderEvent>> records = List.of(event(0, 1L), tombstone);
+
+        consumer.handleOrderEvents(records);
+
+        verify(processor).process(List.of(records.get(0).value()));
+    }
+
+    @Test
+    void errorHandlerCommitsBeforePoisonAndRecoversItWithoutRetry() {
+        List<ConsumerRecord<String, OrderEvent>> records = List.of(event(0, 1L), poison(1), event(2, 2L));
+        var failure = assertThrows(BatchListenerFailedException.class, () -> consumer.handleOrderEvents(records));
+
+        List<ConsumerRecord<?, ?>> recovered = new ArrayList<>();
+        // Would retry a retryable failure nine times before recovering it
+        var errorHandler = new DefaultErrorHandler((record, exception) -> recovered.add(record), new FixedBackOff(0, 9));
+        @SuppressWarnings("unchecked")
+        Consumer<String, OrderEvent> kafkaConsumer = mock(Consumer.class);
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        when(container.getContainerProperties()).thenReturn(new ContainerProperties("orders-events"));
+        when(container.isRunning()).thenReturn(true);
+
+        // The handler seeks the records after the poison one and asks the container to poll again
+        assertThrows(KafkaException.class, () -> errorHandler.handleBatch(failure,
+                new ConsumerRecords<>(Map.of(PARTITION, records)), kafkaConsumer, container, () -> { }));
+
+        assertEquals(List.of(records.get(1)), recovered);
+        verify(kafkaConsumer).commitSync(eq(Map.of(PARTITION, new OffsetAndMetadata(1))), any());
+        verify(kafkaConsumer).commitSync(eq(Map.of(PARTITION, new OffsetAndMetadata(2))), any());
+        verify(kafkaConsumer).seek(PARTITION, 2);
+    }
+
+    private static ConsumerRecord<String, OrderEvent> event(long offset, Long orderId) {
+        var event = new OrderEvent(orderId, List.of(), "CREATED", null, 1, 7L);
+        return new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset, "7", event);
+    }
+
+    private static ConsumerRecord<String, OrderEvent> poison(long offset) {
+        byte[] data = "{not json".getBytes(StandardCharsets.UTF_8);
+        var headers = new RecordHeaders();
+        SerializationUtils.deserializationException(headers, data,
+                new DeserializationException("Unreadable order event", data, false, new IllegalStateException("bad")), false);
+        return new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset, 0L, TimestampType.CREATE_TIME,
+                0, data.length, "7", null, headers, Optional.empty());
+    }
+}
@@ -0,0 +1,167 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
+
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderEventParallelConsumerTests {
+
+    private static final TopicPartition PARTITION = new TopicPartition("orders-events", 0);
+    private static final long SLOW_USER = 1L;
+
+    private OrderEventProcessor processor;
+    private ConsumerRecordRecoverer recoverer;
+    private MessageListenerContainer container;
+    private final CountDownLatch releaseSlowUser = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        processor = mock(OrderEventProcessor.class);
+        recoverer = mock(ConsumerRecordRecoverer.class);
+        container = mock(MessageListenerContainer.class);
+        doAnswer(invocation -> {
+            List<OrderEvent> events = invocation.getArgument(0);
+            if (events.stream().anyMatch(event -> SLOW_USER == event.getUserId())) {
+                assertTrue(releaseSlowUser.await(10, TimeUnit.SECONDS));
+            }
+            return null;
+        }).when(processor).process(anyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSlowUser.countDown();
+    }
+
+    @Test
+    void slowUserDoesNotDelayOtherUsers() {
+        var consumer = consumer(100);
+        Acknowledgment slowAck = mock(Acknowledgment.class);
+        Acknowledgment secondAck = mock(Acknowledgment.class);
+        Acknowledgment thirdAck = mock(Acknowledgment.class);
+
+        consumer.handleOrderEvent(record(0, 100L, SLOW_USER), slowAck);
+        consumer.handleOrderEvent(record(1, 200L, 2L), secondAck);
+        consumer.handleOrderEvent(record(2, 300L, 3L), thirdAck);
+
+        verify(processor, timeout(5000)).process(List.of(event(200L, 2L)));
+        verify(processor, timeout(5000)).process(List.of(event(300L, 3L)));
+        // Offset 0 is still running, so nothing can be committed yet
+        verify(thirdAck, never()).acknowledge();
+        verify(secondAck, never()).acknowledge();
+
+        releaseSlowUser.countDown();
+
+        // Once the slow event completes the commit moves past all three records at once
+        verify(thirdAck, timeout(5000)).acknowledge();
+        verify(slowAck, never()).acknowledge();
+        verify(secondAck, never()).acknowledge();
+        consumer.shutdown();
+    }
+
+    @Test
+    void userEventsQueuedAcrossPollsAreAppliedInOrderAfterTheRunningOnes() {
+        var consumer = consumer(100);
+        Acknowledgment firstAck = mock(Acknowledgment.class);
+        Acknowledgment laterAck = mock(Acknowledgment.class);
+
+        consumer.handleOrderEvent(record(0, 100L, SLOW_USER), firstAck);
+        verify(processor, timeout(5000)).process(List.of(event(100L, SLOW_USER)));
+        // Next poll: the user's worker is still busy, so the event waits in the user's queue
+        consumer.handleOrderEvent(record(1, 101L, SLOW_USER), laterAck);
+        verify(processor, never()).process(List.of(event(101L, SLOW_USER)));
+
+        releaseSlowUser.countDown();
+
+        verify(processor, timeout(5000)).process(List.of(event(101L, SLOW_USER)));
+        verify(laterAck, timeout(5000)).acknowledge();
+        consumer.shutdown();
+    }
+
+    @Test
+    void backedUpPartitionIsPausedUntilItDrains() {
+        var consumer = consumer(2);
+
+        consumer.handleOrderEvent(record(0, 100L, SLOW_USER), mock(Acknowledgment.class));
+        verify(container, never()).pausePartition(any());
+        Acknowledgment lastAck = mock(Acknowledgment.class);
+        consumer.handleOrderEvent(record(1, 200L, 2L), lastAck);
+        verify(container).pausePartition(PARTITION);
+
+        releaseSlowUser.countDown();
+
+        verify(lastAck, timeout(5000)).acknowledge();
+        verify(container, timeout(5000)).resumePartition(PARTITION);
+        consumer.shutdown();
+    }
+
+    @Test
+    void eventFailingEveryAttemptIsDeadLetteredAndCommitted() {
+        var consumer = consumer(100);
+        var failing = record(0, 400L, 4L);
+        doThrow(new IllegalStateException("menu down")).when(processor).process(List.of(failing.value()));
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        consumer.handleOrderEvent(failing, ack);
+
+        verify(ack, timeout(5000)).acknowledge();
+        verify(recoverer).accept(eq(failing), any(IllegalStateException.class));
+        consumer.shutdown();
+    }
+
+    @Test
+    void undeserializableRecordIsDeadLetteredAndCommittedInOrder() {
+        var consumer = consumer(100);
+        var poison = new ConsumerRecord<String, OrderEvent>(PARTITION.topic(), PARTITION.partition(), 0, "5", null);
+        var failure = new DeserializationException("Unreadable order event", new byte[0], false, new IllegalStateException());
+        Acknowledgment nextAck = mock(Acknowledgment.class);
+
+        consumer.recover(poison, failure);
+        consumer.handleOrderEvent(record(1, 500L, 5L), nextAck);
+
+        verify(nextAck, timeout(5000)).acknowledge();
+        verify(recoverer).accept(poison, failure);
+        consumer.shutdown();
+    }
+
+    private OrderEventParallelConsumer consumer(int maxPendingPerPartition) {
+        KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+        when(registry.getListenerContainer(OrderEventParallelConsumer.LISTENER_ID)).thenReturn(container);
+        return new OrderEventParallelConsumer(processor, recoverer, new FixedBackOff(0, 1), registry, 4,
+                maxPendingPerPartition);
+    }
+
+    private static ConsumerRecord<String, OrderEvent> record(long offset, Long orderId, Long userId) {
+        return new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset, String.valueOf(userId),
+                event(orderId, userId));
+    }
+
+    private static OrderEvent event(Long orderId, Long userId) {
+        return new OrderEvent(orderId, List.of(), "CREATED", null, 1, userId);
+    }
+}
@@ -0,0 +1,104 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
+
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderItemEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.QuantityUnit;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockDelta;
+import com.go5u.foodflowplatform.inventory.infrastructure.client.DishRecipe;
+import com.go5u.foodflowplatform.inventory.interfaces.dto.DishResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderIngredientCalculatorTests {
+
+    private static final Map<Long, DishRecipe> RECIPES = Map.of(1L, DishRecipe.from(new DishResponse(1L, "Pizza", List.of(
+            new DishResponse.IngredientResponse("flour", 250.0, "g"),
+            new DishResponse.IngredientResponse("oil", 0.02, "l"),
+            new DishResponse.IngredientResponse("egg", 1.0, "un")), BigDecimal.TEN, null, 7L)));
+
+    @Test
+    void recipeAmountsAreConvertedToTheStockUnitOfEachProduct() {
+        var totals = OrderIngredientCalculator.aggregate(List.of(item(1L, 2)), RECIPES,
+                Map.of("flour", QuantityUnit.KILOGRAM, "oil", QuantityUnit.MILLILITER, "egg", QuantityUnit.GRAM));
+
+        // 2 x 250 g = 0.5 kg
+        assertEquals(500, totals.get("flour"));
+        // 2 x 0.02 l = 40 ml
+        assertEquals(40_000, totals.get("oil"));
+        // Pieces do not convert to grams
+        assertEquals(2_000, totals.get("egg"));
+    }
+
+    @Test
+    void amountsStayAsWrittenWhileTheStockUnitIsUnknown() {
+        var totals = OrderIngredientCalculator.aggregate(List.of(item(1L, 2)), RECIPES, Map.of());
+
+        assertEquals(500_000, totals.get("flour"));
+        assertEquals(40, totals.get("oil"));
+    }
+
+    @Test
+    void netDeltasUseTheStockUnitsOfEachUser() {
+        var created = new OrderEvent(10L, List.of(item(1L, 3)), "CREATED", null, 1, 7L);
+        var cancelled = new OrderEvent(11L, List.of(item(1L, 1)), "CANCELLED", null, 1, 7L);
+
+        List<StockDelta> deltas = OrderIngredientCalculator.netStockDeltas(List.of(created, cancelled), RECIPES,
+                Map.of(7L, Map.of("flour", QuantityUnit.KILOGRAM)));
+
+        assertEquals(new StockDelta(7L, "flour", -500, null), deltas.get(0));
+        assertEquals(new StockDelta(7L, "oil", -40, null), deltas.get(1));
+    }
+
+    @Test
+    void ordersCancelledInTheSamePollNetToNothing() {
+        var created = new OrderEvent(10L, List.of(item(1L, 2)), "CREATED", null, 1, 7L);
+        var cancelled = new OrderEvent(10L, List.of(item(1L, 2)), "CANCELLED", null, 2, 7L);
+
+        assertTrue(OrderIngredientCalculator.netStockDeltas(List.of(created, cancelled), RECIPES, Map.of()).isEmpty());
+    }
+
+    @Test
+    void deltasAreNettedPerUserAndIgnoreOtherStatuses() {
+        var first = new OrderEvent(10L, List.of(item(1L, 1)), "CREATED", null, 1, 7L);
+        var second = new OrderEvent(11L, List.of(item(1L, 2), item(99L, 5)), "CREATED", null, 1, 7L);
+        var otherUser = new OrderEvent(12L, List.of(item(1L, 1)), "CANCELLED", null, 1, 8L);
+        var fulfilled = new OrderEvent(13L, List.of(item(1L, 4)), "FULFILLED", null, 1, 7L);
+        var anonymous = new OrderEvent(14L, List.of(item(1L, 4)), "CREATED", null, 1, null);
+
+        List<StockDelta> deltas = OrderIngredientCalculator.netStockDeltas(
+                List.of(first, second, otherUser, fulfilled, anonymous), RECIPES, Map.of());
+
+        // Dish 99 has no recipe, so only the 3 pizzas of user 7 count
+        assertEquals(List.of(
+                new StockDelta(7L, "flour", -750_000, null),
+                new StockDelta(7L, "oil", -60, null),
+                new StockDelta(7L, "egg", -3_000, null),
+                new StockDelta(8L, "flour", 250_000, null),
+                new StockDelta(8L, "oil", 20, null),
+                new StockDelta(8L, "egg", 1_000, null)), deltas);
+    }
+
+    @Test
+    void resolvedProductsOnlyApplyToTheDishOwner() {
+        Map<Long, DishRecipe> recipes = Map.of(1L, RECIPES.get(1L).withProductIds(new long[]{41L, DishRecipe.UNRESOLVED, 43L}));
+        var owner = new OrderEvent(10L, List.of(item(1L, 1)), "CREATED", null, 1, 7L);
+        var otherUser = new OrderEvent(11L, List.of(item(1L, 1)), "CREATED", null, 1, 8L);
+
+        List<StockDelta> deltas = OrderIngredientCalculator.netStockDeltas(List.of(owner, otherUser), recipes, Map.of());
+
+        assertEquals(List.of(41L, 43L), deltas.stream()
+                .filter(delta -> delta.userId() == 7L && delta.productId() != null)
+                .map(StockDelta::productId).toList());
+        assertTrue(deltas.stream().filter(delta -> delta.userId() == 8L).allMatch(delta -> delta.productId() == null));
+    }
+
+    private static OrderItemEvent item(Long dishId, int quantity) {
+        return new OrderItemEvent(dishId, "Pizza", quantity, BigDecimal.TEN);
+    }
+}
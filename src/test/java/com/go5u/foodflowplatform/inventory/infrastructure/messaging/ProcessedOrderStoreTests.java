@@ -0,0 +1,93 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging;
+
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProcessedOrderId;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProcessedOrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProcessedOrderStoreTests {
+
+    private static final ProcessedOrderId CREATED = new ProcessedOrderId(1L, "CREATED");
+    private static final ProcessedOrderId CANCELLED = new ProcessedOrderId(1L, "CANCELLED");
+    private static final ProcessedOrderId OTHER = new ProcessedOrderId(2L, "CREATED");
+
+    @Autowired
+    private ProcessedOrderRepository processedOrderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        processedOrderRepository.deleteAll();
+    }
+
+    @Test
+    void unprocessedIdsKeepTheirOrderWithoutRepeats() {
+        var store = store(processedOrderRepository);
+
+        assertEquals(List.of(OTHER, CREATED, CANCELLED),
+                store.filterUnprocessed(List.of(OTHER, CREATED, OTHER, CANCELLED, CREATED)));
+    }
+
+    @Test
+    void committedIdsAreRememberedInMemory() {
+        var store = store(processedOrderRepository);
+        transactionTemplate.executeWithoutResult(status -> store.markProcessed(List.of(CREATED)));
+        // Without its row only the in-memory set can still know the id
+        processedOrderRepository.deleteAll();
+
+        assertEquals(List.of(), store.filterUnprocessed(List.of(CREATED)));
+    }
+
+    @Test
+    void committedIdsAreDroppedByAStoreWithACleanMemory() {
+        transactionTemplate.executeWithoutResult(status -> store(processedOrderRepository).markProcessed(List.of(CREATED)));
+
+        // A restarted instance only knows the table
+        assertEquals(List.of(OTHER), store(processedOrderRepository).filterUnprocessed(List.of(CREATED, OTHER)));
+    }
+
+    @Test
+    void idsOfARolledBackTransactionStayUnprocessed() {
+        var store = store(processedOrderRepository);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            store.markProcessed(List.of(CREATED));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of(CREATED), store.filterUnprocessed(List.of(CREATED)));
+        assertTrue(processedOrderRepository.findAll().isEmpty());
+    }
+
+    private static ProcessedOrderStore store(ProcessedOrderRepository repository) {
+        return new ProcessedOrderStore(repository, 100, Duration.ofDays(7));
+    }
+}
@@ -0,0 +1,106 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.messaging.serialization;
+
+import com.go5u.foodflowplatform.inventory.domain.model.events.InventoryEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderEvent;
+import com.go5u.foodflowplatform.inventory.domain.model.events.OrderItemEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryEventCodecTests {
+
+    private final BinaryEventCodec codec = new BinaryEventCodec();
+
+    @Test
+    void orderEventRoundTrips() {
+        var items = List.of(
+                new OrderItemEvent(1L, "Lomo saltado", 2, new BigDecimal("32.50")),
+                new OrderItemEvent(2L, "Chicha morada", 1, new BigDecimal("8")));
+        var event = new OrderEvent(42L, items, "CREATED", LocalDateTime.of(2026, 3, 1, 12, 30, 15, 123_456_789), 7, 3L);
+
+        assertEquals(event, codec.decode(codec.encode(event)));
+    }
+
+    @Test
+    void inventoryEventRoundTrips() {
+        var event = new InventoryEvent(9L, "Tomate", 17, "LOW_STOCK", LocalDateTime.of(2026, 3, 1, 8, 0), 3_600L);
+
+        assertEquals(event, codec.decode(codec.encode(event)));
+    }
+
+    @Test
+    void negativeAndExtremeValuesRoundTrip() {
+        var items = new ArrayList<OrderItemEvent>();
+        items.add(new OrderItemEvent(Long.MAX_VALUE, "", Integer.MIN_VALUE, new BigDecimal("-12345678901234567890.123456789")));
+        items.add(new OrderItemEvent(Long.MIN_VALUE, "ñandú 🍅", Integer.MAX_VALUE, new BigDecimal("1E+5")));
+        var event = new OrderEvent(-1L, items, "x".repeat(300), LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_999),
+                -7, 0L);
+
+        assertEquals(event, codec.decode(codec.encode(event)));
+        var inventory = new InventoryEvent(Long.MIN_VALUE, "Sal", -5, "OUT_OF_STOCK", LocalDateTime.of(9999, 1, 1, 0, 0), Long.MAX_VALUE);
+        assertEquals(inventory, codec.decode(codec.encode(inventory)));
+    }
+
+    @Test
+    void nullFieldsRoundTripAsNull() {
+        var orderEvent = new OrderEvent(null, null, null, null, null, null);
+        assertEquals(orderEvent, codec.decode(codec.encode(orderEvent)));
+
+        var withEmptyItem = new OrderEvent(1L, List.of(new OrderItemEvent()), "CREATED", null, null, 2L);
+        assertEquals(withEmptyItem, codec.decode(codec.encode(withEmptyItem)));
+
+        var inventoryEvent = new InventoryEvent(5L, null, null, "AVAILABLE", null, null);
+        assertEquals(inventoryEvent, codec.decode(codec.encode(inventoryEvent)));
+    }
+
+    @Test
+    void inventoryEventV1PayloadDecodesWithoutStockoutEstimate() {
+        var event = new InventoryEvent(9L, "Tomate", 17, "AVAILABLE", LocalDateTime.of(2026, 3, 1, 8, 0));
+        byte[] bytes = codec.encode(event);
+        // Without the estimate the v2 body is identical to v1, so only the schema id differs
+        bytes[1] = BinaryEventCodec.INVENTORY_EVENT_V1;
+
+        var decoded = (InventoryEvent) codec.decode(bytes);
+
+        assertEquals(event, decoded);
+        assertNull(decoded.getEstimatedSecondsToStockout());
+    }
+
+    @Test
+    void unknownSchemaIdIsRejected() {
+        byte[] bytes = codec.encode(new InventoryEvent(9L, "Tomate", 17, "AVAILABLE", null));
+        bytes[1] = 99;
+
+        var failure = assertThrows(IllegalArgumentException.class, () -> codec.decode(bytes));
+        assertTrue(failure.getMessage().contains("99"));
+    }
+
+    @Test
+    void unknownFormatAndTruncatedPayloadsAreRejected() {
+        byte[] bytes = codec.encode(new InventoryEvent(9L, "Tomate", 17, "AVAILABLE", null));
+        byte[] otherFormat = bytes.clone();
+        otherFormat[0] = 2;
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(otherFormat));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(Arrays.copyOf(bytes, bytes.length - 3)));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[0]));
+    }
+
+    @Test
+    void onlyRegisteredTypesAreSupported() {
+        assertTrue(codec.supports(OrderEvent.class));
+        assertTrue(codec.supports(InventoryEvent.class));
+        assertFalse(codec.supports(String.class));
+        assertThrows(IllegalArgumentException.class, () -> codec.encode("not an event"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.persistence.jdbc;
+
+import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.CreateProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.entities.InventoryOutboxMessage;
+import com.go5u.foodflowplatform.inventory.domain.model.entities.ProductItem;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.QuantityUnit;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.InventoryOutboxMessageRepository;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductItemRepository;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ProductBulkInsertRepository.class)
+class ProductBulkInsertRepositoryTests {
+
+    @Autowired
+    private ProductBulkInsertRepository productBulkInsertRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductItemRepository productItemRepository;
+
+    @Autowired
+    private InventoryOutboxMessageRepository outboxRepository;
+
+    @Test
+    void generatedIdsFollowTheInsertionOrder() {
+        List<Product> products = List.of(product("Rice", 10, null), product("Beans", 3, "kg"), product("Salt", 0, null));
+
+        long[] ids = productBulkInsertRepository.insertAll(products);
+
+        assertEquals(3, ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            Product stored = productRepository.findById(ids[i]).orElseThrow();
+            assertEquals(products.get(i).getName(), stored.getName());
+            assertEquals(products.get(i).getQuantity(), stored.getQuantity());
+            assertEquals(products.get(i).getStockStatus(), stored.getStockStatus());
+            assertEquals(0L, stored.getReservedMillis());
+        }
+        assertEquals(QuantityUnit.KILOGRAM, productRepository.findById(ids[1]).orElseThrow().getStockUnit());
+    }
+
+    @Test
+    void lotsAndOutboxMessagesAreLinkedToTheirProducts() {
+        List<Product> products = List.of(product("Rice", 10, null), product("Salt", 0, null), product("Beans", 3, null));
+
+        long[] ids = productBulkInsertRepository.insertAll(products);
+
+        // Only products with stock get an initial lot, carrying their own quantity, date and price
+        Map<Long, ProductItem> lots = productItemRepository.findAll().stream()
+                .collect(Collectors.toMap(lot -> lot.getProduct().getProductId(), lot -> lot));
+        assertEquals(2, lots.size());
+        assertEquals(10, lots.get(ids[0]).getQuantity().quantity());
+        assertEquals(3, lots.get(ids[2]).getQuantity().quantity());
+        assertEquals(products.get(2).getExpirationDate(), lots.get(ids[2]).getExpirationDate());
+        assertFalse(lots.containsKey(ids[1]));
+
+        // Every product gets a status event
+        Map<Long, InventoryOutboxMessage> messages = outboxRepository.findAll().stream()
+                .collect(Collectors.toMap(InventoryOutboxMessage::getProductId, message -> message));
+        assertEquals(3, messages.size());
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(products.get(i).getName(), messages.get(ids[i]).getProductName());
+            assertEquals(products.get(i).getStockStatus(), messages.get(ids[i]).getStatus());
+            assertEquals(products.get(i).getAvailableQuantity(), messages.get(ids[i]).getAvailableQuantity());
+        }
+    }
+
+    private static Product product(String name, int quantity, String unit) {
+        Product product = new Product(new CreateProductCommand(name, null, quantity,
+                LocalDate.now().plusDays(name.length()), new BigDecimal("1.25"), 1L, unit));
+        product.updateStockStatus(quantity == 0 ? "OUT_OF_STOCK" : "AVAILABLE");
+        return product;
+    }
+}
@@ -0,0 +1,39 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories;
+
+import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.CreateProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.BurnRate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ProductRepositoryBurnRateTests {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void burnRateIsStoredWithTheProductStock() {
+        Long productId = productRepository.saveAndFlush(new Product(new CreateProductCommand(
+                "Rice", null, 10, LocalDate.now().plusDays(5), BigDecimal.ONE, 1L, null))).getProductId();
+        assertNull(productRepository.findStockByProductId(productId).orElseThrow().burnRate());
+
+        var since = LocalDateTime.of(2026, 1, 1, 12, 0);
+        var burnRate = new BurnRate(2.5, since, since.plusMinutes(3));
+        assertEquals(1, productRepository.updateBurnRate(productId, burnRate));
+
+        assertEquals(burnRate, productRepository.findStockByProductId(productId).orElseThrow().burnRate());
+    }
+}
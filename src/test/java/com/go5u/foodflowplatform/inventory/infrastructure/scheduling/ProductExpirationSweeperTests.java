@@ -0,0 +1,134 @@
+package com.go5u.foodflowplatform.inventory.infrastructure.scheduling;
+
+import com.go5u.foodflowplatform.inventory.domain.model.aggregates.Product;
+import com.go5u.foodflowplatform.inventory.domain.model.commands.CreateProductCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.entities.InventoryOutboxMessage;
+import com.go5u.foodflowplatform.inventory.domain.model.entities.ProductItem;
+import com.go5u.foodflowplatform.inventory.domain.model.entities.SweepCursor;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ExpirationDate;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.Price;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.Quantity;
+import com.go5u.foodflowplatform.inventory.domain.services.ProductCommandService;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.InventoryOutboxMessageRepository;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductItemRepository;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.ProductRepository;
+import com.go5u.foodflowplatform.inventory.infrastructure.persistence.jpa.repositories.SweepCursorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductExpirationSweeperTests {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductItemRepository productItemRepository;
+
+    @Autowired
+    private InventoryOutboxMessageRepository outboxRepository;
+
+    @Autowired
+    private SweepCursorRepository sweepCursorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+        productItemRepository.deleteAll();
+        productRepository.deleteAll();
+        sweepCursorRepository.deleteAll();
+    }
+
+    @Test
+    void expiringSoonCursorAdvancesOneBatchPerTickAndSurvivesRestarts() {
+        Long first = productWithLot("Milk", 1);
+        Long second = productWithLot("Cream", 1);
+        Long third = productWithLot("Butter", 2);
+
+        sweeper(2, 1).sweep();
+        assertEquals(List.of(first, second), expiringSoonProductIds());
+        var cursor = sweepCursorRepository.findById(ProductExpirationSweeper.EXPIRING_SOON_LOTS_CURSOR).orElseThrow();
+        assertEquals(LocalDate.now().plusDays(1), cursor.getCursorDate());
+        assertNull(cursor.getLeasedBy());
+
+        // A new instance resumes from the stored cursor instead of warning again
+        sweeper(2, 1).sweep();
+        assertEquals(List.of(first, second, third), expiringSoonProductIds());
+        sweeper(2, 1).sweep();
+        assertEquals(List.of(first, second, third), expiringSoonProductIds());
+    }
+
+    @Test
+    void untrackedProductsExpiringSoonAreWarnedOnce() {
+        Long untracked = productRepository.save(product("Eggs", 2)).getProductId();
+
+        var sweeper = sweeper(10, 5);
+        sweeper.sweep();
+        sweeper.sweep();
+
+        assertEquals(List.of(untracked), expiringSoonProductIds());
+    }
+
+    @Test
+    void cursorLeasedByAnotherInstanceIsNotWalked() {
+        productWithLot("Milk", 1);
+        sweepCursorRepository.save(new SweepCursor(ProductExpirationSweeper.EXPIRING_SOON_LOTS_CURSOR));
+        LocalDateTime now = LocalDateTime.now();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> sweepCursorRepository.lease(
+                ProductExpirationSweeper.EXPIRING_SOON_LOTS_CURSOR, "other-instance", now, now.plusMinutes(5)));
+
+        sweeper(10, 5).sweep();
+
+        assertEquals(List.of(), expiringSoonProductIds());
+    }
+
+    private ProductExpirationSweeper sweeper(int batchSize, int maxBatchesPerTick) {
+        return new ProductExpirationSweeper(productItemRepository, productRepository, mock(ProductCommandService.class),
+                outboxRepository, sweepCursorRepository, transactionManager, batchSize, maxBatchesPerTick,
+                Duration.ofDays(3), Duration.ofMinutes(5));
+    }
+
+    private Long productWithLot(String name, int daysToExpiration) {
+        Product product = productRepository.save(product(name, daysToExpiration));
+        productItemRepository.save(new ProductItem(product, product.getExpirationDate(), new Quantity(5), new Price(BigDecimal.ONE)));
+        return product.getProductId();
+    }
+
+    private static Product product(String name, int daysToExpiration) {
+        return new Product(new CreateProductCommand(name, null, 5, LocalDate.now().plusDays(daysToExpiration),
+                BigDecimal.ONE, 1L, null));
+    }
+
+    private List<Long> expiringSoonProductIds() {
+        return outboxRepository.findAll().stream()
+                .filter(message -> "EXPIRING_SOON".equals(message.getStatus()))
+                .sorted(Comparator.comparing(InventoryOutboxMessage::getId))
+                .map(InventoryOutboxMessage::getProductId)
+                .toList();
+    }
+}
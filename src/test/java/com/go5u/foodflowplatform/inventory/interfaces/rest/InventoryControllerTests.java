@@ -0,0 +1,85 @@
+package com.go5u.foodflowplatform.inventory.interfaces.rest;
+
+import com.go5u.foodflowplatform.inventory.domain.model.commands.DecreaseIngredientsStockCommand;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockLineResult;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.StockLineStatus;
+import com.go5u.foodflowplatform.inventory.domain.services.ProductCommandService;
+import com.go5u.foodflowplatform.inventory.domain.services.ProductQueryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class InventoryControllerTests {
+
+    private static final String BULK_DECREASE = "/api/v1/inventory/users/1/ingredients/decrease";
+
+    private ProductCommandService productCommandService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        productCommandService = mock(ProductCommandService.class);
+        var validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new InventoryController(mock(ProductQueryService.class), productCommandService))
+                .setValidator(validator)
+                .build();
+    }
+
+    @Test
+    void fractionalAndRepeatedLinesAreSentInMilliUnits() throws Exception {
+        when(productCommandService.handle(any(DecreaseIngredientsStockCommand.class))).thenReturn(List.of(
+                new StockLineResult("Rice", 2, 10L, 7, StockLineStatus.APPLIED),
+                new StockLineResult("Oil", 1, 11L, 3, StockLineStatus.APPLIED)));
+
+        mockMvc.perform(post(BULK_DECREASE).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"items": [
+                          {"ingredientName": "Rice", "quantity": 0.5},
+                          {"ingredientName": "Oil", "quantity": 0.25},
+                          {"ingredientName": "Rice", "quantity": 1.9}
+                        ]}"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(true));
+
+        var command = ArgumentCaptor.forClass(DecreaseIngredientsStockCommand.class);
+        verify(productCommandService).handle(command.capture());
+        assertEquals(Map.of("Rice", 2_400L, "Oil", 250L), command.getValue().milliQuantities());
+        assertEquals(List.of("Rice", "Oil"), List.copyOf(command.getValue().milliQuantities().keySet()));
+    }
+
+    @Test
+    void quantityBelowOneMilliUnitIsRejected() throws Exception {
+        mockMvc.perform(post(BULK_DECREASE).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"items": [{"ingredientName": "Rice", "quantity": 0.0001}]}"""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Decrease amount must be at least 0.001 for ingredient: Rice"));
+
+        verify(productCommandService, never()).handle(any(DecreaseIngredientsStockCommand.class));
+    }
+
+    @Test
+    void invalidLinesAreRejectedWithTheirMessage() throws Exception {
+        mockMvc.perform(post(BULK_DECREASE).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"items": [{"ingredientName": "Rice", "quantity": -1}]}"""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("La cantidad debe ser positiva"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.go5u.foodflowplatform.inventory.interfaces.rest.transform;
+
+import com.go5u.foodflowplatform.inventory.domain.model.projections.ProductSummary;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductPageCursor;
+import com.go5u.foodflowplatform.inventory.domain.model.valueobjects.ProductSortField;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductPageCursorAssemblerTests {
+
+    private static final ProductSummary LAST = new ProductSummary(42L, "Rice,\nlong grain", 3,
+            LocalDate.of(2026, 11, 2), BigDecimal.ONE);
+
+    @Test
+    void cursorSurvivesTheTokenForEverySortField() {
+        for (ProductSortField sort : ProductSortField.values()) {
+            ProductPageCursor cursor = ProductPageCursorAssembler.toCursorFromLastItem(LAST, sort);
+
+            assertEquals(cursor, ProductPageCursorAssembler.toCursorFromToken(ProductPageCursorAssembler.toToken(cursor)));
+        }
+    }
+
+    @Test
+    void cursorKeepsTheSortValueOfTheLastItem() {
+        assertEquals(new ProductPageCursor(ProductSortField.EXPIRATION_DATE, "2026-11-02", 42L),
+                ProductPageCursorAssembler.toCursorFromLastItem(LAST, ProductSortField.EXPIRATION_DATE));
+        assertEquals(new ProductPageCursor(ProductSortField.PRODUCT_ID, null, 42L),
+                ProductPageCursorAssembler.toCursorFromLastItem(LAST, ProductSortField.PRODUCT_ID));
+    }
+
+    @Test
+    void productWithoutExpirationDateGetsAnEmptySortValue() {
+        var undated = new ProductSummary(7L, "Salt", 1, null, BigDecimal.ONE);
+
+        ProductPageCursor cursor = ProductPageCursorAssembler.toCursorFromLastItem(undated, ProductSortField.EXPIRATION_DATE);
+
+        assertEquals(new ProductPageCursor(ProductSortField.EXPIRATION_DATE, "", 7L), cursor);
+        assertEquals(cursor, ProductPageCursorAssembler.toCursorFromToken(ProductPageCursorAssembler.toToken(cursor)));
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ProductPageCursorAssembler.toCursorFromToken("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> ProductPageCursorAssembler.toCursorFromToken(""));
+        assertThrows(IllegalArgumentException.class, () -> ProductPageCursorAssembler.toCursorFromToken(token("price\n1\n2")));
+        assertThrows(IllegalArgumentException.class, () -> ProductPageCursorAssembler.toCursorFromToken(token("name\nlast\nRice")));
+        assertThrows(IllegalArgumentException.class, () -> ProductPageCursorAssembler.toCursorFromToken(token("name\n1")));
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,138 @@
+package com.go5u.foodflowplatform.shared.infrastructure.persistence.routing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Routes between two embedded H2 databases; each holds a marker row naming itself
+ */
+class ReadWriteRoutingDataSourceTests {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private boolean replicaDown;
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        primary = embeddedDatabase("routing-primary");
+        replica = embeddedDatabase("routing-replica");
+        var unstableReplica = new DelegatingDataSource(replica) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (replicaDown) {
+                    throw new SQLException("replica unreachable");
+                }
+                return super.getConnection();
+            }
+        };
+        routing = new ReadWriteRoutingDataSource(primary, Map.of("replica", unstableReplica), Duration.ofMinutes(1), 1_000);
+
+        var dataSource = new LazyConnectionDataSourceProxy(routing);
+        var transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals("replica", readOnlyTransaction.execute(status -> marker()));
+    }
+
+    @Test
+    void writeTransactionsAndNonTransactionalWorkGoToThePrimary() {
+        assertEquals("primary", writeTransaction.execute(status -> marker()));
+        assertEquals("primary", marker());
+    }
+
+    @Test
+    void tenantReadsStayOnThePrimaryAfterItsWrite() {
+        TenantContext.set(7L);
+        writeTransaction.executeWithoutResult(status -> jdbcTemplate.update("UPDATE marker SET name = 'primary-updated'"));
+        assertEquals("primary-updated", readOnlyTransaction.execute(status -> marker()));
+
+        TenantContext.set(8L);
+        assertEquals("replica", readOnlyTransaction.execute(status -> marker()));
+    }
+
+    @Test
+    void rolledBackWritesDoNotOpenTheWindow() {
+        TenantContext.set(7L);
+        writeTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE marker SET name = 'primary-updated'");
+            status.setRollbackOnly();
+        });
+        assertEquals("replica", readOnlyTransaction.execute(status -> marker()));
+    }
+
+    @Test
+    void unhealthyReplicaIsSkippedUntilItRecovers() {
+        replicaDown = true;
+        routing.checkReplicas(Duration.ofSeconds(1), null, Duration.ofSeconds(5));
+        assertFalse(routing.replicaHealth().get("replica"));
+        assertEquals("primary", readOnlyTransaction.execute(status -> marker()));
+
+        replicaDown = false;
+        routing.checkReplicas(Duration.ofSeconds(1), null, Duration.ofSeconds(5));
+        assertTrue(routing.replicaHealth().get("replica"));
+        assertEquals("replica", readOnlyTransaction.execute(status -> marker()));
+    }
+
+    @Test
+    void readFallsBackToThePrimaryWhenTheReplicaRefusesConnections() {
+        replicaDown = true;
+        assertEquals("primary", readOnlyTransaction.execute(status -> marker()));
+        assertFalse(routing.replicaHealth().get("replica"));
+    }
+
+    @Test
+    void laggingReplicaIsTakenOutOfRotation() {
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_lag (seconds BIGINT); INSERT INTO replica_lag VALUES (30)");
+        routing.checkReplicas(Duration.ofSeconds(1), "SELECT seconds FROM replica_lag", Duration.ofSeconds(5));
+        assertEquals("primary", readOnlyTransaction.execute(status -> marker()));
+    }
+
+    private String marker() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static EmbeddedDatabase embeddedDatabase(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(name)
+                .build();
+        String marker = name.substring("routing-".length());
+        new JdbcTemplate(database).execute("CREATE TABLE marker (name VARCHAR(32)); INSERT INTO marker VALUES ('" + marker + "')");
+        return database;
+    }
+}